@@ -0,0 +1,113 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal benchmark runner: each benchmark is warmed up, then measured over several timed iterations,
+ * reporting the average time and the average allocated bytes per operation.
+ */
+public class BenchmarkRunner {
+    private static final String REPORT_FORMAT = "%-60s %14.1f ns/op %12.1f B/op%n";
+    private static final String HEADER_FORMAT = "%-60s %17s %17s%n";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Number of warmup and of measurement iterations, and the time of each iteration
+     */
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+    /**
+     * Thread MXBean able to count the bytes allocated by a thread, null if the JVM does not support it
+     */
+    private final com.sun.management.ThreadMXBean allocationBean;
+    /**
+     * Sink of the benchmarks' results, so that the JIT cannot drop their work
+     */
+    private long blackhole;
+
+    /**
+     * Constructor for the BenchmarkRunner class
+     * @param warmupIterations Number of warmup iterations
+     * @param measurementIterations Number of measurement iterations
+     * @param iterationMillis Time of each iteration, in milliseconds
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            this.allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            this.allocationBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.allocationBean = null;
+        }
+    }
+
+    /**
+     * Prints the header of the report
+     */
+    public void printHeader() {
+        System.out.printf(HEADER_FORMAT, "Benchmark", "Time", "Allocation");
+    }
+
+    /**
+     * Runs a single benchmark and prints its results
+     * @param name name of the benchmark
+     * @param operationsPerCall number of operations done by each call of the benchmark
+     * @param benchmark benchmark to run, returning a value depending on its work
+     */
+    public void run(String name, int operationsPerCall, LongSupplier benchmark) {
+        for (int i = 0; i < this.warmupIterations; i++) {
+            runIteration(benchmark);
+        }
+        long totalNanos = 0;
+        long totalBytes = 0;
+        long totalCalls = 0;
+        for (int i = 0; i < this.measurementIterations; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long calls = runIteration(benchmark);
+            totalNanos += System.nanoTime() - start;
+            totalBytes += allocatedBytes() - bytesBefore;
+            totalCalls += calls;
+        }
+        double operations = (double) totalCalls * operationsPerCall;
+        System.out.printf(REPORT_FORMAT, name, totalNanos / operations,
+                this.allocationBean == null ? Double.NaN : totalBytes / operations);
+    }
+
+    /**
+     * Calls the benchmark repeatedly for the time of a single iteration
+     * @param benchmark benchmark to run
+     * @return the number of calls done
+     */
+    private long runIteration(LongSupplier benchmark) {
+        long end = System.nanoTime() + (long) (this.iterationMillis * NANOS_PER_MILLI);
+        long calls = 0;
+        do {
+            this.blackhole += benchmark.getAsLong();
+            calls++;
+        } while (System.nanoTime() < end);
+        return calls;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, 0 if it cannot be measured
+     */
+    private long allocatedBytes() {
+        return this.allocationBean == null ? 0 :
+                this.allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return the sink of the benchmarks' results
+     */
+    public long getBlackhole() {
+        return this.blackhole;
+    }
+}
@@ -0,0 +1,208 @@
+package benchmark;
+
+import main.validation.LinearPattern;
+import main.validation.VariableAssignmentValidator;
+import main.validation.VariableDeclarationValidator;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the linear-time recognizers of the declaration and assignment patterns against java.util.regex,
+ * which they replaced: lookingAt of each recognizer is compared with lookingAt of a java.util.regex
+ * matcher of the same regex. The lines are built at random, so that the same seed always checks the same
+ * lines, either as declarations or assignments of which random parts are replaced, or of random fragments
+ * alone. The fragments cover the characters the escapes of the patterns tell apart, such as non-ASCII
+ * letters, digits and spaces for "\w", "\b" and "\s", combining marks, surrogates and the line
+ * terminators "." does not match.
+ */
+public class LinearPatternChecker {
+    /**
+     * Fragments the lines are built of
+     */
+    private static final String[] FRAGMENTS = {"int", "double", "boolean", "char", "String", "final", " ",
+            "  ", "\t", "=", " = ", ",", ", ", ";", "a", "b1", "_", "_x", "__", "Z", "5", "-3", "2.5", "1.1.1",
+            "-", ".", "true", "false", "'c'", "'", "\"s\"", "\"", "\"a,b\"", "\u00E9", "\u0301", "\u0660",
+            "\u00A0", "\u2003", "\u000B", "\f", "\r", "\n", "\u0085", "\u2028", "\u2029", "\uD83D\uDE00",
+            "\uD83D", "\uDE00", "$", "{", "(", "//"};
+    private static final String[] TYPES = {"int", "double", "boolean", "char", "String"};
+    private static final String[] NAMES = {"a", "b1", "_x", "abc", "x_2", "A"};
+    private static final String[] VALUES = {"5", "-3", "2.5", "1.1.1", "true", "false", "'c'", "\"s\"",
+            "\"a, b\"", "a", "b1"};
+    private static final String[] SEPARATORS = {"", " ", "  ", "\t"};
+    private static final String FINAL_MODIFIER = "final ";
+    private static final char TERMINATOR = ';';
+
+    // Default sizes
+    private static final int DEFAULT_LINES = 1000000;
+    private static final int MAX_FRAGMENTS = 12;
+    private static final int MAX_VARIABLES = 4;
+    private static final int MAX_MUTATIONS = 2;
+    private static final long DEFAULT_SEED = 1;
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    /**
+     * Recognizers checked, along with the java.util.regex patterns of their regexes
+     */
+    private static final LinearPattern[] RECOGNIZERS = {VariableDeclarationValidator.getRecognizer(),
+            VariableAssignmentValidator.getRecognizer()};
+    private static final Pattern[] PATTERNS = {Pattern.compile(RECOGNIZERS[0].getRegex()),
+            Pattern.compile(RECOGNIZERS[1].getRegex())};
+
+    /**
+     * Random generator of the lines
+     */
+    private final Random random;
+    /**
+     * Number of lines checked against each recognizer, of lines it accepted and of lines whose results
+     * differ
+     */
+    private long checkedLines;
+    private final long[] acceptedLines = new long[RECOGNIZERS.length];
+    private long mismatches;
+
+    /**
+     * Constructor for the LinearPatternChecker class
+     * @param seed Seed of the lines
+     */
+    public LinearPatternChecker(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Checks a single line against every recognizer, reporting it if the results differ
+     * @param line line to check
+     */
+    private void check(String line) {
+        this.checkedLines++;
+        for (int i = 0; i < RECOGNIZERS.length; i++) {
+            boolean expected = PATTERNS[i].matcher(line).lookingAt();
+            boolean actual = RECOGNIZERS[i].lookingAt(line);
+            if (actual) {
+                this.acceptedLines[i]++;
+            }
+            if (expected != actual) {
+                this.mismatches++;
+                if (this.mismatches <= MAX_REPORTED_MISMATCHES) {
+                    System.out.println("mismatch on " + escape(line) + ": java.util.regex " + expected +
+                            ", linear " + actual + ", regex " + RECOGNIZERS[i].getRegex());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param values values to pick from
+     * @return a random one of the values
+     */
+    private String pick(String[] values) {
+        return values[this.random.nextInt(values.length)];
+    }
+
+    /**
+     * Makes a line of random fragments
+     * @return the line
+     */
+    private String fragmentsLine() {
+        StringBuilder line = new StringBuilder();
+        int fragments = 1 + this.random.nextInt(MAX_FRAGMENTS);
+        for (int i = 0; i < fragments; i++) {
+            line.append(pick(FRAGMENTS));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Makes a declaration or an assignment of several variables, some of them assigned a value
+     * @param declaration true for a declaration, false for an assignment
+     * @return the line
+     */
+    private String variablesLine(boolean declaration) {
+        StringBuilder line = new StringBuilder(pick(SEPARATORS));
+        if (declaration) {
+            line.append(this.random.nextBoolean() ? FINAL_MODIFIER : "").append(pick(TYPES)).append(' ');
+        }
+        int variables = 1 + this.random.nextInt(MAX_VARIABLES);
+        for (int i = 0; i < variables; i++) {
+            if (i > 0) {
+                line.append(pick(SEPARATORS)).append(',').append(pick(SEPARATORS));
+            }
+            line.append(pick(NAMES));
+            if (!declaration || this.random.nextBoolean()) {
+                line.append(pick(SEPARATORS)).append('=').append(pick(SEPARATORS)).append(pick(VALUES));
+            }
+        }
+        return line.append(pick(SEPARATORS)).append(TERMINATOR).append(pick(SEPARATORS)).toString();
+    }
+
+    /**
+     * Replaces or inserts random fragments at random places of a line
+     * @param line line to change
+     * @return the changed line
+     */
+    private String mutate(String line) {
+        StringBuilder mutated = new StringBuilder(line);
+        int mutations = this.random.nextInt(MAX_MUTATIONS + 1);
+        for (int i = 0; i < mutations; i++) {
+            int start = this.random.nextInt(mutated.length() + 1);
+            int end = Math.min(mutated.length(), start + this.random.nextInt(3));
+            mutated.replace(start, end, pick(FRAGMENTS));
+        }
+        return mutated.toString();
+    }
+
+    /**
+     * Checks random lines against the recognizers
+     * @param count number of lines
+     */
+    private void checkRandom(int count) {
+        for (int i = 0; i < count; i++) {
+            switch (this.random.nextInt(3)) {
+                case 0:
+                    check(mutate(variablesLine(true)));
+                    break;
+                case 1:
+                    check(mutate(variablesLine(false)));
+                    break;
+                default:
+                    check(fragmentsLine());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @param line line to print
+     * @return the line between brackets, with the characters outside of printable ASCII escaped
+     */
+    private static String escape(String line) {
+        StringBuilder escaped = new StringBuilder("[");
+        for (int i = 0; i < line.length(); i++) {
+            char curChar = line.charAt(i);
+            if (curChar < ' ' || curChar > '~') {
+                escaped.append(String.format("\\u%04X", (int) curChar));
+            } else {
+                escaped.append(curChar);
+            }
+        }
+        return escaped.append(']').toString();
+    }
+
+    /**
+     * Checks the recognizers against java.util.regex, exiting with 1 if they differ on any line
+     * @param args optionally the number of lines and the seed
+     */
+    public static void main(String[] args) {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINES;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+
+        LinearPatternChecker checker = new LinearPatternChecker(seed);
+        checker.checkRandom(lines);
+        System.out.println("checked " + checker.checkedLines + " lines, " + checker.acceptedLines[0] +
+                " declarations and " + checker.acceptedLines[1] + " assignments accepted, " + checker.mismatches +
+                " mismatches");
+        if (checker.mismatches > 0) {
+            System.exit(1);
+        }
+    }
+}
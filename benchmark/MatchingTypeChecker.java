@@ -0,0 +1,166 @@
+package benchmark;
+
+import main.sJavaDataTypes.SJavaType;
+import main.sJavaDataTypes.SJavaVariable;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Checks SJavaVariable.getMatchingType, which scans the characters of a part, against the value patterns
+ * it replaced, kept here as its oracle: a part is of the type of the first pattern which matches it whole.
+ * Every part of up to a few characters over a small alphabet is checked, and then random parts built of
+ * the fragments of the values, so that the same seed always checks the same parts.
+ */
+public class MatchingTypeChecker {
+    /**
+     * Characters of the checked parts, covering every character class the patterns tell apart, a line
+     * terminator which "." does not match and the halves of a surrogate pair
+     */
+    private static final char[] ALPHABET = {'-', '0', '7', '.', 't', 'f', 'a', 'Z', '_', '\'', '"', ' ', '\n',
+            '\u2028', '\uD83D', '\uDE00'};
+    /**
+     * Fragments the random parts are built of
+     */
+    private static final String[] FRAGMENTS = {"-", "0", "42", ".", ".5", "true", "false", "'", "\"", "a",
+            "x1", "_", "__", "Z", " ", "\t", "\r", "\n", "\u0085", "\u2029", "\uD83D\uDE00", "\uD83D", "$",
+            "\u00E9"};
+    /**
+     * Patterns of the values, which getMatchingType scans for without matching them, in the order it tries
+     * them, along with their types
+     */
+    private static final String INT_VALUES = "([-]|)[0-9]+";
+    private static final String DOUBLE_VALUES = "([-]|)[0-9]+([.][0-9]+)*";
+    private static final String BOOLEAN_VALUES = "true|false|([-]|)[0-9]+([.][0-9]+|)*";
+    private static final String CHAR_VALUES = "'.'";
+    private static final String STRING_VALUES = "\".*\"";
+    private static final String LEGAL_VAR_NAME = "([A-Za-z]+|_+[A-Za-z0-9])\\w*";
+    private static final Pattern[] PATTERNS = {Pattern.compile(INT_VALUES), Pattern.compile(DOUBLE_VALUES),
+            Pattern.compile(BOOLEAN_VALUES), Pattern.compile(CHAR_VALUES), Pattern.compile(STRING_VALUES),
+            Pattern.compile(LEGAL_VAR_NAME)};
+    private static final SJavaType[] TYPES = {SJavaType.INT, SJavaType.DOUBLE, SJavaType.BOOLEAN,
+            SJavaType.CHAR, SJavaType.STRING, SJavaType.VAR};
+
+    // Default sizes
+    private static final int DEFAULT_EXHAUSTIVE_LENGTH = 4;
+    private static final int DEFAULT_RANDOM_PARTS = 1000000;
+    private static final int MAX_FRAGMENTS = 6;
+    private static final long DEFAULT_SEED = 1;
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    /**
+     * Number of parts checked and of parts whose types differ
+     */
+    private long checkedParts;
+    private long mismatches;
+
+    /**
+     * @param part part to identify its type
+     * @return type of the part by the value patterns, VAR for a variable name and null if the part matches
+     * none of them
+     */
+    private static SJavaType getPatternType(String part) {
+        for (int i = 0; i < PATTERNS.length; i++) {
+            if (PATTERNS[i].matcher(part).matches()) {
+                return TYPES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks the type of a single part, reporting it if the types differ
+     * @param part part to check
+     */
+    private void check(String part) {
+        this.checkedParts++;
+        SJavaType expected = getPatternType(part);
+        SJavaType actual = SJavaVariable.getMatchingType(part);
+        if (expected != actual) {
+            this.mismatches++;
+            if (this.mismatches <= MAX_REPORTED_MISMATCHES) {
+                System.out.println("mismatch on " + escape(part) + ": patterns " + expected + ", scan " + actual);
+            }
+        }
+    }
+
+    /**
+     * Checks every part of up to the given length over the alphabet
+     * @param maxLength maximal length of the parts
+     */
+    private void checkExhaustive(int maxLength) {
+        char[] part = new char[maxLength];
+        for (int length = 0; length <= maxLength; length++) {
+            int[] digits = new int[length];
+            /* Counts in base ALPHABET.length, the last digit changing first */
+            while (true) {
+                for (int i = 0; i < length; i++) {
+                    part[i] = ALPHABET[digits[i]];
+                }
+                check(new String(part, 0, length));
+                int position = length - 1;
+                while (position >= 0 && ++digits[position] == ALPHABET.length) {
+                    digits[position--] = 0;
+                }
+                if (position < 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks random parts built of the fragments of the values
+     * @param count number of parts
+     * @param seed seed of the parts
+     */
+    private void checkRandom(int count, long seed) {
+        Random random = new Random(seed);
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            part.setLength(0);
+            int fragments = 1 + random.nextInt(MAX_FRAGMENTS);
+            for (int j = 0; j < fragments; j++) {
+                part.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            check(part.toString());
+        }
+    }
+
+    /**
+     * @param part part to print
+     * @return the part between brackets, with the characters outside of printable ASCII escaped
+     */
+    private static String escape(String part) {
+        StringBuilder escaped = new StringBuilder("[");
+        for (int i = 0; i < part.length(); i++) {
+            char curChar = part.charAt(i);
+            if (curChar < ' ' || curChar > '~') {
+                escaped.append(String.format("\\u%04X", (int) curChar));
+            } else {
+                escaped.append(curChar);
+            }
+        }
+        return escaped.append(']').toString();
+    }
+
+    /**
+     * Checks getMatchingType against the value patterns, exiting with 1 if they differ on any part
+     * @param args optionally the maximal length of the exhaustively checked parts, the number of random
+     *             parts and the seed
+     */
+    public static void main(String[] args) {
+        int maxLength = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EXHAUSTIVE_LENGTH;
+        int randomParts = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RANDOM_PARTS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        MatchingTypeChecker checker = new MatchingTypeChecker();
+        checker.checkExhaustive(maxLength);
+        checker.checkRandom(randomParts, seed);
+        System.out.println("checked " + checker.checkedParts + " parts, " + checker.mismatches +
+                " mismatches");
+        if (checker.mismatches > 0) {
+            System.exit(1);
+        }
+    }
+}
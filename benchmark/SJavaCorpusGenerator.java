@@ -0,0 +1,163 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic, compilable SJava sources for benchmarking the verifier. The number of global
+ * variables, the number of methods, the number of lines in each method and the nesting depth of the
+ * if/while blocks can all be scaled.
+ */
+public class SJavaCorpusGenerator {
+    private static final String INDENT = "    ";
+    private static final String METHOD_PARAMS = "(int a, double b, boolean c)";
+    private static final String[] CONDITIONS = {"c", "a || b", "c && true", "b || 5 && gb"};
+    private static final int NUMBER_OF_STATEMENT_KINDS = 7;
+
+    // Default sizes
+    private static final int DEFAULT_GLOBALS = 100;
+    private static final int DEFAULT_METHODS = 500;
+    private static final int DEFAULT_LINES_PER_METHOD = 20;
+    private static final int DEFAULT_NESTING_DEPTH = 3;
+    private static final long DEFAULT_SEED = 1;
+
+    /**
+     * Number of global variables, of methods, of statement lines in each method and maximal nesting
+     * depth of the blocks in each method
+     */
+    private final int globalVariableCount;
+    private final int methodCount;
+    private final int linesPerMethod;
+    private final int nestingDepth;
+    /**
+     * Seed of the generation, the same seed always generates the same source
+     */
+    private final long seed;
+
+    /**
+     * Constructor for the SJavaCorpusGenerator class
+     * @param globalVariableCount Number of global int variables (a few other globals are always added)
+     * @param methodCount Number of methods
+     * @param linesPerMethod Number of statement lines in each method
+     * @param nestingDepth Maximal nesting depth of the if/while blocks in each method
+     * @param seed Seed of the generation
+     */
+    public SJavaCorpusGenerator(int globalVariableCount, int methodCount, int linesPerMethod,
+                                int nestingDepth, long seed) {
+        this.globalVariableCount = Math.max(1, globalVariableCount);
+        this.methodCount = methodCount;
+        this.linesPerMethod = linesPerMethod;
+        this.nestingDepth = nestingDepth;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates the lines of the source
+     * @return the lines of a compilable SJava source
+     */
+    public List<String> generateLines() {
+        Random random = new Random(this.seed);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < this.globalVariableCount; i++) {
+            lines.add("int g" + i + " = " + i + ";");
+        }
+        lines.add("double gd = 1.5, ge;");
+        lines.add("boolean gb = true;");
+        lines.add("String gs = \"global\";");
+        lines.add("ge = 2;");
+        lines.add("");
+        for (int i = 0; i < this.methodCount; i++) {
+            generateMethod(i, random, lines);
+            lines.add("");
+        }
+        return lines;
+    }
+
+    /**
+     * Generates the source
+     * @return a compilable SJava source
+     */
+    public String generate() {
+        return String.join("\n", generateLines()) + "\n";
+    }
+
+    /**
+     * Generates a single method
+     * @param methodIndex index of the method
+     * @param random random generator of the source
+     * @param lines lines of the source, to add the method's lines to
+     */
+    private void generateMethod(int methodIndex, Random random, List<String> lines) {
+        lines.add("void m" + methodIndex + METHOD_PARAMS + " {");
+        lines.add(INDENT + "int x = a, y;");
+        int depth = 1;
+        int variableIndex = 0;
+        for (int i = 0; i < this.linesPerMethod; i++) {
+            String indent = INDENT.repeat(depth);
+            switch (random.nextInt(NUMBER_OF_STATEMENT_KINDS)) {
+                case 0:
+                    lines.add(indent + "int v" + variableIndex++ + " = g" +
+                            random.nextInt(this.globalVariableCount) + ";");
+                    break;
+                case 1:
+                    lines.add(indent + "double v" + variableIndex++ + " = " + random.nextInt(100) + "." +
+                            random.nextInt(10) + ", w" + variableIndex + " = b;");
+                    break;
+                case 2:
+                    lines.add(indent + "String v" + variableIndex++ + " = \"text " + i + "\";");
+                    break;
+                case 3:
+                    /* Assignments are only recognized by the verifier when they start the line */
+                    lines.add("y = " + random.nextInt(1000) + ";");
+                    break;
+                case 4:
+                    if (depth <= this.nestingDepth) {
+                        String keyword = random.nextBoolean() ? "if" : "while";
+                        lines.add(indent + keyword + " (" + CONDITIONS[random.nextInt(CONDITIONS.length)] +
+                                ") {");
+                        depth++;
+                    } else {
+                        lines.add("// nesting limit reached");
+                    }
+                    break;
+                case 5:
+                    if (depth > 1) {
+                        depth--;
+                        lines.add(INDENT.repeat(depth) + "}");
+                    } else {
+                        lines.add("");
+                    }
+                    break;
+                default:
+                    int calledMethod = random.nextInt(this.methodCount);
+                    lines.add(indent + "m" + calledMethod + "(x, " + random.nextInt(10) + ".5, gb);");
+            }
+        }
+        while (depth > 1) {
+            depth--;
+            lines.add(INDENT.repeat(depth) + "}");
+        }
+        lines.add(INDENT + "return;");
+        lines.add("}");
+    }
+
+    /**
+     * Writes a generated source to a file
+     * @param args output file, and optionally the number of globals, of methods, of lines per method,
+     *             the nesting depth and the seed
+     * @throws IOException if the file could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        SJavaCorpusGenerator generator = new SJavaCorpusGenerator(
+                args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GLOBALS,
+                args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_METHODS,
+                args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_LINES_PER_METHOD,
+                args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_NESTING_DEPTH,
+                args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_SEED);
+        Files.writeString(Paths.get(args[0]), generator.generate());
+    }
+}
@@ -0,0 +1,357 @@
+package benchmark;
+
+import main.Sjavac;
+import main.SjavacOptions;
+import main.sJavaDataTypes.SJavaType;
+import main.sJavaDataTypes.SJavaVariable;
+import main.scopeLogic.GlobalScopeValidator;
+import main.scopeLogic.LineBuffer;
+import main.scopeLogic.MemoryCollector;
+import main.validation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Benchmarks of the hot paths of the verifier, run on a synthetic source made by SJavaCorpusGenerator:
+ * the whole verification of a file and of small invalid sources, the Global Scope validation, every
+ * Validator, the matching of the literal types and the MemoryCollector lookups. The declaration and
+ * assignment validators are also run on adversarial lines of growing lengths, whose cost per character
+ * should not grow with the length.
+ * Usage: java benchmark.VerifierBenchmark [methods] [lines per method] [nesting depth] [globals]
+ */
+public class VerifierBenchmark {
+    // Default sizes of the generated source
+    private static final int DEFAULT_METHODS = 200;
+    private static final int DEFAULT_LINES_PER_METHOD = 30;
+    private static final int DEFAULT_NESTING_DEPTH = 3;
+    private static final int DEFAULT_GLOBALS = 100;
+    private static final long SEED = 1;
+
+    // Runner settings
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_MILLIS = 500;
+
+    // Lookups
+    private static final int LOCAL_SCOPE_DEPTH = 4;
+    private static final int VARIABLES_PER_SCOPE = 8;
+    private static final String[] LITERALS = {"5", "-3.25", "true", "'c'", "\"text\"", "x", "1e5", "-"};
+    private static final String LOCAL_SEPARATOR = "_";
+
+    // Adversarial lines
+    private static final int[] ADVERSARIAL_LENGTHS = {100, 1_000, 10_000, 100_000};
+    private static final String BOOLEAN_FRACTIONS_PREFIX = "boolean b = 1";
+    private static final String BOOLEAN_FRACTION = ".1";
+    private static final String BOOLEAN_FRACTIONS_SUFFIX = " ;x";
+    private static final String STRING_LITERAL_PREFIX = "String s = \"";
+    private static final String STRING_LITERAL_PART = "a\"";
+    private static final String STRING_LITERAL_SUFFIX = " ,;";
+    private static final String FOLLOW_UP_PREFIX = "int a = 1";
+    private static final String FOLLOW_UP_DECLARATION = ", a = 1";
+    private static final String FOLLOW_UP_SUFFIX = " x;";
+    private static final String ASSIGNMENT_PREFIX = "a = \"";
+    private static final String ASSIGNMENT_PART = "a";
+    private static final String ASSIGNMENT_SUFFIX = ";";
+    private static final String[] ADVERSARIAL_DECLARATION_NAMES = {"boolean fractions", "string literal",
+            "follow-up declarations"};
+
+    /* Small invalid sources, one for each kind of compilation error, as verified when triaging inputs */
+    private static final String[] INVALID_SOURCES = {
+            "int a = 5\n",
+            "int a;\nvoid f() {\n    int b = a;\n    return;\n}\n",
+            "void f() {\n    int a = 5;\n    int a = 6;\n    return;\n}\n",
+            "void f() {\n    String s = \"text\";\n    if (s) {\n    }\n    return;\n}\n",
+            "void f() {\n    g();\n    return;\n}\n",
+            "void f() {\n    int a = 5;\n}\n"};
+
+    private static final String TEMP_FILE_PREFIX = "benchmark";
+    private static final String TEMP_FILE_SUFFIX = ".sjava";
+    private static final String UNEXPECTED_RESULT_ERROR = "The generated source was not verified as legal: ";
+    private static final String UNEXPECTED_LEGAL_ERROR = "An invalid source was verified as legal: ";
+    private static final String PARALLEL_METHODS_OPTION = "-m";
+
+    /**
+     * Lines of the generated source
+     */
+    private final List<String> lines;
+    /**
+     * Generated source written to a temporary file
+     */
+    private final Path sourceFile;
+    /**
+     * Global tables of the generated source
+     */
+    private final MemoryCollector globalCollector;
+    /**
+     * Collector with nested local scopes over the global tables of the generated source
+     */
+    private final MemoryCollector localCollector;
+
+    /**
+     * Constructor for the VerifierBenchmark class, generating the source and its tables
+     * @param generator generator of the benchmarked source
+     * @throws IOException if the temporary file could not be written
+     */
+    public VerifierBenchmark(SJavaCorpusGenerator generator) throws IOException {
+        this.lines = generator.generateLines();
+        this.sourceFile = Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        this.sourceFile.toFile().deleteOnExit();
+        Files.write(this.sourceFile, this.lines);
+        this.globalCollector = validateGlobalScope();
+        this.localCollector = this.globalCollector.createLocalScopeCollector();
+        for (int depth = 0; depth < LOCAL_SCOPE_DEPTH; depth++) {
+            this.localCollector.openLocalScope();
+            for (int i = 0; i < VARIABLES_PER_SCOPE; i++) {
+                this.localCollector.addLocalVariable(new SJavaVariable(localName(depth, i), SJavaType.INT, false));
+            }
+        }
+    }
+
+    /**
+     * Verifies the whole generated file, as the program does
+     * @param options options to verify the file with
+     * @return the output of the verification
+     */
+    public long verifyFile(SjavacOptions options) {
+        int output = Sjavac.verifyFile(this.sourceFile.toString(), options).getOutput();
+        if (output != 0) {
+            throw new IllegalStateException(UNEXPECTED_RESULT_ERROR + output);
+        }
+        return output;
+    }
+
+    /**
+     * Verifies each of the invalid sources, whose errors are the common case of the verification of
+     * inputs which are mostly invalid
+     * @param options options to verify the sources with
+     * @return the sum of the outputs of the verifications
+     */
+    public static long verifyInvalidSources(SjavacOptions options) {
+        long outputs = 0;
+        for (String source : INVALID_SOURCES) {
+            int output = Sjavac.verifySource(source, options).getOutput();
+            if (output == 0) {
+                throw new IllegalStateException(UNEXPECTED_LEGAL_ERROR + source);
+            }
+            outputs += output;
+        }
+        return outputs;
+    }
+
+    /**
+     * Runs the Global Scope validation on the generated source
+     * @return the number of methods found
+     */
+    public long globalScope() {
+        return validateGlobalScope().getMethods().size();
+    }
+
+    /**
+     * Runs a validator on every line of the generated source
+     * @param validator validator to run
+     * @return the number of lines the validator accepted, a line rejected with a syntax error is not
+     * counted
+     */
+    public long validate(Validator validator) {
+        long accepted = 0;
+        for (String line : this.lines) {
+            try {
+                if (validator.validate(line)) {
+                    accepted++;
+                }
+            }
+            catch (Exception e) {
+                // Rejected line
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Runs a validator on a single line
+     * @param validator validator to run
+     * @param line line to validate
+     * @return 1 if the validator accepted the line, 0 otherwise
+     */
+    public static long validateLine(Validator validator, String line) {
+        try {
+            return validator.validate(line) ? 1 : 0;
+        }
+        catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Makes a line of a repeated part between a prefix and a suffix, at least as long as the given length
+     * @param prefix start of the line
+     * @param part part to repeat
+     * @param suffix end of the line
+     * @param length minimal length of the line
+     * @return the line
+     */
+    private static String repeatedLine(String prefix, String part, String suffix, int length) {
+        int repetitions = Math.max(1, (length - prefix.length() - suffix.length() + part.length() - 1) /
+                part.length());
+        return prefix + part.repeat(repetitions) + suffix;
+    }
+
+    /**
+     * Makes the adversarial declaration lines, whose backtracking grew superlinearly with their length
+     * @param length minimal length of the lines
+     * @return the lines, a boolean with many fractions, a String with many quotes and many follow-up
+     * declarations, each ending with a syntax error
+     */
+    static String[] adversarialDeclarations(int length) {
+        return new String[]{
+                repeatedLine(BOOLEAN_FRACTIONS_PREFIX, BOOLEAN_FRACTION, BOOLEAN_FRACTIONS_SUFFIX, length),
+                repeatedLine(STRING_LITERAL_PREFIX, STRING_LITERAL_PART, STRING_LITERAL_SUFFIX, length),
+                repeatedLine(FOLLOW_UP_PREFIX, FOLLOW_UP_DECLARATION, FOLLOW_UP_SUFFIX, length)};
+    }
+
+    /**
+     * Makes the adversarial assignment line, a String literal without its closing quote
+     * @param length minimal length of the line
+     * @return the line
+     */
+    static String adversarialAssignment(int length) {
+        return repeatedLine(ASSIGNMENT_PREFIX, ASSIGNMENT_PART, ASSIGNMENT_SUFFIX, length);
+    }
+
+    /**
+     * Matches the type of several literals and names
+     * @return a value depending on the matched types
+     */
+    public long matchingType() {
+        long matched = 0;
+        for (String literal : LITERALS) {
+            SJavaType type = SJavaVariable.getMatchingType(literal);
+            matched += type == null ? 0 : type.getKeyword().length();
+        }
+        return matched;
+    }
+
+    /**
+     * Looks up every global variable and method of the generated source
+     * @return the number of lookups that found their target
+     */
+    public long globalLookups() {
+        long found = 0;
+        for (String line : this.lines) {
+            if (!line.isEmpty() && line.charAt(0) == 'v') {
+                /* Method definition, "void mN(...) {" */
+                String methodName = line.substring(line.indexOf(' ') + 1, line.indexOf('('));
+                found += this.globalCollector.getMethodFromName(methodName) == null ? 0 : 1;
+            }
+        }
+        found += this.globalCollector.checkVariableNameByGlobalVariableTable("gb") == null ? 0 : 1;
+        found += this.globalCollector.checkVariableNameByGlobalVariableTable("missing") == null ? 0 : 1;
+        return found;
+    }
+
+    /**
+     * Looks up the variables of all the nested local scopes, in the current scope and in all of them
+     * @return the number of lookups that found their target
+     */
+    public long localLookups() {
+        long found = 0;
+        for (int depth = 0; depth < LOCAL_SCOPE_DEPTH; depth++) {
+            for (int i = 0; i < VARIABLES_PER_SCOPE; i++) {
+                String name = localName(depth, i);
+                found += this.localCollector.checkVariableNameByVariableTables(name) == null ? 0 : 1;
+                found += this.localCollector.checkVariableNameByCurLocalTable(name) == null ? 0 : 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of lines of the generated source
+     */
+    public int getLineCount() {
+        return this.lines.size();
+    }
+
+    /**
+     * Runs the Global Scope validation on the generated source
+     * @return MemoryCollector holding the global tables of the generated source
+     */
+    private MemoryCollector validateGlobalScope() {
+        MemoryCollector memoryCollector = new MemoryCollector();
+        try {
+            new GlobalScopeValidator(memoryCollector).fillGlobalTablesAndValidate(new LineBuffer(this.lines));
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(UNEXPECTED_RESULT_ERROR + e, e);
+        }
+        return memoryCollector;
+    }
+
+    /**
+     * @param depth depth of the local scope
+     * @param index index of the variable in the scope
+     * @return name of a variable of the nested local scopes
+     */
+    private static String localName(int depth, int index) {
+        return "l" + depth + LOCAL_SEPARATOR + index;
+    }
+
+    /**
+     * Runs all the benchmarks and prints their results
+     * @param args optionally the number of methods, of lines per method, the nesting depth and the
+     *             number of globals of the generated source
+     * @throws IOException if the temporary file could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        SJavaCorpusGenerator generator = new SJavaCorpusGenerator(
+                args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_GLOBALS,
+                args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_METHODS,
+                args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LINES_PER_METHOD,
+                args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_NESTING_DEPTH,
+                SEED);
+        VerifierBenchmark benchmark = new VerifierBenchmark(generator);
+        int lineCount = benchmark.getLineCount();
+        SjavacOptions sequential = new SjavacOptions();
+        SjavacOptions parallelMethods = new SjavacOptions(new String[]{PARALLEL_METHODS_OPTION});
+
+        BenchmarkRunner runner = new BenchmarkRunner(WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_MILLIS);
+        System.out.println("Generated source of " + lineCount + " lines");
+        runner.printHeader();
+        runner.run("Sjavac.verifyFile (per file)", 1, () -> benchmark.verifyFile(sequential));
+        runner.run("Sjavac.verifyFile (per line)", lineCount, () -> benchmark.verifyFile(sequential));
+        runner.run("Sjavac.verifyFile -m (per file)", 1, () -> benchmark.verifyFile(parallelMethods));
+        runner.run("Sjavac.verifySource invalid (per source)", INVALID_SOURCES.length,
+                () -> verifyInvalidSources(sequential));
+        runner.run("GlobalScopeValidator.fillGlobalTablesAndValidate (per file)", 1,
+                benchmark::globalScope);
+        Validator[] validators = {new CommentValidator(), new ConditionsValidator(), new EmptyLineValidator(),
+                new EndOfBlockValidator(), new EndOfLineValidator(), new MethodCallValidator(),
+                new MethodDefinitionValidator(), new ReturnValidator(), new VariableAssignmentValidator(),
+                new VariableDeclarationValidator()};
+        for (Validator validator : validators) {
+            runner.run(validator.getClass().getSimpleName() + ".validate (per line)", lineCount,
+                    () -> benchmark.validate(validator));
+        }
+        Validator declarationValidator = new VariableDeclarationValidator();
+        Validator assignmentValidator = new VariableAssignmentValidator();
+        for (int length : ADVERSARIAL_LENGTHS) {
+            String[] declarations = adversarialDeclarations(length);
+            for (int i = 0; i < declarations.length; i++) {
+                String line = declarations[i];
+                runner.run("VariableDeclarationValidator " + ADVERSARIAL_DECLARATION_NAMES[i] + " " +
+                        line.length() + " (per char)", line.length(), () -> validateLine(declarationValidator, line));
+            }
+            String assignment = adversarialAssignment(length);
+            runner.run("VariableAssignmentValidator string literal " + assignment.length() + " (per char)",
+                    assignment.length(), () -> validateLine(assignmentValidator, assignment));
+        }
+        runner.run("SJavaVariable.getMatchingType (per literal)", LITERALS.length, benchmark::matchingType);
+        runner.run("MemoryCollector global lookups (per file)", 1, benchmark::globalLookups);
+        runner.run("MemoryCollector local lookups (per lookup)", 2 * LOCAL_SCOPE_DEPTH * VARIABLES_PER_SCOPE,
+                benchmark::localLookups);
+        System.out.println("Blackhole: " + runner.getBlackhole());
+    }
+}
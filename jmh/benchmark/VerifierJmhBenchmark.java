@@ -0,0 +1,247 @@
+package benchmark;
+
+import main.SjavacOptions;
+import main.validation.Validator;
+import main.validation.VariableAssignmentValidator;
+import main.validation.VariableDeclarationValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the hot paths of the verifier, the same as those VerifierBenchmark runs on its own
+ * runner, which remains for running them without the JMH build profile. Each benchmark runs on the source
+ * generated by SJavaCorpusGenerator with the given sizes, and returns its result for JMH to consume.
+ * Usage: mvn -P jmh package, then java -jar target/benchmarks.jar [JMH options]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class VerifierJmhBenchmark {
+    private static final String VALIDATORS_PACKAGE = "main.validation.";
+    private static final String PARALLEL_METHODS_OPTION = "-m";
+    private static final long SEED = 1;
+
+    /**
+     * The generated source and its tables, shared by all the threads of a benchmark
+     */
+    @State(Scope.Benchmark)
+    public static class SourceState {
+        /**
+         * Sizes of the generated source
+         */
+        @Param("200")
+        public int methods;
+        @Param("30")
+        public int linesPerMethod;
+        @Param("3")
+        public int nestingDepth;
+        @Param("100")
+        public int globals;
+
+        /**
+         * Benchmarks of the generated source
+         */
+        private VerifierBenchmark benchmark;
+        /**
+         * Options of the sequential and of the parallel verification of the methods
+         */
+        private SjavacOptions sequential;
+        private SjavacOptions parallelMethods;
+
+        /**
+         * Generates the source and its tables
+         * @throws IOException if the temporary file could not be written
+         */
+        @Setup
+        public void setUp() throws IOException {
+            this.benchmark = new VerifierBenchmark(new SJavaCorpusGenerator(this.globals, this.methods,
+                    this.linesPerMethod, this.nestingDepth, SEED));
+            this.sequential = new SjavacOptions();
+            this.parallelMethods = new SjavacOptions(new String[]{PARALLEL_METHODS_OPTION});
+        }
+    }
+
+    /**
+     * A validator run on every line of the generated source
+     */
+    @State(Scope.Benchmark)
+    public static class ValidatorState {
+        /**
+         * Simple name of the class of the validator
+         */
+        @Param({"CommentValidator", "ConditionsValidator", "EmptyLineValidator", "EndOfBlockValidator",
+                "EndOfLineValidator", "MethodCallValidator", "MethodDefinitionValidator", "ReturnValidator",
+                "VariableAssignmentValidator", "VariableDeclarationValidator"})
+        public String validatorName;
+
+        /**
+         * The validator
+         */
+        private Validator validator;
+
+        /**
+         * Creates the validator
+         * @throws ReflectiveOperationException if the validator could not be created
+         */
+        @Setup
+        public void setUp() throws ReflectiveOperationException {
+            this.validator = (Validator) Class.forName(VALIDATORS_PACKAGE + this.validatorName)
+                    .getDeclaredConstructor().newInstance();
+        }
+    }
+
+    /**
+     * Adversarial lines of a given length, whose cost per character should not grow with the length
+     */
+    @State(Scope.Benchmark)
+    public static class AdversarialState {
+        /**
+         * Minimal length of the lines
+         */
+        @Param({"100", "1000", "10000", "100000"})
+        public int length;
+
+        /**
+         * Adversarial declaration lines and assignment line
+         */
+        private String[] declarations;
+        private String assignment;
+        /**
+         * Validators of the lines
+         */
+        private final Validator declarationValidator = new VariableDeclarationValidator();
+        private final Validator assignmentValidator = new VariableAssignmentValidator();
+
+        /**
+         * Makes the lines
+         */
+        @Setup
+        public void setUp() {
+            this.declarations = VerifierBenchmark.adversarialDeclarations(this.length);
+            this.assignment = VerifierBenchmark.adversarialAssignment(this.length);
+        }
+    }
+
+    /**
+     * @param state the generated source
+     * @return the output of the verification of the whole file
+     */
+    @Benchmark
+    public long verifyFile(SourceState state) {
+        return state.benchmark.verifyFile(state.sequential);
+    }
+
+    /**
+     * @param state the generated source
+     * @return the output of the verification of the whole file, its methods checked in parallel
+     */
+    @Benchmark
+    public long verifyFileParallelMethods(SourceState state) {
+        return state.benchmark.verifyFile(state.parallelMethods);
+    }
+
+    /**
+     * @param state the generated source
+     * @return the sum of the outputs of the verifications of the small invalid sources
+     */
+    @Benchmark
+    public long verifyInvalidSources(SourceState state) {
+        return VerifierBenchmark.verifyInvalidSources(state.sequential);
+    }
+
+    /**
+     * @param state the generated source
+     * @return the number of methods the Global Scope validation found
+     */
+    @Benchmark
+    public long globalScope(SourceState state) {
+        return state.benchmark.globalScope();
+    }
+
+    /**
+     * @param state the generated source
+     * @param validatorState the validator
+     * @return the number of lines the validator accepted
+     */
+    @Benchmark
+    public long validate(SourceState state, ValidatorState validatorState) {
+        return state.benchmark.validate(validatorState.validator);
+    }
+
+    /**
+     * @param state the adversarial lines
+     * @return 1 if the validator accepted the line, 0 otherwise
+     */
+    @Benchmark
+    public long booleanFractionsDeclaration(AdversarialState state) {
+        return VerifierBenchmark.validateLine(state.declarationValidator, state.declarations[0]);
+    }
+
+    /**
+     * @param state the adversarial lines
+     * @return 1 if the validator accepted the line, 0 otherwise
+     */
+    @Benchmark
+    public long stringLiteralDeclaration(AdversarialState state) {
+        return VerifierBenchmark.validateLine(state.declarationValidator, state.declarations[1]);
+    }
+
+    /**
+     * @param state the adversarial lines
+     * @return 1 if the validator accepted the line, 0 otherwise
+     */
+    @Benchmark
+    public long followUpDeclarations(AdversarialState state) {
+        return VerifierBenchmark.validateLine(state.declarationValidator, state.declarations[2]);
+    }
+
+    /**
+     * @param state the adversarial lines
+     * @return 1 if the validator accepted the line, 0 otherwise
+     */
+    @Benchmark
+    public long stringLiteralAssignment(AdversarialState state) {
+        return VerifierBenchmark.validateLine(state.assignmentValidator, state.assignment);
+    }
+
+    /**
+     * @param state the generated source
+     * @return a value depending on the matched types of several literals and names
+     */
+    @Benchmark
+    public long matchingType(SourceState state) {
+        return state.benchmark.matchingType();
+    }
+
+    /**
+     * @param state the generated source
+     * @return the number of global lookups that found their target
+     */
+    @Benchmark
+    public long globalLookups(SourceState state) {
+        return state.benchmark.globalLookups();
+    }
+
+    /**
+     * @param state the generated source
+     * @return the number of local lookups that found their target
+     */
+    @Benchmark
+    public long localLookups(SourceState state) {
+        return state.benchmark.localLookups();
+    }
+}
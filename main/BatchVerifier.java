@@ -0,0 +1,140 @@
+package main;
+
+import main.scopeLogic.LineError;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class responsible for checking many SJava files in a single run, printing the output of each file
+ * followed by a summary of all of them. The files are checked in parallel on a work-stealing pool.
+ */
+public class BatchVerifier {
+    // Arguments
+    private static final String FILE_LIST_PREFIX = "@";
+    private static final String SJAVA_FILE_SUFFIX = ".sjava";
+
+    // Errors
+    private static final String FILE_LIST_NOT_READ_ERROR = "The file list provided could not be read!";
+    private static final String DIRECTORY_NOT_READ_ERROR = "The directory provided could not be read!";
+
+    // Summary
+    private static final String SUMMARY_FORMAT = "Checked %d files: %d legal, %d illegal, %d IO errors";
+
+    /**
+     * Options of the run, including the files to be checked
+     */
+    private final SjavacOptions options;
+
+    /**
+     * Constructor for the BatchVerifier class
+     * @param options Options of the run, including the files to be checked
+     */
+    public BatchVerifier(SjavacOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Checks if the given argument can only be handled by a batch run, meaning it is a directory or a
+     * file list
+     * @param arg provided argument
+     * @return true if the argument is a directory or a file list, false otherwise
+     */
+    public static boolean isBatchArgument(String arg) {
+        return arg.startsWith(FILE_LIST_PREFIX) || new File(arg).isDirectory();
+    }
+
+    /**
+     * Checks all the SJava files given by the options, printing a line with the output and the path of
+     * each file in the order they were given, and a summary line at the end. Each of the options' links
+     * is either an SJava file, a directory whose .sjava files are all checked, or a file list (prefixed
+     * by @) with one SJava file per line.
+     */
+    public void verifyAll() {
+        int[] outputCounts = new int[VerificationResult.IO_ERROR_OUTPUT + 1];
+        List<String> links = new ArrayList<>();
+        for (String arg : this.options.getLinks()) {
+            try {
+                links.addAll(collectLinks(arg));
+            }
+            catch (IOException ioe) {
+                String error = arg.startsWith(FILE_LIST_PREFIX) ?
+                        FILE_LIST_NOT_READ_ERROR : DIRECTORY_NOT_READ_ERROR;
+                printResult(arg, new VerificationResult(VerificationResult.IO_ERROR_OUTPUT, error));
+                outputCounts[VerificationResult.IO_ERROR_OUTPUT]++;
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(this.options.getThreadCount());
+        List<ForkJoinTask<VerificationResult>> tasks = new ArrayList<>();
+        for (String link : links) {
+            tasks.add(pool.submit(() -> Sjavac.verifyFile(link, this.options)));
+        }
+        for (int i = 0; i < links.size(); i++) {
+            VerificationResult result = tasks.get(i).join();
+            printResult(links.get(i), result);
+            outputCounts[result.getOutput()]++;
+        }
+        pool.shutdown();
+
+        int total = outputCounts[VerificationResult.LEGAL_CODE_OUTPUT] +
+                outputCounts[VerificationResult.ILLEGAL_CODE_OUTPUT] +
+                outputCounts[VerificationResult.IO_ERROR_OUTPUT];
+        System.out.println(String.format(SUMMARY_FORMAT, total,
+                outputCounts[VerificationResult.LEGAL_CODE_OUTPUT],
+                outputCounts[VerificationResult.ILLEGAL_CODE_OUTPUT],
+                outputCounts[VerificationResult.IO_ERROR_OUTPUT]));
+    }
+
+    /**
+     * Collects the paths of the SJava files given by a single argument
+     * @param arg provided argument - a file, a directory or a file list
+     * @return paths of the SJava files to be checked, in a stable order
+     * @throws IOException if the directory or the file list could not be read
+     */
+    private List<String> collectLinks(String arg) throws IOException {
+        if (arg.startsWith(FILE_LIST_PREFIX)) {
+            Path fileList = Paths.get(arg.substring(FILE_LIST_PREFIX.length()));
+            try (Stream<String> lines = Files.lines(fileList)) {
+                return lines.map(String::trim).filter(line -> !line.isEmpty()).collect(Collectors.toList());
+            }
+        }
+        if (new File(arg).isDirectory()) {
+            try (Stream<Path> paths = Files.walk(Paths.get(arg))) {
+                return paths.filter(Files::isRegularFile)
+                        .map(Path::toString)
+                        .filter(path -> path.endsWith(SJAVA_FILE_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+        List<String> links = new ArrayList<>();
+        links.add(arg);
+        return links;
+    }
+
+    /**
+     * Prints the output of a single file, and its errors if there are any
+     * @param link path of the file
+     * @param result result of the file's check
+     */
+    private void printResult(String link, VerificationResult result) {
+        System.out.println(result.getOutput() + " " + link);
+        if (!result.getErrors().isEmpty()) {
+            for (LineError lineError : result.getErrors()) {
+                System.err.println(link + ": " + lineError);
+            }
+        } else if (result.getErrorMessage() != null) {
+            System.err.println(link + ": " + result.getErrorMessage());
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package main;
+
+import main.sJavaDataTypes.SJavaMethod;
+import main.sJavaDataTypes.SJavaVariable;
+import main.scopeLogic.*;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * Class responsible for re-checking SJava files that are checked again and again as they are edited. The
+ * verdict of each method is cached, and a method is only validated again if its lines changed, if the
+ * global variables changed, or if the signature of a method it looks up changed. The Global Scope is
+ * validated on every check, as it finds the methods and their lines.
+ */
+public class IncrementalVerifier {
+    // Errors
+    private static final String FILE_NOT_FOUND_ERROR = "The file name provided was not found!";
+
+    private static final int DEFAULT_MAX_CACHED_FILES = 64;
+    private static final int HASH_BUFFER_SIZE = 8192;
+    private static final char LINE_SEPARATOR = '\n';
+    private static final char FINAL_MARK = 'f';
+    private static final char VALUE_MARK = 'v';
+
+    /**
+     * Cached verdicts of the methods of each checked file, by file path and then by method lines. Only the
+     * files checked most recently are kept, the least recently checked file being forgotten first.
+     */
+    private final LinkedHashMap<String, HashMap<MethodKey, MethodVerdict>> verdictsByFile;
+    /**
+     * Number of methods validated and number of methods whose cached verdict was used, in the last check
+     */
+    private int validatedMethods;
+    private int reusedMethods;
+
+    /**
+     * Constructor for the IncrementalVerifier class, keeping the verdicts of a default number of files
+     */
+    public IncrementalVerifier() {
+        this(DEFAULT_MAX_CACHED_FILES);
+    }
+
+    /**
+     * Constructor for the IncrementalVerifier class
+     * @param maxCachedFiles Number of files whose verdicts are kept, the least recently checked file being
+     *                       forgotten first
+     */
+    public IncrementalVerifier(int maxCachedFiles) {
+        this.verdictsByFile = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HashMap<MethodKey, MethodVerdict>> eldest) {
+                return size() > maxCachedFiles;
+            }
+        };
+    }
+
+    /**
+     * Checks the provided SJava file for compilability, validating again only the methods whose verdict
+     * may have changed since the file was last checked
+     * @param link path of the SJava file
+     * @return the result of the check
+     */
+    public synchronized VerificationResult verifyFile(String link) {
+        this.validatedMethods = 0;
+        this.reusedMethods = 0;
+        try (FileInputStream curFile = new FileInputStream(link)) {
+            determineCompilable(link, curFile);
+
+            return new VerificationResult(VerificationResult.LEGAL_CODE_OUTPUT, null);
+        }
+        catch (FileNotFoundException fe) {
+            this.verdictsByFile.remove(link);
+            return new VerificationResult(VerificationResult.IO_ERROR_OUTPUT, FILE_NOT_FOUND_ERROR);
+        }
+        catch (Exception e) {
+            /* Keeping the Exception text */
+            return new VerificationResult(VerificationResult.ILLEGAL_CODE_OUTPUT, e.toString());
+        }
+    }
+
+    /**
+     * Forgets the cached verdicts of a file
+     * @param link path of the SJava file
+     */
+    public synchronized void invalidate(String link) {
+        this.verdictsByFile.remove(link);
+    }
+
+    /**
+     * @return Number of methods validated in the last check
+     */
+    public synchronized int getValidatedMethods() {
+        return this.validatedMethods;
+    }
+
+    /**
+     * @return Number of methods whose cached verdict was used in the last check
+     */
+    public synchronized int getReusedMethods() {
+        return this.reusedMethods;
+    }
+
+    /**
+     * Determines if the provided file is compilable, as Sjavac does, using the cached verdicts of the
+     * methods that did not change. The methods are checked in the order of the file, so that the error of
+     * the first method that is not compilable is thrown.
+     * @param link path of the SJava file
+     * @param curFile to be checked for compilability
+     * @throws Exception If the file is found to not be compilable.
+     */
+    private void determineCompilable(String link, FileInputStream curFile) throws Exception {
+        MemoryCollector memoryCollector = new MemoryCollector();
+        LineBuffer lineBuffer = LineBuffer.readFile(curFile);
+        GlobalScopeValidator globalScopeValidator = new GlobalScopeValidator(memoryCollector);
+        globalScopeValidator.fillGlobalTablesAndValidate(lineBuffer);
+
+        String globalsFingerprint = globalsFingerprint(memoryCollector);
+        HashMap<MethodKey, MethodVerdict> oldVerdicts =
+                this.verdictsByFile.getOrDefault(link, new HashMap<>());
+        /* Only the verdicts of the methods in the current version of the file are kept */
+        HashMap<MethodKey, MethodVerdict> newVerdicts = new HashMap<>();
+        this.verdictsByFile.put(link, newVerdicts);
+        MethodScopesValidator methodScopesValidator = new MethodScopesValidator(memoryCollector,
+                globalScopeValidator.getParsedLines());
+
+        for (SJavaMethod sJavaMethod : memoryCollector.getMethods()) {
+            MethodKey methodKey = new MethodKey(lineBuffer.slice(sJavaMethod.getFirstLine(),
+                    sJavaMethod.getLastLine()));
+            MethodVerdict verdict = oldVerdicts.get(methodKey);
+            if (verdict != null && verdict.isValid(globalsFingerprint, memoryCollector)) {
+                this.reusedMethods++;
+            } else {
+                MemoryCollector localScopeCollector = memoryCollector.createLocalScopeCollector();
+                localScopeCollector.recordLookups();
+                Exception methodException = methodScopesValidator.validateMethod(sJavaMethod,
+                        localScopeCollector);
+                verdict = new MethodVerdict(methodException, globalsFingerprint,
+                        calleeSignatures(localScopeCollector.getLookedUpMethods(), memoryCollector));
+                this.validatedMethods++;
+            }
+            newVerdicts.put(methodKey, verdict);
+            if (verdict.methodException != null) {
+                /* The methods after this one were not checked, so their old verdicts are kept */
+                oldVerdicts.forEach(newVerdicts::putIfAbsent);
+                throw verdict.methodException;
+            }
+        }
+    }
+
+    /**
+     * Describes the global variables, which all the methods may depend on
+     * @param memoryCollector MemoryCollector holding the global tables of the file
+     * @return a text that changes whenever a global variable is added, removed or changed
+     */
+    private static String globalsFingerprint(MemoryCollector memoryCollector) {
+        List<String> descriptions = new ArrayList<>();
+        for (SJavaVariable sv : memoryCollector.getGlobalVariables()) {
+            descriptions.add(sv.getName() + ' ' + sv.getType() + ' ' + (sv.isFinal() ? FINAL_MARK : ' ') +
+                    (sv.hasValue() ? VALUE_MARK : ' '));
+        }
+        /* The table is not ordered, so the descriptions are sorted to describe it the same way each time */
+        Collections.sort(descriptions);
+        return String.join(String.valueOf(LINE_SEPARATOR), descriptions);
+    }
+
+    /**
+     * @param methodNames names of the methods a method looked up
+     * @param memoryCollector MemoryCollector holding the global tables of the file
+     * @return the current signature of each of the methods, null for the methods which do not exist
+     */
+    private static HashMap<String, String> calleeSignatures(Set<String> methodNames,
+                                                            MemoryCollector memoryCollector) {
+        HashMap<String, String> signatures = new HashMap<>();
+        for (String methodName : methodNames) {
+            SJavaMethod callee = memoryCollector.getMethodFromName(methodName);
+            signatures.put(methodName, callee == null ? null : callee.getSignature());
+        }
+        return signatures;
+    }
+
+    /**
+     * Identifies the lines of a method by their SHA-256 hash, as VerdictCache identifies a source, so that
+     * two different methods are never taken for the same one
+     */
+    private static final class MethodKey {
+        /**
+         * Hash of the characters of the lines, each line followed by a line separator
+         */
+        private final byte[] hash;
+
+        /**
+         * Constructor for the MethodKey class
+         * @param methodLines Buffer of the lines of the method
+         */
+        private MethodKey(LineBuffer methodLines) {
+            MessageDigest digest = VerdictCache.newDigest();
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int bufferLength = 0;
+            while (methodLines.hasNextLine()) {
+                CharSequence line = methodLines.nextLine();
+                for (int i = 0; i <= line.length(); i++) {
+                    char curChar = i < line.length() ? line.charAt(i) : LINE_SEPARATOR;
+                    /* Both bytes of each character are hashed, so that any two different texts differ */
+                    buffer[bufferLength++] = (byte) (curChar >> Byte.SIZE);
+                    buffer[bufferLength++] = (byte) curChar;
+                    if (bufferLength == buffer.length) {
+                        digest.update(buffer, 0, bufferLength);
+                        bufferLength = 0;
+                    }
+                }
+            }
+            digest.update(buffer, 0, bufferLength);
+            this.hash = digest.digest();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof MethodKey && Arrays.equals(this.hash, ((MethodKey) other).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(this.hash);
+        }
+    }
+
+    /**
+     * The verdict of a method, along with everything outside the method's lines that it depends on
+     */
+    private static final class MethodVerdict {
+        /**
+         * The exception the method is not compilable for, null if it is compilable
+         */
+        private final Exception methodException;
+        /**
+         * Description of the global variables when the method was validated
+         */
+        private final String globalsFingerprint;
+        /**
+         * Signatures of the methods the method looked up when it was validated, by method name
+         */
+        private final HashMap<String, String> calleeSignatures;
+
+        /**
+         * Constructor for the MethodVerdict class
+         * @param methodException The exception the method is not compilable for, null if it is compilable
+         * @param globalsFingerprint Description of the global variables when the method was validated
+         * @param calleeSignatures Signatures of the methods the method looked up, by method name
+         */
+        private MethodVerdict(Exception methodException, String globalsFingerprint,
+                              HashMap<String, String> calleeSignatures) {
+            this.methodException = methodException;
+            this.globalsFingerprint = globalsFingerprint;
+            this.calleeSignatures = calleeSignatures;
+        }
+
+        /**
+         * Checks if the verdict still holds for the current version of the file
+         * @param curGlobalsFingerprint Description of the current global variables
+         * @param memoryCollector MemoryCollector holding the current global tables of the file
+         * @return true if nothing the method depends on changed, false otherwise
+         */
+        private boolean isValid(String curGlobalsFingerprint, MemoryCollector memoryCollector) {
+            if (!this.globalsFingerprint.equals(curGlobalsFingerprint)) {
+                return false;
+            }
+            for (Map.Entry<String, String> callee : this.calleeSignatures.entrySet()) {
+                SJavaMethod curCallee = memoryCollector.getMethodFromName(callee.getKey());
+                String curSignature = curCallee == null ? null : curCallee.getSignature();
+                if (!Objects.equals(callee.getValue(), curSignature)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
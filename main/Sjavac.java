@@ -1,11 +1,17 @@
 package main;
 
+import main.instrumentation.VerifierStatistics;
 import main.scopeLogic.*;
 import main.validation.SyntaxException;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * Class responsible for the general running of the Compilation checking process of the provided SJava file
@@ -13,71 +19,259 @@ import java.util.Scanner;
 public class Sjavac {
     // Errors
     private static final String FILE_NOT_FOUND_ERROR = "The file name provided was not found!";
+    private static final String SERVER_ERROR = "The server could not be started: ";
 
-    // Possible outputs for a provided SJava file
-    private static final int LEGAL_CODE_OUTPUT = 0;
-    private static final int ILLEGAL_CODE_OUTPUT = 1;
-    private static final int IO_ERROR_OUTPUT = 2;
-
-    private static String link;
+    /**
+     * Link standing for the standard input, rather than for a file
+     */
+    private static final String STANDARD_INPUT_LINK = "-";
 
     /**
      * Main function running the program
-     * @param args provided arguments. provided SJava file being in args[0]
+     * @param args provided arguments. provided SJava file being in args[0] ("-" for the standard input), or
+     *             several files, directories and file lists (prefixed by @) to be checked together, along
+     *             with the options:
+     *             -j N - number of threads checking the files of a batch run, or the requests of a server
+     *             -m - check the methods of each file in parallel
+     *             -s ADDRESS - serve verification requests on a localhost TCP port or a Unix domain socket
+     *             -e N - report up to N errors of each file, each with its line number, rather than only
+     *             the first error
+     *             -i - record the statistics of the verification, serving them through JMX and printing
+     *             them to the standard error at exit
+     *             -c DIR - cache the verdicts of the checked files in the given directory, across runs
+     *             -C N - keep up to N megabytes of cached verdicts on disk (64 by default)
      */
     public static void main(String[] args){
-        link = args[0];
+        SjavacOptions options;
+        try {
+            options = new SjavacOptions(args);
+        }
+        catch (IllegalArgumentException iae) {
+            System.out.println(VerificationResult.ILLEGAL_CODE_OUTPUT);
+            System.err.println(iae.getMessage());
+            return;
+        }
+        if (options.isInstrumented()) {
+            VerifierStatistics.start(System.err);
+        }
+        if (options.getServerAddress() != null) {
+            try {
+                new VerifierServer(options).serve();
+            }
+            catch (IOException | IllegalArgumentException e) {
+                System.out.println(VerificationResult.IO_ERROR_OUTPUT);
+                System.err.println(SERVER_ERROR + e);
+            }
+            return;
+        }
+        List<String> links = options.getLinks();
 
-        if(link == null) {
-            System.out.println(ILLEGAL_CODE_OUTPUT);
+        if(links.isEmpty() || links.get(0) == null) {
+            System.out.println(VerificationResult.ILLEGAL_CODE_OUTPUT);
             return;
         }
 
-        try {
-            FileInputStream curFile = new FileInputStream(link);
-            Sjavac.determineCompilable(curFile);
+        VerificationResult result;
+        if (links.size() == 1 && links.get(0).equals(STANDARD_INPUT_LINK)) {
+            result = verifyStream(System.in, options);
+        } else if (links.size() > 1 || BatchVerifier.isBatchArgument(links.get(0))) {
+            new BatchVerifier(options).verifyAll();
+            return;
+        } else {
+            result = verifyFile(links.get(0), options);
+        }
+        System.out.println(result.getOutput());
+        if (!result.getErrors().isEmpty()) {
+            for (LineError lineError : result.getErrors()) {
+                System.err.println(lineError);
+            }
+        } else if (result.getErrorMessage() != null) {
+            System.err.println(result.getErrorMessage());
+        }
+    }
 
-            System.out.println(LEGAL_CODE_OUTPUT);
+    /**
+     * Checks the provided SJava file for compilability, with the default options
+     * @param link path of the SJava file
+     * @return the result of the check
+     */
+    public static VerificationResult verifyFile(String link) {
+        return verifyFile(link, new SjavacOptions());
+    }
+
+    /**
+     * Checks the provided SJava file for compilability. If the options cache the verdicts, the verdict of
+     * a file whose content was already checked is taken from the cache.
+     * @param link path of the SJava file
+     * @param options options of the check
+     * @return the result of the check
+     */
+    public static VerificationResult verifyFile(String link, SjavacOptions options) {
+        VerdictCache verdictCache = VerdictCache.forOptions(options);
+        if (verdictCache != null) {
+            VerificationResult result = verdictCache.verifyFile(link, options);
+            if (result != null) {
+                return result;
+            }
+        }
+        LineBuffer lineBuffer;
+        try (FileInputStream curFile = new FileInputStream(link)) {
+            lineBuffer = LineBuffer.readFile(curFile);
         }
         catch (FileNotFoundException fe) {
-            System.out.println(IO_ERROR_OUTPUT);
-            System.err.println(FILE_NOT_FOUND_ERROR);
+            return new VerificationResult(VerificationResult.IO_ERROR_OUTPUT, FILE_NOT_FOUND_ERROR);
+        }
+        catch (IOException ioe) {
+            /* Keeping the Exception text */
+            return new VerificationResult(VerificationResult.ILLEGAL_CODE_OUTPUT, ioe.toString());
+        }
+        return verifyLineBuffer(lineBuffer, options);
+    }
+
+    /**
+     * Checks the provided content of an SJava file for compilability, as the file itself is checked
+     * @param source content of the SJava file
+     * @param options options of the check
+     * @return the result of the check
+     */
+    static VerificationResult verifyBytes(byte[] source, SjavacOptions options) {
+        return verifyLineBuffer(LineBuffer.readBytes(source), options);
+    }
+
+    /**
+     * Checks the provided SJava source, given by its lines, for compilability
+     * @param lines lines of the SJava source, without their line separators
+     * @param options options of the check
+     * @return the result of the check
+     */
+    public static VerificationResult verifyLines(List<? extends CharSequence> lines, SjavacOptions options) {
+        return verifyLineBuffer(new LineBuffer(lines), options);
+    }
+
+    /**
+     * Checks the SJava source read from the provided stream for compilability, in a single pass over it.
+     * The stream is decoded with the default charset, as files are, and is not closed.
+     * @param inputStream stream of the SJava source
+     * @param options options of the check
+     * @return the result of the check
+     */
+    public static VerificationResult verifyStream(InputStream inputStream, SjavacOptions options) {
+        return verifyReader(new InputStreamReader(inputStream), options);
+    }
+
+    /**
+     * Checks the SJava source read from the provided reader for compilability, in a single pass over it.
+     * Only the lines of the method being read, and of the methods depending on what the rest of the
+     * source declares, are held at once. The reader is not closed.
+     * @param reader reader of the SJava source
+     * @param options options of the check
+     * @return the result of the check
+     */
+    public static VerificationResult verifyReader(Reader reader, SjavacOptions options) {
+        return verifyLineBuffer(LineBuffer.streamLines(reader), options);
+    }
+
+    /**
+     * Checks the provided SJava source for compilability. The lines are views over the source, which is
+     * not copied.
+     * @param source the SJava source
+     * @param options options of the check
+     * @return the result of the check
+     */
+    public static VerificationResult verifySource(CharSequence source, SjavacOptions options) {
+        return verifyLineBuffer(LineBuffer.splitLines(source), options);
+    }
+
+    /**
+     * Checks the buffered lines of an SJava source for compilability
+     * @param lineBuffer buffered lines of the SJava source
+     * @param options options of the check
+     * @return the result of the check
+     */
+    private static VerificationResult verifyLineBuffer(LineBuffer lineBuffer, SjavacOptions options) {
+        try {
+            if (options.getMaxErrors() > 0) {
+                return new VerificationResult(collectErrors(lineBuffer, options));
+            }
+            Sjavac.determineCompilable(lineBuffer, options);
+
+            return new VerificationResult(VerificationResult.LEGAL_CODE_OUTPUT, null);
         }
         catch (SyntaxException | VariableAssignmentException | ConditionalException |
                 MethodDefinitionException  | ReturnException | VariableDeclarationException se){
-            System.out.println(ILLEGAL_CODE_OUTPUT);
-            System.err.println(se);
+            return new VerificationResult(VerificationResult.ILLEGAL_CODE_OUTPUT, se.toString());
+        }
+        catch (UncheckedIOException uioe) {
+            /* The streamed source could not be read */
+            return new VerificationResult(VerificationResult.IO_ERROR_OUTPUT, uioe.getCause().toString());
         }
         catch (Exception e) {
-            System.out.println(ILLEGAL_CODE_OUTPUT);
+            /* Keeping the Exception text */
+            return new VerificationResult(VerificationResult.ILLEGAL_CODE_OUTPUT, e.toString());
+        }
+    }
 
-            /* Printing the Exception text */
-            System.err.println(e);
+    /**
+     * Collects the errors of the provided source, going on past each error found, until the maximal
+     * number of errors of the options is found. A line that is not compilable is taken as a valid line,
+     * skipping the block it opens, so that the following lines are still validated.
+     * @param lineBuffer buffered lines of the source to be checked for compilability.
+     * @param options options of the check
+     * @return the errors found along with their lines, ordered by line
+     * @throws Exception If the check could not go on past an error.
+     */
+    private static List<LineError> collectErrors(LineBuffer lineBuffer, SjavacOptions options)
+            throws Exception {
+        MemoryCollector memoryCollector = new MemoryCollector();
+        ErrorCollector errorCollector = new ErrorCollector(options.getMaxErrors());
+        if (lineBuffer.isStreamed()) {
+            new StreamingScopesValidator(memoryCollector, errorCollector).validate(lineBuffer);
+            return errorCollector.getErrors();
+        }
+
+        try {
+            GlobalScopeValidator globalScopeValidator = new GlobalScopeValidator(memoryCollector);
+            globalScopeValidator.setErrorCollector(errorCollector);
+            globalScopeValidator.fillGlobalTablesAndValidate(lineBuffer);
+            /* The methods are validated even if the global scope has errors, on the global tables found */
+            if (!errorCollector.isFull()) {
+                new MethodScopesValidator(memoryCollector, globalScopeValidator.getParsedLines())
+                        .collectErrors(errorCollector, options.isParallelMethods());
+            }
         }
+        catch (RuntimeException re) {
+            /* The errors collected before the validation could not go on are kept along with its failure */
+            errorCollector.report(lineBuffer.getLineNumber(), re);
+        }
+        return errorCollector.getErrors();
     }
 
     /**
-     * Determines if the provided file is compilable according to the SJava specifications
-     * @param curFile to be checked for compilability.
-     * @throws Exception If the file is found to not be compilable.
+     * Determines if the provided source is compilable according to the SJava specifications. The source
+     * is read only once, and both validation passes go over its buffered lines. A streamed source is
+     * validated by a single pass, validating each method once it is read.
+     * @param lineBuffer buffered lines of the source to be checked for compilability.
+     * @param options options of the check
+     * @throws Exception If the source is found to not be compilable.
      */
-    private static void determineCompilable(FileInputStream curFile) throws Exception {
+    private static void determineCompilable(LineBuffer lineBuffer, SjavacOptions options)
+            throws Exception {
         MemoryCollector memoryCollector = new MemoryCollector();
+        if (lineBuffer.isStreamed()) {
+            new StreamingScopesValidator(memoryCollector).validate(lineBuffer);
+            return;
+        }
 
         // Validating the global scope of each Method
-        Scanner globalScanner = new Scanner(curFile);
         GlobalScopeValidator globalScopeValidator = new GlobalScopeValidator(memoryCollector);
-        globalScopeValidator.fillGlobalTablesAndValidate(globalScanner);
-        // Validating the local scope of each Method
-        globalScanner.close();
-        curFile = new FileInputStream(link);
-        Scanner localScanner = new Scanner(curFile);
-        LocalScopeValidator localScopeValidator = new LocalScopeValidator(memoryCollector, localScanner);
-
-        String curLine;
-        while (localScanner.hasNextLine()) {
-            curLine = localScanner.nextLine();
-            localScopeValidator.fillLocalTablesAndValidate(curLine, false);
+        globalScopeValidator.fillGlobalTablesAndValidate(lineBuffer);
+        // Validating the local scope of each Method, once the global tables are complete
+        MethodScopesValidator methodScopesValidator = new MethodScopesValidator(memoryCollector,
+                globalScopeValidator.getParsedLines());
+        if (options.isParallelMethods()) {
+            methodScopesValidator.validateInParallel();
+        } else {
+            methodScopesValidator.validateInOrder();
         }
     }
 }
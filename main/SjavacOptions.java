@@ -0,0 +1,200 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the options the program was run with, along with the SJava files, directories and file
+ * lists it was given
+ */
+public class SjavacOptions {
+    // Options
+    private static final String THREADS_OPTION = "-j";
+    private static final String PARALLEL_METHODS_OPTION = "-m";
+    private static final String SERVER_OPTION = "-s";
+    private static final String MAX_ERRORS_OPTION = "-e";
+    private static final String INSTRUMENTED_OPTION = "-i";
+    private static final String CACHE_DIRECTORY_OPTION = "-c";
+    private static final String CACHE_SIZE_OPTION = "-C";
+
+    // Defaults
+    private static final int DEFAULT_CACHE_MEGABYTES = 64;
+
+    // Errors
+    private static final String INVALID_THREADS_ERROR = "The number of threads provided is not valid!";
+    private static final String INVALID_SERVER_ADDRESS_ERROR = "The server address provided is not valid!";
+    private static final String INVALID_MAX_ERRORS_ERROR = "The number of errors provided is not valid!";
+    private static final String INVALID_CACHE_DIRECTORY_ERROR = "The cache directory provided is not valid!";
+    private static final String INVALID_CACHE_SIZE_ERROR = "The cache size provided is not valid!";
+
+    /**
+     * Number of threads checking the files of a batch run, or the requests of a server
+     */
+    private int threadCount;
+    /**
+     * Are the methods of each file checked in parallel?
+     */
+    private boolean parallelMethods;
+    /**
+     * Address the program serves verification requests on - a localhost TCP port or a Unix domain
+     * socket path - null if it checks the given files instead
+     */
+    private String serverAddress;
+    /**
+     * Maximal number of errors reported for each file, each with its line number - 0 if the check of a
+     * file stops at its first error
+     */
+    private int maxErrors;
+    /**
+     * Are the statistics of the verification recorded, served through JMX and printed at exit?
+     */
+    private boolean instrumented;
+    /**
+     * Directory of the verdicts cached across runs, keyed by the content of the files - null if the
+     * verdicts are not cached
+     */
+    private String cacheDirectory;
+    /**
+     * Maximal size of the cached verdicts, in megabytes
+     */
+    private int cacheMegabytes;
+    /**
+     * Provided SJava files, directories and file lists, in order
+     */
+    private final List<String> links;
+
+    /**
+     * Constructor for the default options, with no files
+     */
+    public SjavacOptions() {
+        this.threadCount = Runtime.getRuntime().availableProcessors();
+        this.parallelMethods = false;
+        this.maxErrors = 0;
+        this.instrumented = false;
+        this.cacheMegabytes = DEFAULT_CACHE_MEGABYTES;
+        this.links = new ArrayList<>();
+    }
+
+    /**
+     * Constructor for the options given by the program arguments
+     * @param args provided arguments
+     * @throws IllegalArgumentException if one of the options was given an invalid value
+     */
+    public SjavacOptions(String[] args) {
+        this();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case THREADS_OPTION:
+                    this.threadCount = parsePositiveNumber(i + 1 < args.length ? args[++i] : null,
+                            INVALID_THREADS_ERROR);
+                    break;
+                case PARALLEL_METHODS_OPTION:
+                    this.parallelMethods = true;
+                    break;
+                case SERVER_OPTION:
+                    if (i + 1 >= args.length || args[i + 1].isEmpty()) {
+                        throw new IllegalArgumentException(INVALID_SERVER_ADDRESS_ERROR);
+                    }
+                    this.serverAddress = args[++i];
+                    break;
+                case MAX_ERRORS_OPTION:
+                    this.maxErrors = parsePositiveNumber(i + 1 < args.length ? args[++i] : null,
+                            INVALID_MAX_ERRORS_ERROR);
+                    break;
+                case INSTRUMENTED_OPTION:
+                    this.instrumented = true;
+                    break;
+                case CACHE_DIRECTORY_OPTION:
+                    if (i + 1 >= args.length || args[i + 1].isEmpty()) {
+                        throw new IllegalArgumentException(INVALID_CACHE_DIRECTORY_ERROR);
+                    }
+                    this.cacheDirectory = args[++i];
+                    break;
+                case CACHE_SIZE_OPTION:
+                    this.cacheMegabytes = parsePositiveNumber(i + 1 < args.length ? args[++i] : null,
+                            INVALID_CACHE_SIZE_ERROR);
+                    break;
+                default:
+                    this.links.add(args[i]);
+            }
+        }
+    }
+
+    /**
+     * Parses the value of a numeric option
+     * @param value provided value of the option, null if it is missing
+     * @param error error text for an invalid value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is missing, not a number or not positive
+     */
+    private static int parsePositiveNumber(String value, String error) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        }
+        catch (NumberFormatException nfe) {
+            // Handled below along with the non-positive numbers
+        }
+        throw new IllegalArgumentException(error);
+    }
+
+    /**
+     * @return Number of threads checking the files of a batch run, or the requests of a server
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * @return true if the methods of each file are checked in parallel
+     */
+    public boolean isParallelMethods() {
+        return this.parallelMethods;
+    }
+
+    /**
+     * @return Address the program serves verification requests on, null if it checks the given files
+     */
+    public String getServerAddress() {
+        return this.serverAddress;
+    }
+
+    /**
+     * @return Maximal number of errors reported for each file, 0 if the check of a file stops at its first
+     * error
+     */
+    public int getMaxErrors() {
+        return this.maxErrors;
+    }
+
+    /**
+     * @return true if the statistics of the verification are recorded, served through JMX and printed at
+     * exit
+     */
+    public boolean isInstrumented() {
+        return this.instrumented;
+    }
+
+    /**
+     * @return Directory of the verdicts cached across runs, null if the verdicts are not cached
+     */
+    public String getCacheDirectory() {
+        return this.cacheDirectory;
+    }
+
+    /**
+     * @return Maximal size of the cached verdicts, in megabytes
+     */
+    public int getCacheMegabytes() {
+        return this.cacheMegabytes;
+    }
+
+    /**
+     * @return Provided SJava files, directories and file lists, in order
+     */
+    public List<String> getLinks() {
+        return this.links;
+    }
+}
@@ -0,0 +1,418 @@
+package main;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of the verdicts of SJava files, shared across runs and across processes. Each verdict is
+ * kept in its own file, named by a hash of the file's content and of the verifier's version, so an
+ * unchanged file is not verified again and a changed file, or a changed verifier, never finds a stale
+ * verdict. Verdicts are written to a temporary file and then renamed, so that concurrent processes only
+ * ever read complete verdicts. Once the cache grows past its maximal size, the verdicts least recently
+ * used are removed. Each verdict counts as the whole blocks its file takes on disk rather than as its few
+ * bytes, so that the maximal size bounds the disk space and the number of files of the cache.
+ * Only the verdicts of checks stopping at the first error are cached, since the errors collected along
+ * with their lines are not kept.
+ */
+public final class VerdictCache {
+    // Files of the cache
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String TEMPORARY_PREFIX = ".tmp";
+    private static final String LOCK_FILE = ".lock";
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final int SHARD_NAME_LENGTH = 2;
+    private static final char VERDICT_SEPARATOR = '\n';
+
+    // Eviction
+    private static final long BYTES_PER_MEGABYTE = 1 << 20;
+    /* The cache is shrunk to this part of its maximal size, so it is not scanned again right away */
+    private static final double EVICTION_TARGET = 0.9;
+    /* The cache is scanned again once this part of the verdicts it can hold were written */
+    private static final int SCAN_FRACTION = 16;
+    /* Block size of the file systems which do not report theirs */
+    private static final long DEFAULT_BLOCK_SIZE = 4096;
+    /* Temporary files this old were left by a process that stopped while writing them */
+    private static final long STALE_TEMPORARY_MILLIS = 60 * 60 * 1000;
+
+    /**
+     * Caches of each directory, shared by all the checks of the process
+     */
+    private static final ConcurrentHashMap<Path, VerdictCache> caches = new ConcurrentHashMap<>();
+    /**
+     * Hash function of each thread
+     */
+    private static final ThreadLocal<MessageDigest> digests =
+            ThreadLocal.withInitial(VerdictCache::newDigest);
+
+    /**
+     * Directory of the cached verdicts
+     */
+    private final Path directory;
+    /**
+     * Maximal size of the cached verdicts, in bytes
+     */
+    private final long maxBytes;
+    /**
+     * Size of the blocks of the file system of the cache, in bytes, which each verdict takes at least one of
+     */
+    private final long blockSize;
+    /**
+     * Number of verdicts written between two scans of the cache for eviction
+     */
+    private final long verdictsPerScan;
+    /**
+     * Verdicts written since the cache was last scanned for eviction, negative until the first verdict is
+     * written, so that the cache is scanned on its first write
+     */
+    private final AtomicLong verdictsSinceScan = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Holder of the verifier's version, computed on the first use of the cache
+     */
+    private static final class VerifierVersion {
+        /**
+         * Hash of the verifier's classes, null if they could not be read
+         */
+        private static final byte[] HASH = hashVerifierClasses();
+    }
+
+    /**
+     * Constructor for the VerdictCache class
+     * @param directory Directory of the cached verdicts
+     * @param maxBytes Maximal size of the cached verdicts, in bytes
+     */
+    private VerdictCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.blockSize = blockSize(directory);
+        this.verdictsPerScan = Math.max(1, maxBytes / this.blockSize / SCAN_FRACTION);
+    }
+
+    /**
+     * @param directory Directory of the cached verdicts, which may not exist yet
+     * @return the size of the blocks of the file system of the directory, in bytes
+     */
+    private static long blockSize(Path directory) {
+        Path existing = directory;
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        try {
+            long blockSize = existing == null ? 0 : Files.getFileStore(existing).getBlockSize();
+            return blockSize > 0 ? blockSize : DEFAULT_BLOCK_SIZE;
+        }
+        catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return DEFAULT_BLOCK_SIZE;
+        }
+    }
+
+    /**
+     * @param size size of a file of the cache, in bytes
+     * @return the size the file takes on disk, in whole blocks and of at least one block
+     */
+    private long allocatedSize(long size) {
+        return Math.max(1, (size + this.blockSize - 1) / this.blockSize) * this.blockSize;
+    }
+
+    /**
+     * Returns the cache of the verdicts given by the options. The cache of each directory is made once,
+     * with the maximal size given on its first request.
+     * @param options options of the check
+     * @return the cache of the verdicts, null if the options do not cache them, if they collect the errors
+     * of the files or if the verifier's version could not be found
+     */
+    public static VerdictCache forOptions(SjavacOptions options) {
+        if (options.getCacheDirectory() == null || options.getMaxErrors() > 0 ||
+                VerifierVersion.HASH == null) {
+            return null;
+        }
+        Path directory;
+        try {
+            directory = Paths.get(options.getCacheDirectory()).toAbsolutePath().normalize();
+        }
+        catch (InvalidPathException ipe) {
+            return null;
+        }
+        long maxBytes = options.getCacheMegabytes() * BYTES_PER_MEGABYTE;
+        return caches.computeIfAbsent(directory, path -> new VerdictCache(path, maxBytes));
+    }
+
+    /**
+     * Checks the provided SJava file for compilability, taking its verdict from the cache if its content
+     * was already checked, and caching its verdict otherwise
+     * @param link path of the SJava file
+     * @param options options of the check
+     * @return the result of the check, null if the file could not be read, so that it is checked without
+     * the cache and its error is reported the same way
+     */
+    public VerificationResult verifyFile(String link, SjavacOptions options) {
+        byte[] source;
+        try {
+            source = Files.readAllBytes(Paths.get(link));
+        }
+        catch (IOException | InvalidPathException e) {
+            return null;
+        }
+        Path verdictFile = verdictFile(source);
+        VerificationResult result = load(verdictFile);
+        if (result == null) {
+            result = Sjavac.verifyBytes(source, options);
+            if (result.getOutput() != VerificationResult.IO_ERROR_OUTPUT) {
+                store(verdictFile, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param source content of an SJava file
+     * @return path of the file the verdict of the content is cached in
+     */
+    private Path verdictFile(byte[] source) {
+        MessageDigest digest = digests.get();
+        digest.update(VerifierVersion.HASH);
+        /* The content is decoded by the default charset, which the verdict depends on as well */
+        digest.update(Charset.defaultCharset().name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        String hash = HexFormat.of().formatHex(digest.digest(source));
+        return this.directory.resolve(hash.substring(0, SHARD_NAME_LENGTH))
+                .resolve(hash.substring(SHARD_NAME_LENGTH));
+    }
+
+    /**
+     * Reads a cached verdict, marking it as recently used
+     * @param verdictFile file of the verdict
+     * @return the cached result, null if the verdict is not cached or could not be read
+     */
+    private VerificationResult load(Path verdictFile) {
+        String verdict;
+        try {
+            verdict = new String(Files.readAllBytes(verdictFile), StandardCharsets.UTF_8);
+        }
+        catch (IOException ioe) {
+            return null;
+        }
+        int separator = verdict.indexOf(VERDICT_SEPARATOR);
+        String outputText = separator < 0 ? verdict : verdict.substring(0, separator);
+        boolean legal = outputText.equals(String.valueOf(VerificationResult.LEGAL_CODE_OUTPUT));
+        if (!legal && !outputText.equals(String.valueOf(VerificationResult.ILLEGAL_CODE_OUTPUT))) {
+            /* Not a verdict written by the cache, which is verified again and overwritten */
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(verdictFile, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException ioe) {
+            // The verdict is still used, it is only more likely to be evicted
+        }
+        return new VerificationResult(legal ? VerificationResult.LEGAL_CODE_OUTPUT :
+                VerificationResult.ILLEGAL_CODE_OUTPUT, separator < 0 ? null : verdict.substring(separator + 1));
+    }
+
+    /**
+     * Caches a verdict, and evicts the verdicts least recently used if the cache may have grown past its
+     * maximal size. A verdict which could not be cached is only verified again by the next run.
+     * @param verdictFile file of the verdict
+     * @param result result of the check
+     */
+    private void store(Path verdictFile, VerificationResult result) {
+        String verdict = result.getErrorMessage() == null ? String.valueOf(result.getOutput()) :
+                String.valueOf(result.getOutput()) + VERDICT_SEPARATOR + result.getErrorMessage();
+        byte[] bytes = verdict.getBytes(StandardCharsets.UTF_8);
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(verdictFile.getParent());
+            temporaryFile = this.directory.resolve(TEMPORARY_PREFIX + UUID.randomUUID());
+            Files.write(temporaryFile, bytes, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            Files.move(temporaryFile, verdictFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            temporaryFile = null;
+        }
+        catch (IOException ioe) {
+            // Another process may have cached the same verdict at the same time
+        }
+        finally {
+            deleteQuietly(temporaryFile);
+        }
+        long written = this.verdictsSinceScan.incrementAndGet();
+        if (written < 0 || written >= this.verdictsPerScan) {
+            this.verdictsSinceScan.set(0);
+            evict();
+        }
+    }
+
+    /**
+     * Removes the verdicts least recently used until the cache is back under its maximal size, along with
+     * the temporary files left by stopped processes. Only a single process scans the cache at a time, the
+     * others skipping the scan.
+     */
+    private synchronized void evict() {
+        try (FileChannel lockChannel = FileChannel.open(this.directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.tryLock()) {
+            if (lock == null) {
+                return;
+            }
+            List<CachedFile> verdicts = new ArrayList<>();
+            long totalBytes = 0;
+            long staleTime = System.currentTimeMillis() - STALE_TEMPORARY_MILLIS;
+            try (Stream<Path> paths = Files.walk(this.directory, 2)) {
+                for (Path path : paths.collect(Collectors.toList())) {
+                    String name = path.getFileName().toString();
+                    BasicFileAttributes attributes = readAttributes(path);
+                    if (attributes == null || !attributes.isRegularFile() || name.equals(LOCK_FILE)) {
+                        continue;
+                    }
+                    long modified = attributes.lastModifiedTime().toMillis();
+                    if (name.startsWith(TEMPORARY_PREFIX)) {
+                        if (modified < staleTime) {
+                            deleteQuietly(path);
+                        }
+                        continue;
+                    }
+                    long size = allocatedSize(attributes.size());
+                    verdicts.add(new CachedFile(path, size, modified));
+                    totalBytes += size;
+                }
+            }
+            if (totalBytes <= this.maxBytes) {
+                return;
+            }
+            verdicts.sort(Comparator.comparingLong(cachedFile -> cachedFile.lastUsed));
+            long targetBytes = (long) (this.maxBytes * EVICTION_TARGET);
+            for (CachedFile verdict : verdicts) {
+                if (totalBytes <= targetBytes) {
+                    break;
+                }
+                deleteQuietly(verdict.path);
+                totalBytes -= verdict.size;
+            }
+        }
+        catch (IOException | UncheckedIOException | OverlappingFileLockException e) {
+            // The cache is scanned again after the next writes
+        }
+    }
+
+    /**
+     * @param path path of a file of the cache
+     * @return the attributes of the file, null if it was removed by another process
+     */
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        }
+        catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes a file of the cache, which another process may have already deleted
+     * @param path path of the file, null for no file
+     */
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        }
+        catch (IOException ioe) {
+            // Removed on a later scan
+        }
+    }
+
+    /**
+     * @return a new hash function
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException nsae) {
+            /* Every Java platform implements SHA-256 */
+            throw new IllegalStateException(nsae);
+        }
+    }
+
+    /**
+     * Hashes the verifier's classes, as its version: the archive they were loaded from, or all the class
+     * files of their directory. Any change to the verifier then changes the hash of every cached verdict.
+     * @return the hash of the verifier's classes, null if they could not be read
+     */
+    private static byte[] hashVerifierClasses() {
+        try {
+            CodeSource codeSource = VerdictCache.class.getProtectionDomain().getCodeSource();
+            URL location = codeSource == null ? null : codeSource.getLocation();
+            if (location == null) {
+                return null;
+            }
+            Path classesPath = Paths.get(location.toURI());
+            MessageDigest digest = newDigest();
+            if (!Files.isDirectory(classesPath)) {
+                return digest.digest(Files.readAllBytes(classesPath));
+            }
+            List<Path> classFiles;
+            try (Stream<Path> paths = Files.walk(classesPath)) {
+                classFiles = paths.filter(path -> path.toString().endsWith(CLASS_FILE_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path classFile : classFiles) {
+                digest.update(classesPath.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+                try (InputStream classStream = Files.newInputStream(classFile)) {
+                    digest.update(classStream.readAllBytes());
+                }
+            }
+            return digest.digest();
+        }
+        catch (IOException | URISyntaxException | SecurityException | IllegalArgumentException |
+               FileSystemNotFoundException | UncheckedIOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A cached verdict found by a scan of the cache
+     */
+    private static final class CachedFile {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        /**
+         * Constructor for the CachedFile class
+         * @param path path of the verdict's file
+         * @param size size the verdict's file takes on disk, in bytes
+         * @param lastUsed time the verdict was last used, in milliseconds since the epoch
+         */
+        private CachedFile(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package main;
+
+import main.scopeLogic.LineError;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the result of checking a single SJava file for compilability
+ */
+public class VerificationResult {
+    // Possible outputs for a provided SJava file
+    public static final int LEGAL_CODE_OUTPUT = 0;
+    public static final int ILLEGAL_CODE_OUTPUT = 1;
+    public static final int IO_ERROR_OUTPUT = 2;
+
+    /**
+     * Output code of the check, one of the possible outputs for a provided SJava file
+     */
+    private final int output;
+    /**
+     * Text of the error found in the file, null if the file is legal
+     */
+    private final String errorMessage;
+    /**
+     * Errors found in the file along with their lines, when the errors were collected rather than the
+     * check stopping at the first of them
+     */
+    private final List<LineError> errors;
+
+    /**
+     * Constructor for the VerificationResult class
+     * @param output Output code of the check
+     * @param errorMessage Text of the error found in the file, null if the file is legal
+     */
+    public VerificationResult(int output, String errorMessage) {
+        this.output = output;
+        this.errorMessage = errorMessage;
+        this.errors = Collections.emptyList();
+    }
+
+    /**
+     * Constructor for the result of a check collecting all the errors of the file
+     * @param errors Errors found in the file along with their lines, ordered by line, empty if the file
+     *               is legal
+     */
+    public VerificationResult(List<LineError> errors) {
+        this.output = errors.isEmpty() ? LEGAL_CODE_OUTPUT : ILLEGAL_CODE_OUTPUT;
+        this.errorMessage = errors.isEmpty() ? null : errors.get(0).toString();
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return Output code of the check
+     */
+    public int getOutput() {
+        return this.output;
+    }
+
+    /**
+     * @return Text of the error found in the file, null if the file is legal
+     */
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    /**
+     * @return Errors found in the file along with their lines, ordered by line. Empty if the file is legal,
+     * or if the check stopped at the first error, which is then only given by the error text
+     */
+    public List<LineError> getErrors() {
+        return this.errors;
+    }
+}
@@ -0,0 +1,390 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for serving verification requests from a single long-running process, so that the
+ * JVM is started once and the validators and their compiled patterns stay warm between requests.
+ * The server listens on a localhost TCP port, or on a Unix domain socket if the address is not a number.
+ * Each request is a single line, answered by a single line:
+ *     VERIFY path - checks the SJava file at the path
+ *     SOURCE n - checks the SJava source given by the n lines following the request
+ *     SHUTDOWN - stops the server, once the requests being checked are answered
+ * The answer is the output of the check (0, 1 or 2), followed by a space and the error if there is one.
+ * A connection may send any number of requests. At most as many requests as the options' number of
+ * threads are checked at once.
+ */
+public class VerifierServer {
+    // Requests
+    private static final String VERIFY_REQUEST = "VERIFY";
+    private static final String SOURCE_REQUEST = "SOURCE";
+    private static final String SHUTDOWN_REQUEST = "SHUTDOWN";
+    private static final String REQUEST_SEPARATOR = " ";
+
+    // Errors
+    private static final String INVALID_REQUEST_ERROR = "The request provided is not valid!";
+    private static final String MISSING_SOURCE_ERROR = "The source provided ended before its last line!";
+
+    private static final String NUMBER_PATTERN = "\\d{1,9}";
+    private static final String LINE_SEPARATOR = "\n";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Options of the checks, including the address of the server
+     */
+    private final SjavacOptions options;
+    /**
+     * Channel accepting the connections
+     */
+    private final ServerSocketChannel serverChannel;
+    /**
+     * Path of the Unix domain socket, null if the server listens on a TCP port
+     */
+    private final Path socketPath;
+    /**
+     * Threads serving the connections, one for each open connection
+     */
+    private final ExecutorService connectionThreads = Executors.newCachedThreadPool();
+    /**
+     * Limits the number of requests checked at once
+     */
+    private final Semaphore checkPermits;
+    /**
+     * Connections that are open
+     */
+    private final Set<Connection> openConnections = ConcurrentHashMap.newKeySet();
+    /**
+     * Released once the server stopped and all the requests were answered
+     */
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    /**
+     * Is the server still accepting requests?
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for the VerifierServer class, binding the server to its address
+     * @param options Options of the checks, including the address of the server
+     * @throws IOException if the server could not be bound to its address
+     * @throws IllegalArgumentException if the address is a port number out of range
+     */
+    public VerifierServer(SjavacOptions options) throws IOException {
+        this.options = options;
+        this.checkPermits = new Semaphore(options.getThreadCount());
+        String address = options.getServerAddress();
+        SocketAddress socketAddress;
+        if (address.matches(NUMBER_PATTERN)) {
+            this.socketPath = null;
+            this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.INET);
+            socketAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        } else {
+            this.socketPath = Path.of(address);
+            deleteStaleSocketFile(this.socketPath);
+            socketAddress = UnixDomainSocketAddress.of(this.socketPath);
+            this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        }
+        this.serverChannel.bind(socketAddress);
+    }
+
+    /**
+     * @return the address the server is bound to
+     * @throws IOException if the server is no longer bound
+     */
+    public SocketAddress getAddress() throws IOException {
+        return this.serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accepts connections until the server is shut down, either by a SHUTDOWN request or by the JVM
+     * shutting down, and then waits for the requests being checked to be answered
+     */
+    public void serve() {
+        Thread shutdownHook = new Thread(this::shutdownAndWait);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        try {
+            while (this.running) {
+                SocketChannel channel = this.serverChannel.accept();
+                Connection connection = new Connection(channel);
+                this.openConnections.add(connection);
+                this.connectionThreads.execute(() -> serveConnection(connection));
+            }
+        }
+        catch (IOException ioe) {
+            /* The server channel was closed by the shutdown, or can no longer accept connections */
+        }
+        finally {
+            shutdown();
+            this.connectionThreads.shutdown();
+            try {
+                this.connectionThreads.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            deleteSocketFile();
+            this.stopped.countDown();
+            removeShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Stops accepting connections and requests. The requests being checked are still answered, and the
+     * connections waiting for a request are closed.
+     */
+    public void shutdown() {
+        this.running = false;
+        try {
+            this.serverChannel.close();
+        }
+        catch (IOException ioe) {
+            // The server channel is closed either way
+        }
+        for (Connection connection : this.openConnections) {
+            connection.closeIfIdle();
+        }
+    }
+
+    /**
+     * Serves the requests of a single connection, until it is closed or the server is shut down
+     * @param connection connection to serve
+     */
+    private void serveConnection(Connection connection) {
+        try (SocketChannel channel = connection.channel) {
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            String request;
+            while ((request = connection.readRequest(reader)) != null) {
+                VerificationResult result = handleRequest(request, reader);
+                writer.write(result.getOutput() +
+                        (result.getErrorMessage() == null ? "" : REQUEST_SEPARATOR + result.getErrorMessage()) +
+                        LINE_SEPARATOR);
+                writer.flush();
+            }
+        }
+        catch (IOException ioe) {
+            /* The connection was closed by the client or by the shutdown */
+        }
+        finally {
+            this.openConnections.remove(connection);
+        }
+    }
+
+    /**
+     * Handles a single request
+     * @param request first line of the request
+     * @param reader reader of the connection, positioned right after the first line of the request
+     * @return the result of the request
+     * @throws IOException if the rest of the request could not be read
+     */
+    private VerificationResult handleRequest(String request, BufferedReader reader) throws IOException {
+        String[] parts = request.split(REQUEST_SEPARATOR, 2);
+        switch (parts[0]) {
+            case VERIFY_REQUEST:
+                if (parts.length < 2 || parts[1].isEmpty()) {
+                    break;
+                }
+                return check(() -> Sjavac.verifyFile(parts[1], this.options));
+            case SOURCE_REQUEST:
+                if (parts.length < 2 || !parts[1].matches(NUMBER_PATTERN)) {
+                    break;
+                }
+                int lineCount = Integer.parseInt(parts[1]);
+                List<String> lines = new ArrayList<>();
+                for (int i = 0; i < lineCount; i++) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return new VerificationResult(VerificationResult.IO_ERROR_OUTPUT, MISSING_SOURCE_ERROR);
+                    }
+                    lines.add(line);
+                }
+                return check(() -> Sjavac.verifyLines(lines, this.options));
+            case SHUTDOWN_REQUEST:
+                /* The connection is busy answering this request, so the shutdown does not close it */
+                shutdown();
+                return new VerificationResult(VerificationResult.LEGAL_CODE_OUTPUT, null);
+            default:
+                break;
+        }
+        return new VerificationResult(VerificationResult.IO_ERROR_OUTPUT, INVALID_REQUEST_ERROR);
+    }
+
+    /**
+     * Runs a check once fewer checks than the limit are running
+     * @param check check to run
+     * @return the result of the check
+     */
+    private VerificationResult check(Check check) {
+        this.checkPermits.acquireUninterruptibly();
+        try {
+            return check.run();
+        }
+        finally {
+            this.checkPermits.release();
+        }
+    }
+
+    /**
+     * Shuts the server down from the JVM shutdown hook, waiting for the requests being checked
+     */
+    private void shutdownAndWait() {
+        shutdown();
+        try {
+            this.stopped.await(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes the shutdown hook once the server stopped by itself
+     * @param shutdownHook hook to remove
+     */
+    private static void removeShutdownHook(Thread shutdownHook) {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        }
+        catch (IllegalStateException ise) {
+            // The JVM is already shutting down, and the hook is the one stopping the server
+        }
+    }
+
+    /**
+     * Deletes the file of the Unix domain socket, if the server listened on one
+     */
+    private void deleteSocketFile() {
+        if (this.socketPath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(this.socketPath);
+        }
+        catch (IOException ioe) {
+            // The file is left behind, and is deleted as stale by the next server bound to the same path
+        }
+    }
+
+    /**
+     * Deletes the file of a Unix domain socket left behind by a server which did not stop cleanly, since
+     * binding to a path whose file exists fails. The file is stale if connecting to it is refused, while
+     * the file of a server which is still listening, or a file which is not a socket, is kept.
+     * @param path path of the Unix domain socket
+     * @throws IOException if the stale file could not be deleted
+     */
+    private static void deleteStaleSocketFile(Path path) throws IOException {
+        try {
+            if (!Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther()) {
+                return;
+            }
+        }
+        catch (NoSuchFileException nsfe) {
+            return;
+        }
+        try {
+            /* A server is listening on the socket, so binding to it rightly fails */
+            SocketChannel.open(UnixDomainSocketAddress.of(path)).close();
+        }
+        catch (ConnectException ce) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * A single check of an SJava source
+     */
+    private interface Check {
+        /**
+         * @return the result of the check
+         */
+        VerificationResult run();
+    }
+
+    /**
+     * An open connection, along with whether it is waiting for a request
+     */
+    private final class Connection {
+        /**
+         * Channel of the connection
+         */
+        private final SocketChannel channel;
+        /**
+         * Is the connection waiting for a request, rather than handling one?
+         */
+        private boolean idle;
+
+        /**
+         * Constructor for the Connection class
+         * @param channel Channel of the connection
+         */
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads the first line of the next request, unless the server is shut down
+         * @param reader reader of the connection
+         * @return the first line of the request, null if there are no more requests
+         * @throws IOException if the connection was closed
+         */
+        private String readRequest(BufferedReader reader) throws IOException {
+            synchronized (this) {
+                if (!VerifierServer.this.running) {
+                    return null;
+                }
+                this.idle = true;
+            }
+            try {
+                return reader.readLine();
+            }
+            catch (ClosedChannelException cce) {
+                return null;
+            }
+            finally {
+                synchronized (this) {
+                    this.idle = false;
+                }
+            }
+        }
+
+        /**
+         * Closes the connection if it is waiting for a request
+         */
+        private synchronized void closeIfIdle() {
+            if (this.idle) {
+                try {
+                    this.channel.close();
+                }
+                catch (IOException ioe) {
+                    // The connection is closed either way
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package main.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the validation of the Global Scope of a source, from its start to its end.
+ * A streamed source's methods are validated along the way, and are thus part of its duration.
+ */
+@Name(GlobalPassEvent.NAME)
+@Label("Global Scope Validation")
+@Category("SJava Verifier")
+@Description("Validation of the Global Scope of an SJava source")
+public class GlobalPassEvent extends Event {
+    /**
+     * Name of the event in the recordings
+     */
+    public static final String NAME = "main.GlobalPass";
+
+    /**
+     * Number of lines read by the validation
+     */
+    @Label("Lines")
+    private int lines;
+    /**
+     * Number of methods declared by the source, as found by the validation
+     */
+    @Label("Methods")
+    private int methods;
+
+    /**
+     * Ends the event and commits it, if it is recorded
+     * @param lines number of lines read by the validation
+     * @param methods number of methods found by the validation
+     */
+    public void commit(int lines, int methods) {
+        end();
+        if (shouldCommit()) {
+            this.lines = lines;
+            this.methods = methods;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package main.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the validation of the Local Scope of a single method, from its definition
+ * line to its closing bracket.
+ */
+@Name(MethodVerificationEvent.NAME)
+@Label("Method Validation")
+@Category("SJava Verifier")
+@Description("Validation of the body of a single SJava method")
+public class MethodVerificationEvent extends Event {
+    /**
+     * Name of the event in the recordings
+     */
+    public static final String NAME = "main.MethodVerification";
+
+    /**
+     * Name of the method
+     */
+    @Label("Method")
+    private String method;
+    /**
+     * Numbers of the first and of the last line of the method validated, within the lines it was
+     * validated on. The last line is the one the validation stopped at, if it stopped at an error
+     */
+    @Label("First Line")
+    private int firstLine;
+    @Label("Last Line")
+    private int lastLine;
+    /**
+     * Text of the error the validation of the method stopped at, null if it went over all of its lines
+     */
+    @Label("Error")
+    private String error;
+
+    /**
+     * Ends the event and commits it, if it is recorded
+     * @param method name of the method
+     * @param firstLine number of the method's definition line
+     * @param lastLine number of the last line validated
+     * @param error text of the error the validation stopped at, null if it went over all the lines
+     */
+    public void commit(String method, int firstLine, int lastLine, String error) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.error = error;
+            commit();
+        }
+    }
+}
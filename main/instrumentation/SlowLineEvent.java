@@ -0,0 +1,60 @@
+package main.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event of the validation of a single line of a Local Scope which took longer than the
+ * event's threshold, 1 ms unless the recording's settings give another one. No event is made for a line
+ * unless the events are enabled.
+ */
+@Name(SlowLineEvent.NAME)
+@Label("Slow Line Validation")
+@Category("SJava Verifier")
+@Description("Validation of a single line of a Local Scope which took longer than the threshold")
+@Threshold("1 ms")
+public class SlowLineEvent extends Event {
+    /**
+     * Name of the event in the recordings
+     */
+    public static final String NAME = "main.SlowLine";
+    /**
+     * Type of the event, telling whether it is enabled by a running recording
+     */
+    private static final EventType EVENT_TYPE = EventType.getEventType(SlowLineEvent.class);
+
+    /**
+     * Number of the line, within the lines it was validated on
+     */
+    @Label("Line Number")
+    private int lineNumber;
+
+    /**
+     * @return a started event of a line's validation, null if the events are not enabled by any recording
+     */
+    public static SlowLineEvent beginIfEnabled() {
+        if (!EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        SlowLineEvent lineEvent = new SlowLineEvent();
+        lineEvent.begin();
+        return lineEvent;
+    }
+
+    /**
+     * Ends the event and commits it, if it is recorded and took longer than the threshold
+     * @param lineNumber number of the line
+     */
+    public void commit(int lineNumber) {
+        end();
+        if (shouldCommit()) {
+            this.lineNumber = lineNumber;
+            commit();
+        }
+    }
+}
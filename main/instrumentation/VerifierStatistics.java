@@ -0,0 +1,356 @@
+package main.instrumentation;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the verification: the time of the global and of the local scope validation, the runs of
+ * the validators of each line kind, the regex evaluations and the symbol table lookups. Nothing is recorded
+ * unless the recording was started, in which case the statistics are served through JMX and printed at
+ * exit. While the recording is off, each place that records a statistic only reads a single flag.
+ * The statistics are recorded by all the validating threads at once.
+ */
+public final class VerifierStatistics implements VerifierStatisticsMXBean {
+    /**
+     * Name the statistics are registered under in the platform MBean server
+     */
+    public static final String OBJECT_NAME = "main:type=VerifierStatistics";
+
+    // Statistic names
+    private static final String SOURCES_VALIDATED = "sourcesValidated";
+    private static final String LINES_READ = "linesRead";
+    private static final String GLOBAL_PASS_MILLIS = "globalPassMillis";
+    private static final String LOCAL_PASS_MILLIS = "localPassMillis";
+    private static final String LINES_PER_SECOND = "linesPerSecond";
+    private static final String REGEX_EVALUATIONS = "regexEvaluations";
+    private static final String VALIDATOR_PREFIX = "validator.";
+    private static final String SYMBOL_TABLE_PREFIX = "symbolTable.";
+    private static final String INVOCATIONS_SUFFIX = ".invocations";
+    private static final String LOOKUPS_SUFFIX = ".lookups";
+    private static final String HIT_RATE_SUFFIX = ".hitRate";
+    private static final String SUMMARY_SEPARATOR = "=";
+    private static final String LINE_SEPARATOR = "\n";
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * The single instance, registered in the platform MBean server
+     */
+    private static final VerifierStatistics INSTANCE = new VerifierStatistics();
+    /**
+     * Are the statistics being recorded?
+     */
+    private static volatile boolean recording;
+    /**
+     * Was the recording ever started, so that the statistics are served and printed at exit?
+     */
+    private static boolean started;
+
+    /**
+     * Counts and times of the verification
+     */
+    private static final LongAdder sourcesValidated = new LongAdder();
+    private static final LongAdder linesRead = new LongAdder();
+    private static final LongAdder globalPassNanos = new LongAdder();
+    private static final LongAdder localPassNanos = new LongAdder();
+    private static final LongAdder regexEvaluations = new LongAdder();
+    /**
+     * Number of runs and of hits of the validators of each line kind, and of the lookups of each symbol
+     * table, by name
+     */
+    private static final ConcurrentHashMap<String, Counter> validatorRuns = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Counter> symbolTableLookups = new ConcurrentHashMap<>();
+
+    /**
+     * Number of attempts of something, and of those of them which succeeded
+     */
+    private static class Counter {
+        /**
+         * Number of attempts, and of successful attempts
+         */
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+
+        /**
+         * Records an attempt
+         * @param hit true if the attempt succeeded
+         */
+        private void record(boolean hit) {
+            this.attempts.increment();
+            if (hit) {
+                this.hits.increment();
+            }
+        }
+
+        /**
+         * @return Ratio of the successful attempts, 0 if there were none
+         */
+        private double getHitRate() {
+            long attemptCount = this.attempts.sum();
+            return attemptCount == 0 ? 0 : (double) this.hits.sum() / attemptCount;
+        }
+    }
+
+    /**
+     * Private constructor, the statistics are recorded statically
+     */
+    private VerifierStatistics() {
+    }
+
+    /**
+     * Starts recording the statistics, serving them through JMX and printing them to the given stream at
+     * exit
+     * @param summaryStream stream the summary of the statistics is printed to at exit
+     */
+    public static synchronized void start(PrintStream summaryStream) {
+        recording = true;
+        if (started) {
+            return;
+        }
+        started = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException jme) {
+            /* The statistics are still printed at exit */
+            summaryStream.println(jme);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> summaryStream.print(INSTANCE.getSummary())));
+    }
+
+    /**
+     * @return true if the statistics are being recorded, so that a time needs to be measured
+     */
+    public static boolean isRecordingOn() {
+        return recording;
+    }
+
+    /**
+     * Records the validation of the global scope of a source
+     * @param lines number of lines read
+     * @param nanos time of the validation, without the time of the methods validated along the way
+     */
+    public static void recordGlobalPass(int lines, long nanos) {
+        if (recording) {
+            sourcesValidated.increment();
+            linesRead.add(lines);
+            globalPassNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Records the validation of a local scope
+     * @param nanos time of the validation
+     */
+    public static void recordLocalPass(long nanos) {
+        if (recording) {
+            localPassNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Records the evaluation of a regex
+     */
+    public static void recordRegexEvaluation() {
+        if (recording) {
+            regexEvaluations.increment();
+        }
+    }
+
+    /**
+     * Records a run of the validator of a line kind
+     * @param lineKind name of the line kind
+     * @param hit true if the line was found to be of that kind
+     */
+    public static void recordValidatorRun(String lineKind, boolean hit) {
+        if (recording) {
+            validatorRuns.computeIfAbsent(lineKind, name -> new Counter()).record(hit);
+        }
+    }
+
+    /**
+     * Records a lookup of a symbol table
+     * @param symbolTable name of the symbol table
+     * @param hit true if the symbol was found
+     */
+    public static void recordLookup(String symbolTable, boolean hit) {
+        if (recording) {
+            symbolTableLookups.computeIfAbsent(symbolTable, name -> new Counter()).record(hit);
+        }
+    }
+
+    /**
+     * @return true if the statistics are being recorded
+     */
+    @Override
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Starts or stops recording the statistics. The statistics recorded so far are kept.
+     * @param recording true to record the statistics, false to stop recording them
+     */
+    @Override
+    public void setRecording(boolean recording) {
+        VerifierStatistics.recording = recording;
+    }
+
+    /**
+     * Sets all the statistics back to zero
+     */
+    @Override
+    public void reset() {
+        sourcesValidated.reset();
+        linesRead.reset();
+        globalPassNanos.reset();
+        localPassNanos.reset();
+        regexEvaluations.reset();
+        validatorRuns.clear();
+        symbolTableLookups.clear();
+    }
+
+    /**
+     * @return Number of sources whose global scope was validated
+     */
+    @Override
+    public long getSourcesValidated() {
+        return sourcesValidated.sum();
+    }
+
+    /**
+     * @return Number of lines read by the global scope validation
+     */
+    @Override
+    public long getLinesRead() {
+        return linesRead.sum();
+    }
+
+    /**
+     * @return Time spent validating the global scopes, in milliseconds
+     */
+    @Override
+    public double getGlobalPassMillis() {
+        return globalPassNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return Time spent validating the local scopes, in milliseconds, summed over the validating threads
+     */
+    @Override
+    public double getLocalPassMillis() {
+        return localPassNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return Lines read per second of validation time, 0 if nothing was validated
+     */
+    @Override
+    public double getLinesPerSecond() {
+        long nanos = globalPassNanos.sum() + localPassNanos.sum();
+        return nanos == 0 ? 0 : linesRead.sum() * NANOS_PER_SECOND / nanos;
+    }
+
+    /**
+     * @return Number of regex matchers run on a line or on a part of it
+     */
+    @Override
+    public long getRegexEvaluations() {
+        return regexEvaluations.sum();
+    }
+
+    /**
+     * @return Number of times the validators of each line kind were run, by line kind
+     */
+    @Override
+    public Map<String, Long> getValidatorInvocations() {
+        return getAttempts(validatorRuns);
+    }
+
+    /**
+     * @return Ratio of the runs of the validators of each line kind which found the line to be of that kind
+     */
+    @Override
+    public Map<String, Double> getValidatorHitRates() {
+        return getHitRates(validatorRuns);
+    }
+
+    /**
+     * @return Number of lookups of each symbol table, by table
+     */
+    @Override
+    public Map<String, Long> getSymbolTableLookups() {
+        return getAttempts(symbolTableLookups);
+    }
+
+    /**
+     * @return Ratio of the lookups of each symbol table which found the symbol, by table
+     */
+    @Override
+    public Map<String, Double> getSymbolTableHitRates() {
+        return getHitRates(symbolTableLookups);
+    }
+
+    /**
+     * @return All the statistics, as a machine-readable summary of name=value lines, ordered by name
+     * within each group
+     */
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        appendStatistic(summary, SOURCES_VALIDATED, getSourcesValidated());
+        appendStatistic(summary, LINES_READ, getLinesRead());
+        appendStatistic(summary, GLOBAL_PASS_MILLIS, getGlobalPassMillis());
+        appendStatistic(summary, LOCAL_PASS_MILLIS, getLocalPassMillis());
+        appendStatistic(summary, LINES_PER_SECOND, getLinesPerSecond());
+        appendStatistic(summary, REGEX_EVALUATIONS, getRegexEvaluations());
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(validatorRuns).entrySet()) {
+            String prefix = VALIDATOR_PREFIX + entry.getKey();
+            appendStatistic(summary, prefix + INVOCATIONS_SUFFIX, entry.getValue().attempts.sum());
+            appendStatistic(summary, prefix + HIT_RATE_SUFFIX, entry.getValue().getHitRate());
+        }
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(symbolTableLookups).entrySet()) {
+            String prefix = SYMBOL_TABLE_PREFIX + entry.getKey();
+            appendStatistic(summary, prefix + LOOKUPS_SUFFIX, entry.getValue().attempts.sum());
+            appendStatistic(summary, prefix + HIT_RATE_SUFFIX, entry.getValue().getHitRate());
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Appends a single statistic to a summary
+     * @param summary summary to append to
+     * @param name name of the statistic
+     * @param value value of the statistic
+     */
+    private static void appendStatistic(StringBuilder summary, String name, Object value) {
+        summary.append(name).append(SUMMARY_SEPARATOR).append(value).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * @param counters counters by name
+     * @return the number of attempts of each counter, by name
+     */
+    private static Map<String, Long> getAttempts(Map<String, Counter> counters) {
+        TreeMap<String, Long> attempts = new TreeMap<>();
+        counters.forEach((name, counter) -> attempts.put(name, counter.attempts.sum()));
+        return attempts;
+    }
+
+    /**
+     * @param counters counters by name
+     * @return the hit rate of each counter, by name
+     */
+    private static Map<String, Double> getHitRates(Map<String, Counter> counters) {
+        TreeMap<String, Double> hitRates = new TreeMap<>();
+        counters.forEach((name, counter) -> hitRates.put(name, counter.getHitRate()));
+        return hitRates;
+    }
+}
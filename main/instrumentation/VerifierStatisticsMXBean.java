@@ -0,0 +1,82 @@
+package main.instrumentation;
+
+import java.util.Map;
+
+/**
+ * Management interface of the verifier's statistics, served through JMX under
+ * VerifierStatistics.OBJECT_NAME
+ */
+public interface VerifierStatisticsMXBean {
+    /**
+     * @return true if the statistics are being recorded
+     */
+    boolean isRecording();
+
+    /**
+     * Starts or stops recording the statistics. The statistics recorded so far are kept.
+     * @param recording true to record the statistics, false to stop recording them
+     */
+    void setRecording(boolean recording);
+
+    /**
+     * Sets all the statistics back to zero
+     */
+    void reset();
+
+    /**
+     * @return Number of sources whose global scope was validated
+     */
+    long getSourcesValidated();
+
+    /**
+     * @return Number of lines read by the global scope validation
+     */
+    long getLinesRead();
+
+    /**
+     * @return Time spent validating the global scopes, in milliseconds, without the time spent validating
+     * the methods read along the way
+     */
+    double getGlobalPassMillis();
+
+    /**
+     * @return Time spent validating the local scopes, in milliseconds, summed over the validating threads
+     */
+    double getLocalPassMillis();
+
+    /**
+     * @return Lines read per second of validation time, 0 if nothing was validated
+     */
+    double getLinesPerSecond();
+
+    /**
+     * @return Number of regex matchers run on a line or on a part of it
+     */
+    long getRegexEvaluations();
+
+    /**
+     * @return Number of times the validators of each line kind were run, by line kind
+     */
+    Map<String, Long> getValidatorInvocations();
+
+    /**
+     * @return Ratio of the runs of the validators of each line kind which found the line to be of that kind,
+     * by line kind
+     */
+    Map<String, Double> getValidatorHitRates();
+
+    /**
+     * @return Number of lookups of each symbol table, by table
+     */
+    Map<String, Long> getSymbolTableLookups();
+
+    /**
+     * @return Ratio of the lookups of each symbol table which found the symbol, by table
+     */
+    Map<String, Double> getSymbolTableHitRates();
+
+    /**
+     * @return All the statistics, as a machine-readable summary of name=value lines
+     */
+    String getSummary();
+}
@@ -14,6 +14,11 @@ public class SJavaMethod {
      * Ordered parameter list associated with the method
      */
     private final Vector<SJavaVariable> params;
+    /**
+     * Line numbers of the first (declaration) and of the last (closing) lines of the method
+     */
+    private int firstLine;
+    private int lastLine;
 
     /**
      * Constructor for a new SJavaMethod
@@ -38,4 +43,45 @@ public class SJavaMethod {
     public Vector<SJavaVariable> getParams() {
         return this.params;
     }
+
+    /**
+     * @return the types of the method's parameters, in order, which are all that a call to the method
+     * is checked against
+     */
+    public String getSignature() {
+        StringBuilder signature = new StringBuilder("(");
+        if (this.params != null) {
+            for (int i = 0; i < this.params.size(); i++) {
+                if (i > 0) {
+                    signature.append(',');
+                }
+                signature.append(this.params.get(i).getType());
+            }
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * Sets the lines in which the method is found
+     * @param firstLine Line number of the method's declaration line
+     * @param lastLine Line number of the line closing the method's scope
+     */
+    public void setLines(int firstLine, int lastLine) {
+        this.firstLine = firstLine;
+        this.lastLine = lastLine;
+    }
+
+    /**
+     * @return Line number of the method's declaration line, 0 if it was not set
+     */
+    public int getFirstLine() {
+        return this.firstLine;
+    }
+
+    /**
+     * @return Line number of the line closing the method's scope, 0 if it was not set
+     */
+    public int getLastLine() {
+        return this.lastLine;
+    }
 }
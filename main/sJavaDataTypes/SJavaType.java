@@ -0,0 +1,88 @@
+package main.sJavaDataTypes;
+
+/**
+ * Represents the types of the SJava values, each being a single shared instance, so that types are compared
+ * by reference and their assignability is looked up in a precomputed table
+ */
+public enum SJavaType {
+    BOOLEAN("boolean", true),
+    INT("int", true),
+    DOUBLE("double", true),
+    STRING("String", false),
+    CHAR("char", false),
+    /**
+     * Type of a value that is the name of a variable, whose actual type is the type of that variable. A
+     * variable cannot be declared with this type, and it cannot be assigned to any type
+     */
+    VAR("var", false);
+
+    /**
+     * The types variables may be declared with, in the order they are looked for in a declaration
+     */
+    public static final SJavaType[] DATA_TYPES = {BOOLEAN, INT, DOUBLE, STRING, CHAR};
+
+    /**
+     * Assignability of the types, by the ordinal of the left-hand type and then of the right-hand type
+     */
+    private static final boolean[][] ASSIGNABLE = new boolean[values().length][values().length];
+
+    static {
+        for (SJavaType dataType : DATA_TYPES) {
+            ASSIGNABLE[dataType.ordinal()][dataType.ordinal()] = true;
+        }
+        /* An int is widened to a double, and both are taken as a boolean */
+        ASSIGNABLE[DOUBLE.ordinal()][INT.ordinal()] = true;
+        ASSIGNABLE[BOOLEAN.ordinal()][INT.ordinal()] = true;
+        ASSIGNABLE[BOOLEAN.ordinal()][DOUBLE.ordinal()] = true;
+    }
+
+    /**
+     * Keyword the type is written as in the SJava source
+     */
+    private final String keyword;
+    /**
+     * Can a variable of this type be used as a condition?
+     */
+    private final boolean conditionType;
+
+    /**
+     * Constructor for an SJavaType
+     * @param keyword Keyword the type is written as in the SJava source
+     * @param conditionType Can a variable of this type be used as a condition?
+     */
+    SJavaType(String keyword, boolean conditionType) {
+        this.keyword = keyword;
+        this.conditionType = conditionType;
+    }
+
+    /**
+     * @return Keyword the type is written as in the SJava source
+     */
+    public String getKeyword() {
+        return this.keyword;
+    }
+
+    /**
+     * @return true if a variable of this type can be used as a condition
+     */
+    public boolean isConditionType() {
+        return this.conditionType;
+    }
+
+    /**
+     * Checks if a variable of this type can be assigned a value of the given type
+     * @param rightHandType type of the value to be assigned
+     * @return true if the right-hand type could be legally translated to this type
+     */
+    public boolean canBeAssigned(SJavaType rightHandType) {
+        return ASSIGNABLE[this.ordinal()][rightHandType.ordinal()];
+    }
+
+    /**
+     * @return Keyword the type is written as in the SJava source
+     */
+    @Override
+    public String toString() {
+        return this.keyword;
+    }
+}
@@ -1,36 +1,25 @@
 package main.sJavaDataTypes;
 
-import java.util.*;
-
 /**
  * Represents a single variable, contains all the required metadata.
  */
 public class SJavaVariable {
 
-    private static final String INT_VALUES = "([-]|)[0-9]+";
-    private static final String DOUBLE_VALUES = "([-]|)[0-9]+([.][0-9]+)*";
-    private static final String BOOLEAN_VALUES = "true|false|([-]|)[0-9]+([.][0-9]+|)*";
-    private static final String CHAR_VALUES = "'.'";
-    protected static final String STRING_VALUES = "\".*\"";
-    protected static final String LEGAL_VAR_NAME = "([A-Za-z]+|_+[A-Za-z0-9])\\w*";
-
-
-    // List of different possible variable types.
-    public static final String[] TYPES = {"boolean", "int", "double", "String", "char"};
-
-    private static final Set<String> booleanMatches = new HashSet<>(Arrays.asList("boolean", "double", "int"));
-    private static final Set<String> doubleMatches = new HashSet<>(Arrays.asList("double", "int"));
-
     // name of variable.
     private final String name;
     // type of variable.
-    private final String type;
+    private final SJavaType type;
     // is variable declared final?
-    private boolean isFinal;
-    // does variable have any value assigned to it?
-    private boolean hasValue;
-    // optional types of variable.
-    private List<String> types;
+    private final boolean isFinal;
+    // was variable declared, or assigned by the global scope, with a value?
+    private final boolean hasValue;
+    // index of the variable among the variables of its symbol table, NO_SLOT if it is in none of them.
+    private final int slot;
+
+    /**
+     * Slot of a variable which was not added to a symbol table
+     */
+    public static final int NO_SLOT = -1;
 
     /**
      * Constructor.
@@ -39,13 +28,37 @@ public class SJavaVariable {
      * @param type    type of variable.
      * @param isFinal indicates that the variable is final
      */
-    public SJavaVariable(String name, String type, boolean isFinal) {
+    public SJavaVariable(String name, SJavaType type, boolean isFinal) {
+        this(name, type, isFinal, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name     name of variable.
+     * @param type     type of variable.
+     * @param isFinal  indicates that the variable is final
+     * @param hasValue indicates that the variable has a value
+     */
+    public SJavaVariable(String name, SJavaType type, boolean isFinal, boolean hasValue) {
+        this(name, type, isFinal, hasValue, NO_SLOT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name     name of variable.
+     * @param type     type of variable.
+     * @param isFinal  indicates that the variable is final
+     * @param hasValue indicates that the variable has a value
+     * @param slot     index of the variable in its symbol table
+     */
+    private SJavaVariable(String name, SJavaType type, boolean isFinal, boolean hasValue, int slot) {
         this.name = name;
         this.type = type;
         this.isFinal = isFinal;
-        this.hasValue = false;
-        types = new ArrayList<>();
-        types.add(type);
+        this.hasValue = hasValue;
+        this.slot = slot;
     }
 
     /**
@@ -78,55 +91,172 @@ public class SJavaVariable {
     /**
      * Returns the type of the SJavaVariable
      */
-    public String getType() {
+    public SJavaType getType() {
         return this.type;
     }
 
-    public void setHasValue(boolean hasValue){
-        this.hasValue = hasValue;
+    /**
+     * Returns the index of the variable among the variables of its symbol table, by which the symbol
+     * table keeps whether it was assigned a value
+     *
+     * @return Variable slot, NO_SLOT if the variable was not added to a symbol table.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Variables are never changed, so a variable which is assigned a value is replaced by a copy of it.
+     *
+     * @return the same variable having a value, this variable if it already has one.
+     */
+    public SJavaVariable withValue() {
+        return hasValue ? this : new SJavaVariable(name, type, isFinal, true, slot);
     }
 
     /**
-     * Returns the matching type of given string part.
+     * @param slot index of the variable among the variables of its symbol table
+     * @return the same variable in the given slot
+     */
+    public SJavaVariable inSlot(int slot) {
+        return new SJavaVariable(name, type, isFinal, hasValue, slot);
+    }
+
+    /**
+     * Returns the matching type of given string part. The part is scanned character by character rather
+     * than matched against patterns of the values, with exactly the same results, which
+     * benchmark.MatchingTypeChecker checks: an int, a double (which may have several fractions, as in 1.2.3),
+     * a boolean, a char, a String or a variable name, in that order.
      * @param part part to identify its type.
-     * @return type of part.
-     */
-    public static String getMatchingType(String part) {
-        if (part.matches(INT_VALUES)) {
-            return "int";
-        } else if (part.matches(DOUBLE_VALUES)) {
-            return "double";
-        } else if (part.matches(BOOLEAN_VALUES)) {
-            return "boolean";
-        } else if (part.matches(CHAR_VALUES)) {
-            return "char";
-        } else if (part.matches(STRING_VALUES)) {
-            return "String";
-        } else if (part.matches(LEGAL_VAR_NAME)) {
-            return "var";
+     * @return type of part, VAR for a variable name and null if the part matches none of them.
+     */
+    public static SJavaType getMatchingType(String part) {
+        int length = part.length();
+        /* An int or a double, an optional minus followed by digits and then by fractions */
+        int digitsStart = length > 0 && part.charAt(0) == '-' ? 1 : 0;
+        int index = skipDigits(part, digitsStart);
+        if (index > digitsStart) {
+            if (index == length) {
+                return SJavaType.INT;
+            }
+            while (index < length && part.charAt(index) == '.') {
+                int fractionEnd = skipDigits(part, index + 1);
+                if (fractionEnd == index + 1) {
+                    break;
+                }
+                index = fractionEnd;
+            }
+            if (index == length) {
+                return SJavaType.DOUBLE;
+            }
+        }
+        /* A boolean, whose numeric values are all already matched as an int or a double */
+        if (part.equals("true") || part.equals("false")) {
+            return SJavaType.BOOLEAN;
+        }
+        /* A char, where the character may be a surrogate pair */
+        if (isCharValue(part)) {
+            return SJavaType.CHAR;
+        }
+        /* A String, which may not span lines */
+        if (length >= 2 && part.charAt(0) == '"' && part.charAt(length - 1) == '"' &&
+                !containsLineTerminator(part, 1, length - 1)) {
+            return SJavaType.STRING;
+        }
+        /* A variable name */
+        if (isLegalVarName(part)) {
+            return SJavaType.VAR;
         }
         return null;
     }
 
+    /**
+     * @param part part to scan
+     * @param index index to start at
+     * @return index of the first character from the given index which is not a digit
+     */
+    private static int skipDigits(String part, int index) {
+        while (index < part.length() && part.charAt(index) >= '0' && part.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param part part to check
+     * @return true if the part is a single character, or a single surrogate pair, between single quotes
+     */
+    private static boolean isCharValue(String part) {
+        int length = part.length();
+        if (length < 3 || length > 4 || part.charAt(0) != '\'' || part.charAt(length - 1) != '\'') {
+            return false;
+        }
+        if (length == 4) {
+            return Character.isHighSurrogate(part.charAt(1)) && Character.isLowSurrogate(part.charAt(2));
+        }
+        return !isLineTerminator(part.charAt(1));
+    }
+
+    /**
+     * @param part part to check
+     * @return true if the part is made of word characters, starts with a letter or an underscore, and is
+     * not made of underscores only
+     */
+    private static boolean isLegalVarName(String part) {
+        int length = part.length();
+        if (length == 0 || !(isLetter(part.charAt(0)) || part.charAt(0) == '_')) {
+            return false;
+        }
+        boolean onlyUnderscores = true;
+        for (int i = 0; i < length; i++) {
+            char curChar = part.charAt(i);
+            if (!(isLetter(curChar) || (curChar >= '0' && curChar <= '9') || curChar == '_')) {
+                return false;
+            }
+            onlyUnderscores &= curChar == '_';
+        }
+        return !onlyUnderscores;
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character is an ASCII letter
+     */
+    private static boolean isLetter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * @param part part to check
+     * @param start start index of the checked range
+     * @param end end index (exclusive) of the checked range
+     * @return true if one of the characters of the range ends a line, and is not matched by "."
+     */
+    private static boolean containsLineTerminator(String part, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isLineTerminator(part.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character ends a line, and is not matched by "."
+     */
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' ||
+                character == '\u2029';
+    }
+
     /**
      * Checks if the given left data type can be assigned by the right data type
      * @param leftHandType to be assigned to
      * @param rightHandType to be assigned
      * @return true is the right-hand data-type could be legally translated to the left-hand data-type
      */
-    public static boolean couldAssignValue(String leftHandType, String rightHandType){
-        switch(leftHandType) {
-            case "boolean":
-                return (booleanMatches.contains(rightHandType));
-            case "double":
-                return (doubleMatches.contains(rightHandType));
-            case "int":
-                return (rightHandType.equals("int"));
-            case "char":
-                return (rightHandType.equals("char"));
-            case "String":
-                return (rightHandType.equals("String"));
-        }
-        return false;
+    public static boolean couldAssignValue(SJavaType leftHandType, SJavaType rightHandType){
+        return leftHandType.canBeAssigned(rightHandType);
     }
 }
@@ -0,0 +1,173 @@
+package main.scopeLogic;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Lines of an ASCII SJava source held in a byte buffer, which is either memory-mapped from the file or
+ * read from it. The line boundaries are found once by scanning the bytes, and each line is then given as
+ * a CharSequence view over the buffer, so that no String is made for a line unless it is needed.
+ * The lines are split as Scanner.nextLine splits them, on "\n", "\r\n" and "\r".
+ */
+class ByteBufferLines extends AbstractList<CharSequence> implements RandomAccess {
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int AVERAGE_LINE_LENGTH = 32;
+    private static final int MINIMAL_CAPACITY = 16;
+
+    /**
+     * Bytes of the source
+     */
+    private final ByteBuffer source;
+    /**
+     * Number of lines in the source
+     */
+    private int lineCount;
+    /**
+     * Start index and end index (exclusive, before the line separator) of each line in the source
+     */
+    private int[] lineStarts;
+    private int[] lineEnds;
+
+    /**
+     * Constructor for the ByteBufferLines class
+     * @param source Bytes of the source
+     */
+    private ByteBufferLines(ByteBuffer source) {
+        this.source = source;
+        int capacity = Math.max(MINIMAL_CAPACITY, source.limit() / AVERAGE_LINE_LENGTH);
+        this.lineStarts = new int[capacity];
+        this.lineEnds = new int[capacity];
+    }
+
+    /**
+     * Finds the lines of the given source
+     * @param source Bytes of the source, from index 0 to its limit
+     * @return the lines of the source, null if the source is not ASCII and has to be decoded instead
+     */
+    static ByteBufferLines index(ByteBuffer source) {
+        ByteBufferLines lines = new ByteBufferLines(source);
+        int size = source.limit();
+        int lineStart = 0;
+        int index = 0;
+        while (index < size) {
+            byte curByte = source.get(index);
+            if (curByte < 0) {
+                /* Not ASCII */
+                return null;
+            }
+            if (curByte == LINE_FEED) {
+                lines.addLine(lineStart, index);
+                lineStart = ++index;
+            } else if (curByte == CARRIAGE_RETURN) {
+                lines.addLine(lineStart, index);
+                index++;
+                if (index < size && source.get(index) == LINE_FEED) {
+                    index++;
+                }
+                lineStart = index;
+            } else {
+                index++;
+            }
+        }
+        /* The last line only exists if it is not empty, as with Scanner */
+        if (lineStart < size) {
+            lines.addLine(lineStart, size);
+        }
+        return lines;
+    }
+
+    /**
+     * @param index index of the line
+     * @return a view over the line, without its line separator
+     */
+    @Override
+    public CharSequence get(int index) {
+        Objects.checkIndex(index, this.lineCount);
+        return new LineView(this.source, this.lineStarts[index], this.lineEnds[index] - this.lineStarts[index]);
+    }
+
+    /**
+     * @return Number of lines in the source
+     */
+    @Override
+    public int size() {
+        return this.lineCount;
+    }
+
+    /**
+     * Adds a line to the line arrays, growing them if needed
+     * @param start start index of the line
+     * @param end end index (exclusive) of the line
+     */
+    private void addLine(int start, int end) {
+        if (this.lineCount == this.lineStarts.length) {
+            int newCapacity = this.lineCount * 2;
+            this.lineStarts = Arrays.copyOf(this.lineStarts, newCapacity);
+            this.lineEnds = Arrays.copyOf(this.lineEnds, newCapacity);
+        }
+        this.lineStarts[this.lineCount] = start;
+        this.lineEnds[this.lineCount] = end;
+        this.lineCount++;
+    }
+
+    /**
+     * A line of an ASCII source, read directly from the bytes of the source. Only absolute reads are done
+     * on the buffer, so views can be read by several threads at once.
+     */
+    private static final class LineView implements CharSequence {
+        /**
+         * Bytes of the source
+         */
+        private final ByteBuffer source;
+        /**
+         * Start index of the line in the source, and its length
+         */
+        private final int start;
+        private final int length;
+
+        /**
+         * Constructor for the LineView class
+         * @param source Bytes of the source
+         * @param start Start index of the line in the source
+         * @param length Length of the line
+         */
+        private LineView(ByteBuffer source, int start, int length) {
+            this.source = source;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, this.length);
+            /* ASCII bytes are non-negative, and are the same as their chars */
+            return (char) this.source.get(this.start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, this.length);
+            return new LineView(this.source, this.start + start, end - start);
+        }
+
+        /**
+         * @return a copy of the line as a String
+         */
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[this.length];
+            this.source.get(this.start, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
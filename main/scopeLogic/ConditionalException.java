@@ -1,9 +1,11 @@
 package main.scopeLogic;
 
+import main.validation.CompilationException;
+
 /**
  * Exception thrown for invalid conditionals
  */
-public class ConditionalException extends Exception {
+public class ConditionalException extends CompilationException {
     ConditionalException(String errorMessage) {
         super(errorMessage);
     }
@@ -0,0 +1,111 @@
+package main.scopeLogic;
+
+import java.util.Arrays;
+
+/**
+ * Keeps which of the variables of the Local Scopes-within-scopes were assigned a value, as a bitset over
+ * the slots of the variables. The slots set in each scope are kept on a trail, so that opening a scope
+ * only marks the length of the trail, and closing it clears the slots set since then, leaving the bitset
+ * as it was when the scope was opened.
+ */
+class DefiniteAssignments {
+    /* Initial number of slots, of trailed assignments and of open scopes */
+    private static final int INITIAL_CAPACITY = 16;
+    /* Number of bits of the index of a slot within its word of the bitset */
+    private static final int SLOT_BITS_PER_WORD = 6;
+
+    /**
+     * Bitset of the slots which were assigned a value in the open scopes
+     */
+    private long[] assignedSlots;
+    /**
+     * Slots in the order they were assigned, the first trailSize of them being in use
+     */
+    private int[] assignmentTrail;
+    private int trailSize;
+    /**
+     * For each of the open scopes, outermost first, the trail size and the next free slot when it was
+     * opened, the first 2 * scopeCount of them being in use
+     */
+    private int[] scopeMarks;
+    private int scopeCount;
+    /**
+     * Slot the next variable declared in the open scopes is given
+     */
+    private int nextSlot;
+
+    /**
+     * Constructor for the DefiniteAssignments class
+     * @param firstSlot slot of the first variable declared in the scopes, the slots before it being
+     *                  those of variables declared elsewhere
+     */
+    DefiniteAssignments(int firstSlot) {
+        this.assignedSlots = new long[(firstSlot + INITIAL_CAPACITY >> SLOT_BITS_PER_WORD) + 1];
+        this.assignmentTrail = new int[INITIAL_CAPACITY];
+        this.scopeMarks = new int[INITIAL_CAPACITY * 2];
+        this.nextSlot = firstSlot;
+    }
+
+    /**
+     * Opens a new innermost scope
+     */
+    void openScope() {
+        if (this.scopeCount * 2 == this.scopeMarks.length) {
+            this.scopeMarks = Arrays.copyOf(this.scopeMarks, this.scopeMarks.length * 2);
+        }
+        this.scopeMarks[this.scopeCount * 2] = this.trailSize;
+        this.scopeMarks[this.scopeCount * 2 + 1] = this.nextSlot;
+        this.scopeCount++;
+    }
+
+    /**
+     * Closes the innermost scope, clearing the slots assigned in it and freeing the slots of the variables
+     * declared in it
+     */
+    void closeScope() {
+        this.scopeCount--;
+        int scopeTrailSize = this.scopeMarks[this.scopeCount * 2];
+        for (int i = scopeTrailSize; i < this.trailSize; i++) {
+            int slot = this.assignmentTrail[i];
+            this.assignedSlots[slot >> SLOT_BITS_PER_WORD] &= ~(1L << slot);
+        }
+        this.trailSize = scopeTrailSize;
+        this.nextSlot = this.scopeMarks[this.scopeCount * 2 + 1];
+    }
+
+    /**
+     * @return the slot of a variable declared in the innermost scope
+     */
+    int newSlot() {
+        return this.nextSlot++;
+    }
+
+    /**
+     * @param slot slot of the variable
+     * @return true if the variable was assigned a value in the open scopes
+     */
+    boolean isAssigned(int slot) {
+        int word = slot >> SLOT_BITS_PER_WORD;
+        return word < this.assignedSlots.length && (this.assignedSlots[word] & 1L << slot) != 0;
+    }
+
+    /**
+     * Marks the variable as assigned a value in the innermost scope, until the scope is closed
+     * @param slot slot of the variable
+     */
+    void assign(int slot) {
+        if (isAssigned(slot)) {
+            return;
+        }
+        int word = slot >> SLOT_BITS_PER_WORD;
+        if (word >= this.assignedSlots.length) {
+            this.assignedSlots = Arrays.copyOf(this.assignedSlots, Math.max(word + 1,
+                    this.assignedSlots.length * 2));
+        }
+        this.assignedSlots[word] |= 1L << slot;
+        if (this.trailSize == this.assignmentTrail.length) {
+            this.assignmentTrail = Arrays.copyOf(this.assignmentTrail, this.trailSize * 2);
+        }
+        this.assignmentTrail[this.trailSize++] = slot;
+    }
+}
@@ -0,0 +1,71 @@
+package main.scopeLogic;
+
+import java.util.*;
+
+/**
+ * Class responsible for the collection of the compilation errors of an SJava file, so that the validation
+ * can go on past an error and report all of them at once. At most a given number of errors are kept, and
+ * the validation stops once they were found.
+ */
+public class ErrorCollector {
+    /**
+     * Maximal number of errors to collect
+     */
+    private final int maxErrors;
+    /**
+     * Errors collected so far, in the order they were found
+     */
+    private final ArrayList<LineError> errors = new ArrayList<>();
+
+    /**
+     * Constructor for the ErrorCollector class
+     * @param maxErrors Maximal number of errors to collect, positive
+     */
+    public ErrorCollector(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Adds an error, unless the maximal number of errors was already collected
+     * @param lineNumber 1-based number of the line the error was found in
+     * @param error The exception the line is not compilable for
+     */
+    public void report(int lineNumber, Exception error) {
+        if (!isFull()) {
+            this.errors.add(new LineError(lineNumber, error));
+        }
+    }
+
+    /**
+     * Adds the errors of another collector, up to the maximal number of errors
+     * @param other collector whose errors are added
+     */
+    public void addAll(ErrorCollector other) {
+        for (LineError lineError : other.errors) {
+            report(lineError.getLineNumber(), lineError.getError());
+        }
+    }
+
+    /**
+     * @return true if the maximal number of errors was collected, and the validation can stop
+     */
+    public boolean isFull() {
+        return this.errors.size() >= this.maxErrors;
+    }
+
+    /**
+     * @return Number of errors that can still be collected
+     */
+    public int getRemainingErrors() {
+        return this.maxErrors - this.errors.size();
+    }
+
+    /**
+     * @return the errors collected, ordered by line number, and by the order they were found within a line
+     */
+    public List<LineError> getErrors() {
+        List<LineError> sortedErrors = new ArrayList<>(this.errors);
+        sortedErrors.sort(Comparator.comparingInt(LineError::getLineNumber));
+        return sortedErrors;
+    }
+}
@@ -1,9 +1,13 @@
 package main.scopeLogic;
 
+import main.instrumentation.GlobalPassEvent;
+import main.instrumentation.VerifierStatistics;
 import main.sJavaDataTypes.SJavaMethod;
+import main.sJavaDataTypes.SJavaType;
 import main.sJavaDataTypes.SJavaVariable;
 import main.validation.*;
 
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -15,6 +19,28 @@ public class GlobalScopeValidator {
      * Scope validation process
      */
     private final MemoryCollector memoryCollector;
+    /**
+     * Notified of each method once its lines were read, null if no one is notified
+     */
+    private MethodReadListener methodReadListener;
+    /**
+     * Time spent by the listener during the current validation, while the statistics are recorded
+     */
+    private long listenerNanos;
+    /**
+     * Collects the errors of the lines so that the validation goes on past them, null if the validation
+     * stops at the first error
+     */
+    private ErrorCollector errorCollector;
+    /**
+     * Parsed lines of the source, which each line read by the validation is parsed into once, for this
+     * validation and the validation of the Local Scopes
+     */
+    private ParsedLines parsedLines;
+    /**
+     * Parser of the lines read by the validation
+     */
+    private LineParser lineParser;
 
     /**
      * Constructor for the GlobalScopeValidator class
@@ -24,17 +50,70 @@ public class GlobalScopeValidator {
         this.memoryCollector = memoryCollector;
     }
 
+    /**
+     * @return Parsed lines of the source validated last, holding all its lines unless they were streamed
+     */
+    public ParsedLines getParsedLines() {
+        return this.parsedLines;
+    }
+
+    /**
+     * Sets the listener notified of each method once its lines were read, while the lines are still held
+     * by the parsed lines
+     * @param methodReadListener listener to notify, null to notify no one
+     */
+    public void setMethodReadListener(MethodReadListener methodReadListener) {
+        this.methodReadListener = methodReadListener;
+    }
+
+    /**
+     * Sets the collector of the errors of the lines, so that the validation goes on past an invalid line
+     * instead of stopping at it
+     * @param errorCollector collector of the errors, null to stop at the first error
+     */
+    public void setErrorCollector(ErrorCollector errorCollector) {
+        this.errorCollector = errorCollector;
+    }
+
     /**
      * Fills the globalVariableTable with the global Variables and the globalMethodsTable with the
-     * Methods in the file.
+     * Methods in the file. Each line is parsed once as it is read, into the parsed lines the Local Scopes
+     * are then validated on.
+     * @param lineBuffer buffered lines of the provided SJava file
+     */
+    public void fillGlobalTablesAndValidate(LineBuffer lineBuffer)
+            throws VariableAssignmentException, VariableDeclarationException,
+            MethodDefinitionException, SyntaxException {
+        /* The validation is a Flight Recorder event, if it is recorded */
+        GlobalPassEvent passEvent = new GlobalPassEvent();
+        passEvent.begin();
+        /* The time of the validation is only measured while the statistics are recorded */
+        boolean timed = VerifierStatistics.isRecordingOn();
+        long start = timed ? System.nanoTime() : 0;
+        this.listenerNanos = 0;
+        this.parsedLines = new ParsedLines(lineBuffer.getLineNumber() + 1);
+        this.lineParser = new LineParser(this.parsedLines);
+        try {
+            validateGlobalScope(lineBuffer);
+        }
+        finally {
+            if (timed) {
+                VerifierStatistics.recordGlobalPass(lineBuffer.getLineNumber(),
+                        System.nanoTime() - start - this.listenerNanos);
+            }
+            passEvent.commit(lineBuffer.getLineNumber(), this.memoryCollector.getMethods().size());
+        }
+    }
+
+    /**
+     * Validates the lines of the Global Scope, as described by fillGlobalTablesAndValidate
+     * @param lineBuffer buffered lines of the provided SJava file
      */
-    public void fillGlobalTablesAndValidate(Scanner scanner)
+    private void validateGlobalScope(LineBuffer lineBuffer)
             throws VariableAssignmentException, VariableDeclarationException,
             MethodDefinitionException, SyntaxException {
         /* We need to do several runs on the text, once for the global vars + methods,
          and then for each method we need to iterate in-side of it and activate the fillLocalTables on it */
-        EmptyLineValidator emptyLineValidator = new EmptyLineValidator();
-        CommentValidator commentValidator = new CommentValidator();
 
         /* There are 5 options for each line of the provided file for the global scope:
          1. Global Variable
@@ -42,59 +121,130 @@ public class GlobalScopeValidator {
          3. Method and its scope
          4. Empty/Comment
          5. Invalid line - The file is uncompilable */
-        while (scanner.hasNextLine()) {
-            String curLine = scanner.nextLine();
-
-            /* Global SjavacVariable, adds it to the Global SjavacVariable Table */
-            boolean varDecBool = variableDeclarationAction(curLine);
+        while (lineBuffer.hasNextLine()) {
+            /* The lines of the previous line or method are no longer needed by this pass */
+            lineBuffer.releaseReadLines();
+            if (lineBuffer.isStreamed()) {
+                this.parsedLines.release();
+            }
+            int lineNumber = nextLine(lineBuffer);
+            try {
+                validateLine(lineNumber, lineBuffer);
+            }
+            catch (VariableAssignmentException | VariableDeclarationException | MethodDefinitionException |
+                    SyntaxException | RuntimeException e) {
+                /* A line the validators fail on is an error of its own, unless the source could not be read */
+                if (this.errorCollector == null || e instanceof UncheckedIOException) {
+                    throw e;
+                }
+                this.errorCollector.report(lineNumber, e);
+                if (this.errorCollector.isFull()) {
+                    return;
+                }
+                /* The block opened by the line is skipped, unless it was already read as a method */
+                if (lineBuffer.getLineNumber() == lineNumber && this.parsedLines.opensBlock(lineNumber)) {
+                    skipBlock(lineBuffer);
+                }
+            }
+        }
 
-            /* Global SjavacVariable assignment */
-            boolean varAssignBool = variableAssignmentAction(curLine);
+    }
 
-            /* Global Method, adds it to the Global Method Table */
-            boolean methodDecBool = methodDeclarationAction(curLine, scanner);
+    /**
+     * Reads the next line of the file, parsing it into the parsed lines
+     * @param lineBuffer buffered lines of the file
+     * @return Line number of the line
+     */
+    private int nextLine(LineBuffer lineBuffer) {
+        return this.lineParser.parseLine(lineBuffer.nextLine());
+    }
 
-            /* Two options:
-             1. empty line, which is valid
-             2. comment line
-             3. anything else, which is invalid */
-            boolean emptyLineBool = emptyLineValidator.validate(curLine);
-            boolean commentLineBool = commentValidator.validate(curLine);
+    /**
+     * Validates a single line of the Global Scope, along with the lines of the method it declares if it
+     * is a method declaration
+     * @param curLine Line number of the line to validate
+     * @param lineBuffer buffered lines of the file, positioned right after the line
+     */
+    private void validateLine(int curLine, LineBuffer lineBuffer)
+            throws VariableAssignmentException, VariableDeclarationException,
+            MethodDefinitionException, SyntaxException {
+        /* Only the validators of the kinds the line could be are run on it */
+        int lineKinds = this.parsedLines.getLineKinds(curLine);
+
+        /* Global SjavacVariable, adds it to the Global SjavacVariable Table */
+        boolean varDecBool = LineLexer.couldBe(lineKinds, LineLexer.VARIABLE_DECLARATION_LINE) &&
+                LineActionRegistry.recordRun(LineLexer.VARIABLE_DECLARATION_LINE, variableDeclarationAction(
+                        this.parsedLines.findOperation(curLine, LineLexer.VARIABLE_DECLARATION_LINE)));
+
+        /* Global SjavacVariable assignment */
+        boolean varAssignBool = LineLexer.couldBe(lineKinds, LineLexer.VARIABLE_ASSIGNMENT_LINE) &&
+                LineActionRegistry.recordRun(LineLexer.VARIABLE_ASSIGNMENT_LINE, variableAssignmentAction(
+                        this.parsedLines.findOperation(curLine, LineLexer.VARIABLE_ASSIGNMENT_LINE)));
+
+        /* Global Method, adds it to the Global Method Table */
+        boolean methodDecBool = LineLexer.couldBe(lineKinds, LineLexer.METHOD_DEFINITION_LINE) &&
+                LineActionRegistry.recordRun(LineLexer.METHOD_DEFINITION_LINE, methodDeclarationAction(
+                        this.parsedLines.findOperation(curLine, LineLexer.METHOD_DEFINITION_LINE), lineBuffer));
+
+        /* Two options:
+         1. empty line, which is valid
+         2. comment line
+         3. anything else, which is invalid */
+        boolean emptyLineBool = LineLexer.couldBe(lineKinds, LineLexer.EMPTY_LINE) &&
+                LineActionRegistry.recordRun(LineLexer.EMPTY_LINE,
+                        this.parsedLines.isLineOf(curLine, LineLexer.EMPTY_LINE));
+        boolean commentLineBool = LineLexer.couldBe(lineKinds, LineLexer.COMMENT_LINE) &&
+                LineActionRegistry.recordRun(LineLexer.COMMENT_LINE,
+                        this.parsedLines.isLineOf(curLine, LineLexer.COMMENT_LINE));
+
+        /* Throw exception for line in global scope that isn't a global variable or part of a method
+        * or an empty line/comment */
+        if(!(varDecBool || varAssignBool || methodDecBool || emptyLineBool || commentLineBool)) {
+            throw new SyntaxException("Line in the Global scope was not one of the valid lines");
+        }
+    }
 
-            /* Throw exception for line in global scope that isn't a global variable or part of a method
-            * or an empty line/comment */
-            if(!(varDecBool || varAssignBool || methodDecBool || emptyLineBool || commentLineBool)) {
-                throw new SyntaxException("Line in the Global scope was not one of the valid lines");
+    /**
+     * Skips the lines of a block whose opening line was found to not be compilable, counting the brackets
+     * as the lines of a method are counted, so that the validation goes on after the block
+     * @param lineBuffer buffered lines of the file, positioned right after the opening line
+     */
+    private void skipBlock(LineBuffer lineBuffer) {
+        int numOfOpenScopes = 1;
+        while (numOfOpenScopes > 0 && lineBuffer.hasNextLine()) {
+            int curLine = nextLine(lineBuffer);
+            if (this.parsedLines.hasOpeningBracket(curLine)) {
+                numOfOpenScopes++;
+            } else if (this.parsedLines.hasClosingBracket(curLine)) {
+                numOfOpenScopes--;
             }
-
         }
-
     }
 
     /**
      * Checks if the value that was given is fit to be assigned to the Variable
      * @param sv Variable to be assigned to
-     * @param curAssignValue Value to be assigned to the variable
+     * @param curAssignValue Code of the value to be assigned to the variable, as parsed
      * @throws VariableAssignmentException The left/right variables do not exist or do not match
      */
-    public void assignableValueCheck(SJavaVariable sv, String curAssignValue)
+    public void assignableValueCheck(SJavaVariable sv, int curAssignValue)
             throws VariableAssignmentException{
         /* If the right var is a var name or a data type */
-        String curAssignmentVarType = SJavaVariable.getMatchingType(curAssignValue);
+        SJavaType curAssignmentVarType = ParsedLines.getValueType(curAssignValue);
         if(curAssignmentVarType == null) {
             throw new VariableAssignmentException("Assignment value in the declaration is not of a valid type");
         }
 
         /* If the right-side is not a variable */
-        if (!curAssignmentVarType.equals("var")) {
+        if (curAssignmentVarType != SJavaType.VAR) {
             /* If the right-side's data type does not match the left-sides variable type */
             if(!SJavaVariable.couldAssignValue(sv.getType(), curAssignmentVarType)) {
                 throw new VariableAssignmentException("Tried to assign an incompatible data type");
             }
         }
         else {
-            SJavaVariable curAssignVar =
-                    memoryCollector.checkVariableNameByGlobalVariableTable(curAssignValue);
+            SJavaVariable curAssignVar = memoryCollector.checkVariableNameByGlobalVariableTable(
+                    this.parsedLines.getName(curAssignValue));
             /* If the right-side's variable does not exist in the global table */
             if (curAssignVar == null) {
                 throw new VariableAssignmentException("Assignment variable was not declared");
@@ -113,33 +263,31 @@ public class GlobalScopeValidator {
     /**
      * Checks the line for being a variable declaration, and if it is, it will check it for being legally
      * compilable and save the variable's related data.
-     * @param curLine to check for a variable declaration
+     * @param operation index of the declaration operation the line was parsed into, -1 if none
      * @return true if the line is a compilable variable declaration,
      * false if it is not a variable declaration
      * @throws VariableDeclarationException Line is a syntactically valid variable declaration but
      *                                                                     is not compilable for other reasons
      */
-    private boolean variableDeclarationAction(String curLine)
-            throws VariableDeclarationException, VariableAssignmentException, SyntaxException {
-        VariableDeclarationValidator variableDeclarationValidator = new VariableDeclarationValidator();
-
+    private boolean variableDeclarationAction(int operation)
+            throws VariableDeclarationException, VariableAssignmentException {
         /* Checks if the current line is a variable declaration */
-        if(variableDeclarationValidator.validate(curLine)) {
+        if(operation >= 0) {
+            SJavaType type = this.parsedLines.getDeclaredType(operation);
+            boolean isFinal = this.parsedLines.isFinalDeclaration(operation);
 
-            HashMap<SJavaVariable, String> sJavaVariablesDecPairs =
-                    variableDeclarationValidator.getVars(curLine);
-
-            for(SJavaVariable sv : sJavaVariablesDecPairs.keySet()) {
+            for(int i = 0; i < this.parsedLines.getEntryCount(operation); i++) {
+                SJavaVariable sv = new SJavaVariable(
+                        this.parsedLines.getName(this.parsedLines.getEntryName(operation, i)), type, isFinal);
 
                 /* Checks if there are two Variables of the same name */
                 if(this.memoryCollector.checkVariableNameByGlobalVariableTable(sv.getName()) == null){
-                    String curAssignValue = sJavaVariablesDecPairs.get(sv);
+                    int curAssignValue = this.parsedLines.getEntryValue(operation, i);
                     /* Checks if the right-hand side data type is present */
-                    if(curAssignValue != null) {
+                    if(curAssignValue != ParsedLines.NO_VALUE) {
                         assignableValueCheck(sv, curAssignValue);
 
-                        sv.setHasValue(true);
-                        this.memoryCollector.addGlobalVariable(sv);
+                        this.memoryCollector.addGlobalVariable(sv.withValue());
                     }
                     /* In the case that the right-hand side is null */
                     else {
@@ -147,7 +295,6 @@ public class GlobalScopeValidator {
                             throw new VariableDeclarationException("Attempted to declare an empty final variable");
                         }
 
-                        sv.setHasValue(false);
                         this.memoryCollector.addGlobalVariable(sv);
                     }
                 }
@@ -164,19 +311,18 @@ public class GlobalScopeValidator {
     /**
      * Checks the line for being a method declaration, and if it is, it will check it for being legally
      * compilable and save the method's related data.
-     * @param curLine to check for a method declaration
+     * @param operation index of the method definition operation the line was parsed into, -1 if none
+     * @param lineBuffer buffered lines of the file, positioned right after the current line
      * @return true if the line is a compilable method declaration,
      * false if it is not a method declaration
      * @throws MethodDefinitionException Line is a syntactically valid method declaration but
      *                                                                     is not compilable for other reasons
      */
-    private boolean methodDeclarationAction(String curLine, Scanner scanner)
-            throws MethodDefinitionException, SyntaxException {
-        MethodDefinitionValidator methodDefinitionValidator = new MethodDefinitionValidator();
-
+    private boolean methodDeclarationAction(int operation, LineBuffer lineBuffer)
+            throws MethodDefinitionException {
         /* Checks if the line is a method declaration */
-        if (methodDefinitionValidator.validate(curLine)) {
-            SJavaMethod sJavaMethod = methodDefinitionValidator.getMethodData();
+        if (operation >= 0) {
+            SJavaMethod sJavaMethod = this.parsedLines.getDefinedMethod(operation);
 
             /* Checks if there are no previous methods of the same name in the file */
             if(memoryCollector.getMethodFromName(sJavaMethod.getName()) != null) {
@@ -184,13 +330,14 @@ public class GlobalScopeValidator {
             }
 
             /* Checks if the Method has an adequate number of open/closed curly brackets for the
-             scope count */
+             scope count. The lines of the method are parsed here, along with their brackets */
+            int firstLine = lineBuffer.getLineNumber();
             int numOfOpenScopes = 1;
-            while (scanner.hasNextLine()) {
-                curLine = scanner.nextLine();
-                if (curLine.contains("{")) {
+            while (lineBuffer.hasNextLine()) {
+                int curLine = nextLine(lineBuffer);
+                if (this.parsedLines.hasOpeningBracket(curLine)) {
                     numOfOpenScopes++;
-                } else if (curLine.contains("}")) {
+                } else if (this.parsedLines.hasClosingBracket(curLine)) {
                         numOfOpenScopes--;
                     // Local scope closes in a valid manner
                     if (numOfOpenScopes == 0) {
@@ -206,7 +353,16 @@ public class GlobalScopeValidator {
                         "number of closing brackets");
             }
 
-            this.memoryCollector.addMethod(methodDefinitionValidator.getMethodData());
+            sJavaMethod.setLines(firstLine, lineBuffer.getLineNumber());
+            this.memoryCollector.addMethod(sJavaMethod);
+            if (this.methodReadListener != null) {
+                /* The time of the listener is not part of the Global Scope validation */
+                long listenerStart = VerifierStatistics.isRecordingOn() ? System.nanoTime() : 0;
+                this.methodReadListener.methodRead(sJavaMethod, this.parsedLines);
+                if (listenerStart != 0) {
+                    this.listenerNanos += System.nanoTime() - listenerStart;
+                }
+            }
 
             return true;
         }
@@ -216,21 +372,18 @@ public class GlobalScopeValidator {
     /**
      * Checks the line for being a variable assignment, and if it is, it will check it for being legally
      * compilable and save the variable's related data.
-     * @param curLine to check for a variable assignment
+     * @param operation index of the assignment operation the line was parsed into, -1 if none
      * @return true if the line is a compilable variable assignment,
      * false if it is not a variable assignment
      * @throws VariableAssignmentException Line is a syntactically valid variable assignment but
      *                                                                     is not compilable for other reasons
      */
-    private boolean variableAssignmentAction(String curLine) throws VariableAssignmentException {
-        VariableAssignmentValidator variableAssignmentValidator = new VariableAssignmentValidator();
-
+    private boolean variableAssignmentAction(int operation) throws VariableAssignmentException {
         /* Checks if the current line is a variable assignment */
-        if (variableAssignmentValidator.validate(curLine)) {
-            Vector<String[]> curVariableNames = variableAssignmentValidator.getVariableAssignment(curLine);
-            for (String[] curNamePair : curVariableNames) {
+        if (operation >= 0) {
+            for (int i = 0; i < this.parsedLines.getEntryCount(operation); i++) {
                 SJavaVariable sv = memoryCollector.checkVariableNameByGlobalVariableTable(
-                        curNamePair[0]);
+                        this.parsedLines.getName(this.parsedLines.getEntryName(operation, i)));
                 /* If the left var does not exist in the tables */
                 if (sv == null) {
                     throw new VariableAssignmentException("Tried to assign to an undeclared variable");
@@ -240,17 +393,30 @@ public class GlobalScopeValidator {
                     throw new VariableAssignmentException("Tried to assign a value to a final variable");
                 }
                 /* If the right var is a var name or a data type */
-                String curAssignmentVarType = SJavaVariable.getMatchingType(curNamePair[1]);
+                int curAssignValue = this.parsedLines.getEntryValue(operation, i);
+                SJavaType curAssignmentVarType = ParsedLines.getValueType(curAssignValue);
                 if(curAssignmentVarType == null) {
                     throw new VariableAssignmentException("Assignment value in the declaration is not of a valid type");
                 }
 
-                assignableValueCheck(sv, curNamePair[1]);
+                assignableValueCheck(sv, curAssignValue);
 
-                sv.setHasValue(true);
+                this.memoryCollector.assignGlobalVariable(sv);
             }
             return true;
         }
         return false;
     }
+
+    /**
+     * Notified of each method of the Global Scope once its lines were read
+     */
+    public interface MethodReadListener {
+        /**
+         * Called once the lines of a method were read and the method was added to the global method table
+         * @param sJavaMethod the method that was read
+         * @param parsedLines parsed lines of the file, still holding the lines of the method
+         */
+        void methodRead(SJavaMethod sJavaMethod, ParsedLines parsedLines);
+    }
 }
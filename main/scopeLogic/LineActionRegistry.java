@@ -0,0 +1,101 @@
+package main.scopeLogic;
+
+import main.instrumentation.VerifierStatistics;
+import main.validation.LineLexer;
+import main.validation.ParsedLines;
+import main.validation.SyntaxException;
+
+/**
+ * Registry of the actions validating the lines of a Local Scope, each registered for one of the line kinds
+ * the lexer classifies lines as. A line is only given to the actions of the kinds it could be, so a line
+ * which is clearly of one kind is not tried as any other kind, and a new kind of line is supported by
+ * registering an action for it rather than by changing the validation loop.
+ */
+class LineActionRegistry {
+    /**
+     * An action validating the lines of a single kind
+     */
+    interface LineAction {
+        /**
+         * Validates a line which the lexer classified as possibly being of the action's kind
+         * @param localScopeValidator validator of the Local Scope the line is in
+         * @param operation index of the operation of the action's kind the line was parsed into, -1 if the
+         *                  line was not parsed as a line of that kind
+         * @return true if the line is a compilable line of the action's kind, false if it is not of that kind
+         */
+        boolean validate(LocalScopeValidator localScopeValidator, int operation)
+                throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+                MethodDefinitionException, ConditionalException, SyntaxException;
+    }
+
+    /**
+     * Registered actions, by the index of the flag of their line kind
+     */
+    private final LineAction[] actions = new LineAction[Integer.SIZE];
+    /**
+     * Flags of the line kinds which have a registered action
+     */
+    private int registeredKinds;
+
+    /**
+     * Registers the action validating the lines of a kind. The actions of a line are run in the order of
+     * their kinds' flags, whatever the order they were registered in
+     * @param lineKind flag of the line kind, one of the line kinds of the LineLexer
+     * @param action action validating the lines of the kind
+     * @throws IllegalArgumentException if the kind is not a single flag, or already has an action
+     */
+    void register(int lineKind, LineAction action) {
+        if (Integer.bitCount(lineKind) != 1 || LineLexer.couldBe(this.registeredKinds, lineKind)) {
+            throw new IllegalArgumentException("Line kind " + lineKind + " cannot be registered");
+        }
+        this.actions[Integer.numberOfTrailingZeros(lineKind)] = action;
+        this.registeredKinds |= lineKind;
+    }
+
+    /**
+     * Runs the actions of all the kinds the line could be on the operations it was parsed into. The
+     * syntax error of an operation which failed to be parsed is thrown when its action is reached
+     * @param localScopeValidator validator of the Local Scope the line is in
+     * @param parsedLines parsed lines holding the line
+     * @param lineNumber Line number of the line to validate
+     * @param lineKinds flags of the kinds the line could be, as classified by the lexer
+     * @return flags of the kinds the line was found to be, 0 if it is none of the registered kinds
+     */
+    int validate(LocalScopeValidator localScopeValidator, ParsedLines parsedLines, int lineNumber,
+                 int lineKinds)
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        int validKinds = 0;
+        int candidateKinds = lineKinds & this.registeredKinds;
+        while (candidateKinds != 0) {
+            int lineKind = Integer.lowestOneBit(candidateKinds);
+            candidateKinds &= ~lineKind;
+            int operation = parsedLines.findOperation(lineNumber, lineKind);
+            if (recordRun(lineKind, operation >= 0 &&
+                    this.actions[Integer.numberOfTrailingZeros(lineKind)].validate(localScopeValidator, operation))) {
+                validKinds |= lineKind;
+            }
+        }
+        return validKinds;
+    }
+
+    /**
+     * Records a run of the validator of a line kind in the verification statistics
+     * @param lineKind flag of the line kind
+     * @param hit true if the line was found to be of the kind
+     * @return hit, so that the run is recorded where its result is used
+     */
+    static boolean recordRun(int lineKind, boolean hit) {
+        if (VerifierStatistics.isRecordingOn()) {
+            VerifierStatistics.recordValidatorRun(LineLexer.getKindName(lineKind), hit);
+        }
+        return hit;
+    }
+
+    /**
+     * @return flags of the line kinds which have a registered action
+     */
+    int getRegisteredKinds() {
+        return this.registeredKinds;
+    }
+}
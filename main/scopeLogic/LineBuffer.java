@@ -0,0 +1,279 @@
+package main.scopeLogic;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Class holding the lines of a provided SJava file. The file is read only once, and the Global and the
+ * Local Scope validation passes then go over the buffered lines instead of re-reading the file.
+ * A LineBuffer may also stream its lines from a Reader, in which case only the lines not yet released
+ * are held, and the lines cannot be read again.
+ */
+public class LineBuffer {
+    // Errors
+    private static final String NO_LINE_FOUND_ERROR = "No line found";
+    private static final String RELEASED_LINES_ERROR = "The lines were already released and cannot be read again";
+
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    /**
+     * Files of at least this size are memory-mapped rather than read into the heap
+     */
+    private static final long MAPPING_THRESHOLD = 1 << 20;
+
+    /**
+     * Lines of the SJava file, in order. When streaming, only the lines read from the source and not yet
+     * released
+     */
+    private final List<CharSequence> lines;
+    /**
+     * Line number of the first line in the buffer, in the SJava file
+     */
+    private int firstLineNumber;
+    /**
+     * Index of the next line to be returned
+     */
+    private int nextLineIndex;
+    /**
+     * Source the lines are streamed from, null if all the lines are held
+     */
+    private final ReaderLines source;
+    /**
+     * Were lines released, so that the buffer can no longer be rewound?
+     */
+    private boolean released;
+
+    /**
+     * Constructor for the LineBuffer class
+     * @param lines Lines of the SJava file, in order
+     */
+    public LineBuffer(List<? extends CharSequence> lines) {
+        this(Collections.unmodifiableList(lines), 1, null);
+    }
+
+    /**
+     * Constructor for a LineBuffer holding part of the lines of an SJava file
+     * @param lines Lines of the part of the SJava file, in order
+     * @param firstLineNumber Line number of the first line in the buffer, in the SJava file
+     * @param source Source the lines are streamed from, null if all the lines are held
+     */
+    private LineBuffer(List<CharSequence> lines, int firstLineNumber, ReaderLines source) {
+        this.lines = lines;
+        this.firstLineNumber = firstLineNumber;
+        this.nextLineIndex = 0;
+        this.source = source;
+    }
+
+    /**
+     * Creates a LineBuffer streaming the lines of the given reader. The lines are read only as they are
+     * needed, and are dropped once they are released by releaseReadLines.
+     * @param reader reader of the SJava source
+     * @return LineBuffer streaming the lines of the reader
+     */
+    public static LineBuffer streamLines(Reader reader) {
+        return new LineBuffer(new ArrayList<>(), 1, new ReaderLines(reader));
+    }
+
+    /**
+     * Splits the given source into a new LineBuffer. The lines are views over the source, not copies of it,
+     * and are split as Scanner.nextLine splits them.
+     * @param source the SJava source
+     * @return LineBuffer holding all the lines of the source
+     */
+    public static LineBuffer splitLines(CharSequence source) {
+        List<CharSequence> lines = new ArrayList<>();
+        int length = source.length();
+        int lineStart = 0;
+        int index = 0;
+        while (index < length) {
+            char curChar = source.charAt(index);
+            if (!ReaderLines.isLineSeparator(curChar)) {
+                index++;
+                continue;
+            }
+            lines.add(CharBuffer.wrap(source, lineStart, index));
+            index++;
+            if (curChar == CARRIAGE_RETURN && index < length && source.charAt(index) == LINE_FEED) {
+                index++;
+            }
+            lineStart = index;
+        }
+        /* The last line only exists if it is not empty, as with Scanner */
+        if (lineStart < length) {
+            lines.add(CharBuffer.wrap(source, lineStart, length));
+        }
+        return new LineBuffer(lines);
+    }
+
+    /**
+     * Reads the lines of the given file into a new LineBuffer. An ASCII file is kept as bytes - mapped
+     * from the file if it is large, read into the heap otherwise - and its lines are found without
+     * regex and given as views over the bytes. Any other file is decoded as Scanner decodes it.
+     * @param inputFile the SJava file
+     * @return LineBuffer holding all the lines of the file
+     * @throws IOException if the file could not be read
+     */
+    public static LineBuffer readFile(FileInputStream inputFile) throws IOException {
+        FileChannel channel = inputFile.getChannel();
+        long size = channel.size();
+        if (size < MAPPING_THRESHOLD) {
+            return readBytes(inputFile.readAllBytes());
+        }
+        if (isAsciiCompatible(Charset.defaultCharset()) && size <= Integer.MAX_VALUE) {
+            ByteBuffer source = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBufferLines lines = ByteBufferLines.index(source);
+            if (lines != null) {
+                return new LineBuffer(lines);
+            }
+            /* Not ASCII, the file is read again and decoded */
+            channel.position(0);
+        }
+        return readLines(inputFile);
+    }
+
+    /**
+     * Reads the lines of the given content of an SJava file into a new LineBuffer, as readFile reads the
+     * lines of a file that is not mapped
+     * @param source the content of the SJava file
+     * @return LineBuffer holding all the lines of the content
+     */
+    public static LineBuffer readBytes(byte[] source) {
+        if (isAsciiCompatible(Charset.defaultCharset())) {
+            ByteBufferLines lines = ByteBufferLines.index(ByteBuffer.wrap(source));
+            if (lines != null) {
+                return new LineBuffer(lines);
+            }
+        }
+        /* Not ASCII, the content is decoded */
+        return readLines(new ByteArrayInputStream(source));
+    }
+
+    /**
+     * Checks if ASCII text is decoded by the given charset the same way it is decoded by ASCII itself
+     * @param charset charset the file is decoded by
+     * @return true if the charset is compatible with ASCII
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) ||
+                charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads all the lines of the given stream into a new LineBuffer
+     * @param inputStream stream of the SJava file
+     * @return LineBuffer holding all the lines of the stream
+     */
+    public static LineBuffer readLines(InputStream inputStream) {
+        List<String> lines = new ArrayList<>();
+        Scanner scanner = new Scanner(inputStream);
+        while (scanner.hasNextLine()) {
+            lines.add(scanner.nextLine());
+        }
+        scanner.close();
+        return new LineBuffer(lines);
+    }
+
+    /**
+     * @return true if there is another line to be read
+     * @throws UncheckedIOException if the lines are streamed and the source could not be read
+     */
+    public boolean hasNextLine() {
+        if (this.nextLineIndex < this.lines.size()) {
+            return true;
+        }
+        if (this.source == null) {
+            return false;
+        }
+        try {
+            String line = this.source.readLine();
+            if (line == null) {
+                return false;
+            }
+            this.lines.add(line);
+            return true;
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * @return true if the lines are streamed from a source, rather than all held
+     */
+    public boolean isStreamed() {
+        return this.source != null;
+    }
+
+    /**
+     * Drops the lines that were already read when the lines are streamed, so that they are no longer held.
+     * Does nothing if all the lines are held.
+     */
+    public void releaseReadLines() {
+        if (this.source == null || this.nextLineIndex == 0) {
+            return;
+        }
+        this.lines.subList(0, this.nextLineIndex).clear();
+        this.firstLineNumber += this.nextLineIndex;
+        this.nextLineIndex = 0;
+        this.released = true;
+    }
+
+    /**
+     * @return the next line of the buffer
+     * @throws NoSuchElementException if all the lines were already read
+     */
+    public CharSequence nextLine() {
+        if (!hasNextLine()) {
+            throw new NoSuchElementException(NO_LINE_FOUND_ERROR);
+        }
+        return this.lines.get(this.nextLineIndex++);
+    }
+
+    /**
+     * @return 1-based number of the last line that was read in the SJava file, the number of the line
+     * before the buffer if no line was read yet
+     */
+    public int getLineNumber() {
+        return this.firstLineNumber - 1 + this.nextLineIndex;
+    }
+
+    /**
+     * Creates a buffer over part of the lines, independent of the position of this buffer. The lines
+     * themselves are shared, not copied. When the lines are streamed, the part is copied out of the held
+     * lines, so that it is kept after they are released.
+     * @param firstLineNumber Line number of the first line of the part, in the SJava file
+     * @param lastLineNumber Line number of the last line of the part, in the SJava file
+     * @return LineBuffer holding the lines between the given line numbers, inclusive
+     */
+    public LineBuffer slice(int firstLineNumber, int lastLineNumber) {
+        List<CharSequence> part = this.lines.subList(firstLineNumber - this.firstLineNumber,
+                lastLineNumber - this.firstLineNumber + 1);
+        return new LineBuffer(this.source == null ? part : new ArrayList<>(part), firstLineNumber, null);
+    }
+
+    /**
+     * Moves back to the first line, so that the lines can be read again by another pass
+     * @throws IllegalStateException if lines were already released
+     */
+    public void rewind() {
+        if (this.released) {
+            throw new IllegalStateException(RELEASED_LINES_ERROR);
+        }
+        this.nextLineIndex = 0;
+    }
+}
@@ -0,0 +1,50 @@
+package main.scopeLogic;
+
+/**
+ * Represents a single compilation error found in an SJava file, along with the line it was found in
+ */
+public class LineError {
+    private static final String LINE_PREFIX = "line ";
+    private static final String LINE_SEPARATOR = ": ";
+
+    /**
+     * 1-based number of the line the error was found in
+     */
+    private final int lineNumber;
+    /**
+     * The exception the line is not compilable for
+     */
+    private final Exception error;
+
+    /**
+     * Constructor for the LineError class
+     * @param lineNumber 1-based number of the line the error was found in
+     * @param error The exception the line is not compilable for
+     */
+    public LineError(int lineNumber, Exception error) {
+        this.lineNumber = lineNumber;
+        this.error = error;
+    }
+
+    /**
+     * @return 1-based number of the line the error was found in
+     */
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    /**
+     * @return The exception the line is not compilable for
+     */
+    public Exception getError() {
+        return this.error;
+    }
+
+    /**
+     * @return the error along with its line, as "line N: error"
+     */
+    @Override
+    public String toString() {
+        return LINE_PREFIX + this.lineNumber + LINE_SEPARATOR + this.error;
+    }
+}
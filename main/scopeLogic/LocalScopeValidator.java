@@ -1,6 +1,10 @@
 package main.scopeLogic;
 
+import main.instrumentation.MethodVerificationEvent;
+import main.instrumentation.SlowLineEvent;
+import main.instrumentation.VerifierStatistics;
 import main.sJavaDataTypes.SJavaMethod;
+import main.sJavaDataTypes.SJavaType;
 import main.sJavaDataTypes.SJavaVariable;
 import main.validation.*;
 
@@ -10,143 +14,321 @@ import java.util.*;
  * Class responsible for validating the compilability of the Local Scopes of the provided SJava file
  */
 public class LocalScopeValidator {
+    // Errors
+    private static final String NO_LINE_FOUND_ERROR = "No line found";
+
+    /**
+     * Actions validating the lines of the Local Scope which are not empty nor comments, by the kind of
+     * line they validate
+     */
+    private static final LineActionRegistry LINE_ACTIONS = new LineActionRegistry();
+    /**
+     * Kinds of the lines which open a nested Local Scope
+     */
+    private static final int BLOCK_OPENING_LINES = LineLexer.CONDITION_LINE;
+
+    static {
+        LINE_ACTIONS.register(LineLexer.VARIABLE_DECLARATION_LINE,
+                (validator, operation) -> validator.variableDeclarationAction(operation));
+        LINE_ACTIONS.register(LineLexer.VARIABLE_ASSIGNMENT_LINE,
+                (validator, operation) -> validator.variableAssignmentAction(operation));
+        LINE_ACTIONS.register(LineLexer.CONDITION_LINE,
+                (validator, operation) -> validator.conditionsAction(operation));
+        LINE_ACTIONS.register(LineLexer.METHOD_CALL_LINE,
+                (validator, operation) -> validator.methodCallAction(operation));
+        LINE_ACTIONS.register(LineLexer.RETURN_LINE, (validator, operation) -> true);
+    }
+
     /**
-     * Variable table for the current local scope
+     * Parsed lines of the source, holding the lines of the current Local Scope
      */
-    private Vector<SJavaVariable> localSJavaVariableTable;
+    private final ParsedLines parsedLines;
     /**
-     * Scanner of the stream that provides the lines of text of the current Local Scope
+     * Line number of the last line of the Local Scope which was read, and of the last line of the method
      */
-    private final Scanner scopeScanner;
+    private int lineNumber;
+    private int lastLineNumber;
     /**
      * Composition of MemoryCollector, for keeping the various data points associated with the Local
      * Scopes validation process
      */
     private final MemoryCollector memoryCollector;
-    // todo??
-    private boolean methodParamsAccepted = false;
     /**
-     * For internal use. Represents all the variables that have been assigned a value in the Local Scope
+     * Collects the errors of the lines so that the validation goes on past them, null if the validation
+     * stops at the first error
      */
-    private final ArrayList<SJavaVariable> changedVariablesInScope = new ArrayList<>();
+    private final ErrorCollector errorCollector;
 
     /**
      * Constructor for the LocalScopeValidator class
      * @param memoryCollector for saving the data with the associated Local Scope validation process
-     * @param scopeScanner Scanner of the stream that provides the lines of text of the current Local Scope
+     * @param parsedLines Parsed lines of the source, holding the lines of the methods to validate
+     */
+    public LocalScopeValidator(MemoryCollector memoryCollector, ParsedLines parsedLines) {
+        this(memoryCollector, parsedLines, null);
+    }
+
+    /**
+     * Constructor for a LocalScopeValidator collecting the errors of the lines instead of stopping at the
+     * first of them
+     * @param memoryCollector for saving the data with the associated Local Scope validation process
+     * @param parsedLines Parsed lines of the source, holding the lines of the methods to validate
+     * @param errorCollector Collects the errors of the lines, null to stop at the first error
      */
-    public LocalScopeValidator(MemoryCollector memoryCollector, Scanner scopeScanner) {
-        this.scopeScanner = scopeScanner;
+    public LocalScopeValidator(MemoryCollector memoryCollector, ParsedLines parsedLines,
+                               ErrorCollector errorCollector) {
+        this.parsedLines = parsedLines;
 
         this.memoryCollector = memoryCollector;
+        this.errorCollector = errorCollector;
     }
 
     /**
      * Fills the Method parameters into the local table of Variables(since the Method's parameters are
-     * part of the local variables)
-     * @param curLine Method definition line
-     * @throws SyntaxException Thrown if the given parameters of the method are syntactically invalid
+     * part of the local variables). The parameters were parsed by the Global Scope validation, and are
+     * copied rather than parsed again from the definition line, so that the method in the global table
+     * is not changed by the validation of its body
+     * @param sJavaMethod Method whose Local Scope is validated
      */
-    private boolean fillMethodParams(String curLine) throws SyntaxException{
-        /* Indicates that the current local scope is supposed to be a method and thus should be checked
-         * at the beginning for having a valid method declaration */
-        MethodDefinitionValidator methodDefinitionValidator = new MethodDefinitionValidator();
-        if(methodDefinitionValidator.validate(curLine)) {
-            /* Adding the Method params to the local table of variables */
-            if (!methodParamsAccepted){
-                Vector<SJavaVariable> methodParams = methodDefinitionValidator.getMethodData().getParams();
-                if (methodParams != null){
-                    for(SJavaVariable param : methodParams) {
-                        param.setHasValue(true);
-                    }
-                    this.localSJavaVariableTable.addAll(methodParams);
-                    methodParamsAccepted = true;
-                }
+    private void fillMethodParams(SJavaMethod sJavaMethod) {
+        Vector<SJavaVariable> methodParams = sJavaMethod.getParams();
+        if (methodParams != null){
+            for(SJavaVariable param : methodParams) {
+                this.memoryCollector.addLocalVariable(
+                        new SJavaVariable(param.getName(), param.getType(), param.isFinal(), true));
             }
-            return true;
         }
-
-        return false;
     }
 
     /**
-     * Fills the Local Scope variable table and validates the compilability of the current Local Scope
-     * @param curLine Beginning line of the current Local Scope
-     * @param isNonMethodLocalScope false if the local scope is of a method, true otherwise
+     * Fills the Local Scope variable table and validates the compilability of the Local Scope of a method,
+     * along with the Local Scopes nested in it. The nested Local Scopes are validated by the same loop
+     * rather than by a recursion, keeping the start of each of them on an explicit stack, so that any
+     * depth of nesting is validated in constant stack space.
+     * @param sJavaMethod Method found by the Global Scope validation, whose lines are held by the parsed
+     *                    lines
      */
-    public void fillLocalTablesAndValidate(String curLine, boolean isNonMethodLocalScope)
+    public void fillLocalTablesAndValidate(SJavaMethod sJavaMethod)
             throws VariableAssignmentException, VariableDeclarationException, ReturnException,
             MethodDefinitionException, ConditionalException, SyntaxException {
-        EndOfBlockValidator endOfBlockValidator = new EndOfBlockValidator();
-        ReturnValidator returnValidator = new ReturnValidator();
-        EmptyLineValidator emptyLineValidator = new EmptyLineValidator();
-        CommentValidator commentValidator = new CommentValidator();
-        boolean returnStatement = isNonMethodLocalScope;
-
-        this.localSJavaVariableTable = new Vector<>();
+        /* The time of the validation is only measured while the statistics are recorded */
+        if (!VerifierStatistics.isRecordingOn()) {
+            validateMethodScope(sJavaMethod);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            validateMethodScope(sJavaMethod);
+        }
+        finally {
+            VerifierStatistics.recordLocalPass(System.nanoTime() - start);
+        }
+    }
 
-        /* Adding the localVariableTable to the memoryCollector LinkedList of Scope Tables */
-        this.memoryCollector.getLocalVariableTables().add(this.localSJavaVariableTable);
+    /**
+     * Validates the Local Scope of a method, as described by fillLocalTablesAndValidate
+     * @param sJavaMethod Method whose lines are held by the parsed lines
+     */
+    private void validateMethodScope(SJavaMethod sJavaMethod)
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        /* Opening the local scope's variable table in the memoryCollector scopes */
+        this.memoryCollector.openLocalScope();
+
+        /* The definition line was already parsed into the method by the Global Scope validation */
+        this.lineNumber = sJavaMethod.getFirstLine();
+        this.lastLineNumber = sJavaMethod.getLastLine();
+        fillMethodParams(sJavaMethod);
+
+        /* The validation of the method's body is a Flight Recorder event, if it is recorded */
+        MethodVerificationEvent methodEvent = new MethodVerificationEvent();
+        methodEvent.begin();
+        int firstLine = this.lineNumber;
+        String error = null;
+        try {
+            validateScopeLines();
+            validateLeftoverLines();
+        }
+        catch (VariableAssignmentException | VariableDeclarationException | ReturnException |
+                MethodDefinitionException | ConditionalException | SyntaxException e) {
+            error = e.getMessage();
+            throw e;
+        }
+        finally {
+            methodEvent.commit(sJavaMethod.getName(), firstLine, this.lineNumber, error);
+        }
+    }
 
-        if(!isNonMethodLocalScope) {
-            if(!fillMethodParams(curLine)) {
-                return;
+    /**
+     * Validates the lines left after the end-of-block line of the method, up to the last line the Global
+     * Scope validation found for it. The Global Scope validation counts the brackets of the lines rather
+     * than their blocks, so that a bracket which opens no block (such as one in a String) makes it take
+     * the lines following the method as its lines. These lines are validated as the lines outside of the
+     * methods are by the Local Scope validation: only the Local Scopes of the method definitions among
+     * them are validated, and the other lines are skipped.
+     */
+    private void validateLeftoverLines()
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        while (hasNextLine()) {
+            int curLine = nextLine();
+            int operation = LineLexer.couldBe(this.parsedLines.getLineKinds(curLine),
+                    LineLexer.METHOD_DEFINITION_LINE) ?
+                    this.parsedLines.findOperation(curLine, LineLexer.METHOD_DEFINITION_LINE) : -1;
+            if (operation >= 0) {
+                this.memoryCollector.openLocalScope();
+                fillMethodParams(this.parsedLines.getDefinedMethod(operation));
+                validateScopeLines();
             }
         }
+    }
 
-        curLine = scopeScanner.nextLine();
-
-        while(!(endOfBlockValidator.validate(curLine))) {
-            /* Line is empty or a comment, so nothing needs to happen */
-            if (!emptyLineValidator.validate(curLine) && !commentValidator.validate(curLine)) {
-                returnStatement = isNonMethodLocalScope;
-
-                /* Local SjavacVariable, adds it to the Local SjavacVariable Table */
-                boolean varDecBool= variableDeclarationAction(curLine);
-
-                /* Local SjavacVariable assignment */
-                boolean varAssignBool = variableAssignmentAction(curLine);
-
-                /* Checks a condition and it's scopes */
-                boolean conditionsBool = conditionsAction(curLine);
+    /**
+     * @return Line number of the last line of the method which was read by the validation
+     */
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
 
-                /* Checks a method call */
-                boolean methodCallBool = methodCallAction(curLine);
+    /**
+     * @return true if there is another line of the method to be read
+     */
+    private boolean hasNextLine() {
+        return this.lineNumber < this.lastLineNumber;
+    }
 
-                /* If there is a valid return statement, it indicates it for the next line with
-                * the returnStatement */
-                boolean returnBool = returnValidator.validate(curLine);
-                if (returnBool) {
-                    returnStatement = true;
-                    // If curLine is a return, it is valid and you can continue
+    /**
+     * @return Line number of the next line of the method
+     * @throws NoSuchElementException if all the lines of the method were already read
+     */
+    private int nextLine() {
+        if (!hasNextLine()) {
+            throw new NoSuchElementException(NO_LINE_FOUND_ERROR);
+        }
+        return ++this.lineNumber;
+    }
 
-                    // Can there be return, then empty/comment Line, then }??
+    /**
+     * Validates the lines of a Local Scope, following its beginning line, up to and including its
+     * end-of-block line
+     */
+    private void validateScopeLines()
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        boolean returnStatement = false;
+        /* Number of the nested Local Scopes which are open, the innermost of them being the one the
+         * current line is in */
+        int nestingDepth = 0;
+        int curLine = nextLine();
+        int lineKinds = this.parsedLines.getLineKinds(curLine);
+
+        while(true) {
+            if (LineLexer.couldBe(lineKinds, LineLexer.END_OF_BLOCK_LINE) && LineActionRegistry.recordRun(
+                    LineLexer.END_OF_BLOCK_LINE, this.parsedLines.isLineOf(curLine, LineLexer.END_OF_BLOCK_LINE))) {
+                if (nestingDepth == 0) {
+                    break;
+                }
+                /* The innermost nested Local Scope is over, going on with the one containing it */
+                nestingDepth--;
+                this.memoryCollector.closeLocalScope();
+            }
+            /* Line is empty or a comment, so nothing needs to happen */
+            else if (!(LineLexer.couldBe(lineKinds, LineLexer.EMPTY_LINE) && LineActionRegistry.recordRun(
+                    LineLexer.EMPTY_LINE, this.parsedLines.isLineOf(curLine, LineLexer.EMPTY_LINE))) &&
+                    !(LineLexer.couldBe(lineKinds, LineLexer.COMMENT_LINE) && LineActionRegistry.recordRun(
+                    LineLexer.COMMENT_LINE, this.parsedLines.isLineOf(curLine, LineLexer.COMMENT_LINE)))) {
+                try {
+                    int validKinds = validateLine(curLine, lineKinds);
+                    /* Only the lines of the current Local Scope itself may be its final return statement */
+                    if (nestingDepth == 0) {
+                        returnStatement = LineLexer.couldBe(validKinds, LineLexer.RETURN_LINE);
+                    }
+                    /* If curLine is a conditional, the Local Scope it opens is validated next */
+                    if (LineLexer.couldBe(validKinds, BLOCK_OPENING_LINES)) {
+                        this.memoryCollector.openLocalScope();
+                        nestingDepth++;
+                    }
                 }
-                if(!(varDecBool || varAssignBool || conditionsBool || methodCallBool || returnBool)) {
-                    /* If curLine is none of these types, it is an invalid line and there needs to be a
-                    * compilation error */
-                    throw new SyntaxException("Line in the Local scope was not one of the valid lines");
+                catch (VariableAssignmentException | VariableDeclarationException | ReturnException |
+                        MethodDefinitionException | ConditionalException | SyntaxException |
+                        RuntimeException e) {
+                    /* A line the validators fail on is an error of its own */
+                    if (this.errorCollector == null) {
+                        throw e;
+                    }
+                    this.errorCollector.report(curLine, e);
+                    if (this.errorCollector.isFull()) {
+                        throw e;
+                    }
+                    /* The line is taken as a valid one, and the block it opens is not validated */
+                    if (nestingDepth == 0) {
+                        returnStatement = false;
+                    }
+                    if (this.parsedLines.opensBlock(curLine)) {
+                        skipBlock();
+                    }
                 }
             }
 
-            curLine = this.scopeScanner.nextLine();
-        }
-
-        /* The variables that have been assigned a value and were unassigned before the scope must be
-         * redefined as unassigned when we finish running this local scope */
-        for (SJavaVariable sv : this.changedVariablesInScope) {
-            sv.setHasValue(false);
+            curLine = nextLine();
+            lineKinds = this.parsedLines.getLineKinds(curLine);
         }
 
-        /* Removing the localVariableTable from the possible scopes and returning whether the scope is
+        /* Closing the local scope's variable table and returning whether the scope is
         * compilable in terms of the final return statement. */
-        this.memoryCollector.getLocalVariableTables().remove(this.localSJavaVariableTable);
+        this.memoryCollector.closeLocalScope();
 
         /* Checks if return statement is right before the end of the scope */
-        if(!returnStatement && !isNonMethodLocalScope) {
+        if(!returnStatement) {
             throw new ReturnException("Lack of return statement before the final end line of the method");
         }
-        methodParamsAccepted = false;
+    }
+
+    /**
+     * Validates a single line of the current Local Scope, which is not empty nor a comment. The Local Scope
+     * opened by a conditional is not validated here, but by the lines following it
+     * @param curLine Line number of the line to validate
+     * @param lineKinds kinds the line could be, as classified by the lexer
+     * @return flags of the kinds the line was found to be, such as a return statement or a conditional
+     */
+    private int validateLine(int curLine, int lineKinds)
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        /* A line whose validation is slow is a Flight Recorder event, if it is recorded */
+        SlowLineEvent lineEvent = SlowLineEvent.beginIfEnabled();
+        try {
+            /* Only the actions of the kinds the line could be are run on it, on the operations it was
+             * parsed into */
+            int validKinds = LineLexer.couldBe(lineKinds, LINE_ACTIONS.getRegisteredKinds()) ?
+                    LINE_ACTIONS.validate(this, this.parsedLines, curLine, lineKinds) : 0;
+            if(validKinds == 0) {
+                /* If curLine is none of the registered kinds, it is an invalid line and there needs to be a
+                * compilation error */
+                throw new SyntaxException("Line in the Local scope was not one of the valid lines");
+            }
+            return validKinds;
+        }
+        finally {
+            if (lineEvent != null) {
+                lineEvent.commit(curLine);
+            }
+        }
+    }
+
+    /**
+     * Skips the lines of a block whose opening line was found to not be compilable, up to and including
+     * its end-of-block line, so that the validation goes on after the block
+     */
+    private void skipBlock() {
+        int numOfOpenScopes = 1;
+        while (numOfOpenScopes > 0 && hasNextLine()) {
+            int curLine = nextLine();
+            if (this.parsedLines.isLineOf(curLine, LineLexer.END_OF_BLOCK_LINE)) {
+                numOfOpenScopes--;
+            } else if (this.parsedLines.opensBlock(curLine)) {
+                numOfOpenScopes++;
+            }
+        }
     }
 
     /**
@@ -167,7 +349,7 @@ public class LocalScopeValidator {
             }
         }
         /* If the right-side's variable is not assigned a value */
-        if(!curAssignVar.hasValue()) {
+        if(!memoryCollector.hasValue(curAssignVar)) {
             throw new VariableAssignmentException("Assignment variable was not assigned a value");
         }
         /* If the right-side's variable type does not match the variable left-sides type  */
@@ -179,69 +361,66 @@ public class LocalScopeValidator {
     /**
      * Checks if the value that was given is fit to be assigned to the Variable
      * @param sv Variable to be assigned to
-     * @param curAssignValue Value to be assigned to the variable
+     * @param curAssignValue Code of the value to be assigned to the variable, as parsed
      * @throws VariableAssignmentException The left/right variable and value do not exist or do not match
      */
-    private void assignableValueCheck(SJavaVariable sv, String curAssignValue)
+    private void assignableValueCheck(SJavaVariable sv, int curAssignValue)
             throws VariableAssignmentException{
         /* If the right var is a var name or a data type */
-        String curAssignmentVarType = SJavaVariable.getMatchingType(curAssignValue);
+        SJavaType curAssignmentVarType = ParsedLines.getValueType(curAssignValue);
         if(curAssignmentVarType == null) {
             throw new VariableAssignmentException("Assignment value in the declaration is not of a valid type");
         }
 
         /* If the right-side is not a variable */
-        if (!curAssignmentVarType.equals("var")) {
+        if (curAssignmentVarType != SJavaType.VAR) {
             /* If the right-side's data type does not match the left-sides variable type */
             if(!SJavaVariable.couldAssignValue(sv.getType(), curAssignmentVarType)) {
                 throw new VariableAssignmentException("Tried to assign an incompatible data type");
             }
         }
         else {
-            assignableVariableCheck(sv, curAssignValue);
+            assignableVariableCheck(sv, this.parsedLines.getName(curAssignValue));
         }
     }
 
     /**
      * Checks the line for being a variable declaration, and if it is, it will check it for being legally
      * compilable and save the variable's related data.
-     * @param curLine to check for a variable declaration
+     * @param operation index of the declaration operation the line was parsed into, -1 if none
      * @return true if the line is a compilable variable declaration,
      * false if it is not a variable declaration
      * @throws VariableDeclarationException Line is a syntactically valid variable declaration but
      *                                                                     is not compilable for other reasons
      */
-    private boolean variableDeclarationAction(String curLine)
-            throws SyntaxException, VariableDeclarationException, VariableAssignmentException {
-        VariableDeclarationValidator variableDeclarationValidator = new VariableDeclarationValidator();
-
+    private boolean variableDeclarationAction(int operation)
+            throws VariableDeclarationException, VariableAssignmentException {
         /* Checks if the current line is a variable declaration */
-        if(variableDeclarationValidator.validate(curLine)) {
-
-            HashMap<SJavaVariable, String> sJavaVariablesDecPairs =
-                    variableDeclarationValidator.getVars(curLine);
+        if(operation >= 0) {
+            SJavaType type = this.parsedLines.getDeclaredType(operation);
+            boolean isFinal = this.parsedLines.isFinalDeclaration(operation);
 
-            for(SJavaVariable sv : sJavaVariablesDecPairs.keySet()) {
+            for(int i = 0; i < this.parsedLines.getEntryCount(operation); i++) {
+                SJavaVariable sv = new SJavaVariable(
+                        this.parsedLines.getName(this.parsedLines.getEntryName(operation, i)), type, isFinal);
                 /* Checks if there are two Variables of the same name */
                 if(this.memoryCollector.checkVariableNameByCurLocalTable(sv.getName()) == null) {
-                    this.localSJavaVariableTable.add(sv);
+                    SJavaVariable localVariable = this.memoryCollector.addLocalVariable(sv);
 
-                    String curAssignValue = sJavaVariablesDecPairs.get(sv);
+                    int curAssignValue = this.parsedLines.getEntryValue(operation, i);
                     /* Checks if the right-hand side data type is present */
-                    if(curAssignValue != null) {
-                        assignableValueCheck(sv, curAssignValue);
+                    if(curAssignValue != ParsedLines.NO_VALUE) {
+                        assignableValueCheck(localVariable, curAssignValue);
 
-                        sv.setHasValue(true);
-                        this.localSJavaVariableTable.add(sv);
+                        /* The declared value is an assignment in the current Local Scope, which the
+                         * variable does not outlive */
+                        this.memoryCollector.setAssigned(localVariable);
                     }
                     /* In the case that the right-hand side is null */
                     else {
                         if (sv.isFinal()){
                             throw new VariableDeclarationException("Attempted to declare an empty final variable");
                         }
-
-                        sv.setHasValue(false);
-                        this.localSJavaVariableTable.add(sv);
                     }
 
                 }
@@ -257,22 +436,20 @@ public class LocalScopeValidator {
     /**
      * Checks the line for being a variable assignment, and if it is, it will check it for being legally
      * compilable and save the variable's related data.
-     * @param curLine to check for a variable assignment
+     * @param operation index of the assignment operation the line was parsed into, -1 if none
      * @return true if the line is a compilable variable assignment,
      * false if it is not a variable assignment
      * @throws VariableAssignmentException Line is a syntactically valid variable assignment but
      *                                                                     is not compilable for other reasons
      */
-    private boolean variableAssignmentAction(String curLine) throws VariableAssignmentException {
-        VariableAssignmentValidator variableAssignmentValidator = new VariableAssignmentValidator();
-
-        if (variableAssignmentValidator.validate(curLine)) {
-            Vector<String[]> curVariableNames = variableAssignmentValidator.getVariableAssignment(curLine);
-            for (String[] curNamePair : curVariableNames) {
-                SJavaVariable sv = memoryCollector.checkVariableNameByVariableTables(curNamePair[0]);
+    private boolean variableAssignmentAction(int operation) throws VariableAssignmentException {
+        if (operation >= 0) {
+            for (int i = 0; i < this.parsedLines.getEntryCount(operation); i++) {
+                String curName = this.parsedLines.getName(this.parsedLines.getEntryName(operation, i));
+                SJavaVariable sv = memoryCollector.checkVariableNameByVariableTables(curName);
                 // If the left var does not exist in the tables
                 if (sv == null) {
-                    sv = memoryCollector.checkVariableNameByGlobalVariableTable(curNamePair[0]);
+                    sv = memoryCollector.checkVariableNameByGlobalVariableTable(curName);
                     if (sv == null) {
                         throw new VariableAssignmentException("Tried to assign to an undeclared variable");
                     }
@@ -282,14 +459,12 @@ public class LocalScopeValidator {
                     throw new VariableAssignmentException("Tried to assign a value to a final variable");
                 }
 
-                assignableValueCheck(sv, curNamePair[1]);
+                assignableValueCheck(sv, this.parsedLines.getEntryValue(operation, i));
 
-                /* curVar is assigned a value and is added to the changedVariablesInScope ArrayList which
-                 * will indicate that at the end of the run on the scope, these variables need to be changed
-                 * from being defined as having a value */
-                if(!sv.hasValue()) {
-                    sv.setHasValue(true);
-                    changedVariablesInScope.add(sv);
+                /* curVar is marked as assigned a value in the current Local Scope, the mark being
+                 * cleared by the memoryCollector at the end of the run on the scope */
+                if(!memoryCollector.hasValue(sv)) {
+                    memoryCollector.setAssigned(sv);
                 }
             }
             return true;
@@ -299,24 +474,19 @@ public class LocalScopeValidator {
 
     /**
      * Checks the line for being a conditional, and if it is, it will check it for being legally
-     * compilable by checking the arguments of the conditional. A conditional opens it's own Local Scope and
-     * thus the validity of the conditional's compilability is also determined by the compilability of it's
-     * Local Scope.
-     * @param curLine to check for a conditional
+     * compilable by checking the arguments of the conditional. A conditional opens it's own Local Scope,
+     * which is validated by the loop of its containing Local Scope, on the lines following the conditional.
+     * @param operation index of the condition operation the line was parsed into, -1 if none
      * @return true if the line is a compilable conditional, false if it is not a conditional
-     * @throws ConditionalException Line is a syntactically valid conditional but it either provided an
-     * invalid type of variable or has an invalid inner Local Scope
+     * @throws ConditionalException Line is a syntactically valid conditional but it provided an
+     * invalid type of variable
      */
-    private boolean conditionsAction(String curLine)
-            throws SyntaxException, ConditionalException, VariableDeclarationException,
-            MethodDefinitionException, VariableAssignmentException, ReturnException {
-        ConditionsValidator conditionsValidator = new ConditionsValidator();
-
+    private boolean conditionsAction(int operation) throws ConditionalException {
         /* Checks if the current line is a conditional */
-        if (conditionsValidator.validate(curLine)) {
-            Vector<String> curConditionVars = conditionsValidator.inspectConditions(curLine);
+        if (operation >= 0) {
             /* Checks if the variables exist and are assigned a value */
-            for (String curVar : curConditionVars) {
+            for (int i = 0; i < this.parsedLines.getEntryCount(operation); i++) {
+                String curVar = this.parsedLines.getName(this.parsedLines.getEntryName(operation, i));
                 SJavaVariable sv = this.memoryCollector.checkVariableNameByVariableTables(curVar);
                 /* If there is no variable of this name */
                 if(sv == null) {
@@ -326,22 +496,16 @@ public class LocalScopeValidator {
                     }
                 }
                 /* If the variable has no value*/
-                if(!sv.hasValue()) {
+                if(!this.memoryCollector.hasValue(sv)) {
                     throw new ConditionalException("Tried to refer to an unassigned variable as a condition");
                 }
                 /* If the type is not a boolean, double or int, it is not valid */
-                if(!(sv.getType().equals("boolean") || sv.getType().equals("int") ||
-                        sv.getType().equals("double"))) {
+                if(!sv.getType().isConditionType()) {
                     throw new ConditionalException("Valid conditions are of the boolean, int and double data types");
                 }
             }
 
-            /* If curLine is a condition, make a new ConditionalScopeValidator and validate(recursion) */
-            LocalScopeValidator localScopeValidator =
-                    new LocalScopeValidator(memoryCollector, scopeScanner);
-
-            localScopeValidator.fillLocalTablesAndValidate(curLine, true);
-
+            /* The Local Scope the conditional opens is validated by the caller, on the following lines */
             return true;
         }
         return false;
@@ -350,22 +514,19 @@ public class LocalScopeValidator {
     /**
      * Checks the line for being a method call, and if it is, it will check it for being legally
      * compilable and save the method's related data.
-     * @param curLine to check for a method call
+     * @param operation index of the method call operation the line was parsed into, -1 if none
      * @return true if the current line is a valid method call, false if it not a method call
      * @throws MethodDefinitionException Line is a syntactically valid method call but it either provided an
      * invalid type of variable, the wrong number of variables, or the method in invalid in itself.
      */
-    private boolean methodCallAction(String curLine)
+    private boolean methodCallAction(int operation)
             throws MethodDefinitionException, VariableAssignmentException {
-        MethodCallValidator methodCallValidator = new MethodCallValidator();
-
         /* Checks if the current line is a method call */
-        if (methodCallValidator.validate(curLine)) {
-            List<String> curMethodCallParams =  methodCallValidator.getMethodParams();
+        if (operation >= 0) {
 
             /* Checks if the method exists */
-            String methodName = curMethodCallParams.get(0);
-            curMethodCallParams.remove(0);
+            String methodName = this.parsedLines.getName(this.parsedLines.getCalledMethod(operation));
+            int numOfCallParams = this.parsedLines.getEntryCount(operation);
 
             SJavaMethod curMethod = this.memoryCollector.getMethodFromName(methodName);
             if(curMethod == null) {
@@ -375,19 +536,19 @@ public class LocalScopeValidator {
             /* Checks if the number of parameters is the same for the method definition and the call */
             Vector<SJavaVariable> curMethodParams = curMethod.getParams();
             if (curMethodParams == null){
-                if (curMethodCallParams.size() > 0){
+                if (numOfCallParams > 0){
                     throw new MethodDefinitionException("Invalid number of parameters in the method call");
                 }
             } else {
-                if(curMethod.getParams().size() != curMethodCallParams.size()) {
+                if(curMethod.getParams().size() != numOfCallParams) {
                     throw new MethodDefinitionException("Invalid number of parameters in the method call");
                 }
             }
 
             /* Going over each parameter in the method call and checking the type versus the method's
             * param type at that position */
-            for (int i = 0; i < curMethodCallParams.size(); i++) {
-                assignableValueCheck(curMethodParams.get((i)), curMethodCallParams.get(i));
+            for (int i = 0; i < numOfCallParams; i++) {
+                assignableValueCheck(curMethodParams.get((i)), this.parsedLines.getEntryValue(operation, i));
             }
         return true;
         }
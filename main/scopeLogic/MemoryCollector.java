@@ -1,5 +1,6 @@
 package main.scopeLogic;
 
+import main.instrumentation.VerifierStatistics;
 import main.sJavaDataTypes.SJavaMethod;
 import main.sJavaDataTypes.SJavaVariable;
 
@@ -10,26 +11,66 @@ import java.util.*;
  * various possible compilation problems.
  */
 public class MemoryCollector {
+    // Symbol table names, as reported by the verification statistics
+    private static final String METHODS_TABLE = "methods";
+    private static final String GLOBAL_VARIABLES_TABLE = "globalVariables";
+    private static final String LOCAL_VARIABLES_TABLE = "localVariables";
+    private static final String CURRENT_LOCAL_SCOPE_TABLE = "currentLocalScope";
+
+    /**
+     * Global scope Variable table, by variable name
+     */
+    private final HashMap<String, SJavaVariable> globalVariableTable;
+    /**
+     * Global scope Method table, by method name and in order of declaration
+     */
+    private final LinkedHashMap<String, SJavaMethod> globalMethodsTable;
     /**
-     * Global scope Variable table
+     * Local scope Variable table that represents the various local scopes-within-scopes
      */
-    private final Vector<SJavaVariable> globalVariableTable;
+    private final ScopedVariableTable variableTables;
     /**
-     * Global scope Method table
+     * Slots of the variables that were assigned a value by the local scopes being validated, on top of
+     * the values they were declared with. Kept here rather than on the variables themselves, so that the
+     * global variables are not changed by the local scopes
      */
-    private final Vector<SJavaMethod> globalMethodsTable;
+    private final DefiniteAssignments assignments;
     /**
-     * Local scope Variable table linked list that represents the various local scopes-within-scopes
+     * Names of the methods and of the global variables looked up through this collector, null unless
+     * they are being recorded
      */
-    private final LinkedList<Vector<SJavaVariable>> variableTables;
+    private HashSet<String> lookedUpMethods;
+    private HashSet<String> lookedUpGlobalVariables;
 
     /**
      * Constructor for the MemoryCollector class
      */
     public MemoryCollector() {
-        this.globalVariableTable = new Vector<>();
-        this.globalMethodsTable = new Vector<>();
-        this.variableTables = new LinkedList<>();
+        this(new HashMap<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Constructor for a MemoryCollector sharing the given global tables, with its own local scopes
+     * @param globalVariableTable Global scope Variable table
+     * @param globalMethodsTable Global scope Method table
+     */
+    private MemoryCollector(HashMap<String, SJavaVariable> globalVariableTable,
+                            LinkedHashMap<String, SJavaMethod> globalMethodsTable) {
+        this.globalVariableTable = globalVariableTable;
+        this.globalMethodsTable = globalMethodsTable;
+        this.variableTables = new ScopedVariableTable();
+        /* The local variables are given the slots following those of the global variables */
+        this.assignments = new DefiniteAssignments(globalVariableTable.size());
+    }
+
+    /**
+     * Creates a MemoryCollector for validating local scopes independently of this one. The global tables
+     * are shared, and must no longer change, while the local scopes and the values assigned in them are
+     * kept separately.
+     * @return MemoryCollector with the same global tables and no local scopes
+     */
+    public MemoryCollector createLocalScopeCollector() {
+        return new MemoryCollector(this.globalVariableTable, this.globalMethodsTable);
     }
 
     /**
@@ -37,20 +78,82 @@ public class MemoryCollector {
      * @param sJavaMethod to add
      */
     public void addMethod(SJavaMethod sJavaMethod) {
-        this.globalMethodsTable.add(sJavaMethod);
+        this.globalMethodsTable.putIfAbsent(sJavaMethod.getName(), sJavaMethod);
     }
     /**
-     * Adds a variable to the global scope variable table
+     * Adds a variable to the global scope variable table, in the slot following those of the variables
+     * already in it
      * @param sJavaVariable to add
      */
     public void addGlobalVariable(SJavaVariable sJavaVariable) {
-        this.globalVariableTable.add(sJavaVariable);
+        if (!this.globalVariableTable.containsKey(sJavaVariable.getName())) {
+            this.globalVariableTable.put(sJavaVariable.getName(),
+                    sJavaVariable.inSlot(this.globalVariableTable.size()));
+        }
+    }
+    /**
+     * Replaces a variable of the global scope variable table by the same variable having a value, as it
+     * was assigned one in the global scope
+     * @param sJavaVariable of the global scope variable table
+     */
+    public void assignGlobalVariable(SJavaVariable sJavaVariable) {
+        this.globalVariableTable.replace(sJavaVariable.getName(), sJavaVariable.withValue());
+    }
+    /**
+     * Opens a new local scope, nested in the currently open local scopes
+     */
+    public void openLocalScope() {
+        this.variableTables.openScope();
+        this.assignments.openScope();
+    }
+    /**
+     * Closes the innermost local scope, its variables are no longer accessible and the values assigned in
+     * it are forgotten
+     */
+    public void closeLocalScope() {
+        this.variableTables.closeScope();
+        this.assignments.closeScope();
+    }
+    /**
+     * Adds a variable to the innermost local scope variable table, in a slot of its own. If the scope
+     * already has a variable by that name, the first one is kept.
+     * @param sJavaVariable to add
+     * @return the variable of the table by that name, which is the one to look up and to assign
+     */
+    public SJavaVariable addLocalVariable(SJavaVariable sJavaVariable) {
+        SJavaVariable localVariable = this.variableTables.getVariableInCurrentScope(sJavaVariable.getName());
+        if (localVariable == null) {
+            localVariable = sJavaVariable.inSlot(this.assignments.newSlot());
+            this.variableTables.addVariable(localVariable);
+        }
+        return localVariable;
+    }
+
+    /**
+     * Checks if the variable has a value, either from its declaration or from an assignment in the
+     * local scopes
+     * @param sJavaVariable to check
+     * @return true if the variable has a value, false otherwise
+     */
+    public boolean hasValue(SJavaVariable sJavaVariable) {
+        return sJavaVariable.hasValue() || (sJavaVariable.getSlot() != SJavaVariable.NO_SLOT &&
+                this.assignments.isAssigned(sJavaVariable.getSlot()));
+    }
+    /**
+     * Marks the variable as assigned a value in the innermost local scope, until the scope is closed
+     * @param sJavaVariable of the global or of the local variable tables, that was assigned
+     */
+    public void setAssigned(SJavaVariable sJavaVariable) {
+        if (sJavaVariable.getSlot() != SJavaVariable.NO_SLOT) {
+            this.assignments.assign(sJavaVariable.getSlot());
+        }
     }
+
     /**
-     * @return the local variable table linked list
+     * @return the methods of the global scope method table, in order of declaration
      */
-    public LinkedList<Vector<SJavaVariable>> getLocalVariableTables() {
-        return this.variableTables;
+    public Collection<SJavaMethod> getMethods() {
+        return Collections.unmodifiableCollection(this.globalMethodsTable.values());
     }
 
     /**
@@ -59,12 +162,40 @@ public class MemoryCollector {
      * @return SJavaMethod by that name, null if it does not exist in the global method table
      */
     public SJavaMethod getMethodFromName(String methodName) {
-        for (SJavaMethod sv : this.globalMethodsTable) {
-            if(sv.getName().equals(methodName)) {
-                return sv;
-            }
+        if (this.lookedUpMethods != null) {
+            this.lookedUpMethods.add(methodName);
         }
-        return null;
+        return recordLookup(METHODS_TABLE, this.globalMethodsTable.get(methodName));
+    }
+
+    /**
+     * Starts recording the names of the methods and of the global variables looked up through this
+     * collector, including the names of those which do not exist
+     */
+    public void recordLookups() {
+        this.lookedUpMethods = new HashSet<>();
+        this.lookedUpGlobalVariables = new HashSet<>();
+    }
+
+    /**
+     * @return the names of the methods looked up since the recording started, null if it did not
+     */
+    public Set<String> getLookedUpMethods() {
+        return this.lookedUpMethods;
+    }
+
+    /**
+     * @return the names of the global variables looked up since the recording started, null if it did not
+     */
+    public Set<String> getLookedUpGlobalVariables() {
+        return this.lookedUpGlobalVariables;
+    }
+
+    /**
+     * @return the variables of the global scope variable table
+     */
+    public Collection<SJavaVariable> getGlobalVariables() {
+        return Collections.unmodifiableCollection(this.globalVariableTable.values());
     }
 
     /**
@@ -73,33 +204,21 @@ public class MemoryCollector {
      * @return SJavaVariable by that name, null if it does not exist in the global variable table
      */
     public SJavaVariable checkVariableNameByGlobalVariableTable(String variableName) {
-        for(SJavaVariable sv : this.globalVariableTable) {
-            if(sv.getName().equals(variableName)) {
-                return sv;
-            }
+        if (this.lookedUpGlobalVariables != null) {
+            this.lookedUpGlobalVariables.add(variableName);
         }
-
-        return null;
+        return recordLookup(GLOBAL_VARIABLES_TABLE, this.globalVariableTable.get(variableName));
     }
 
     /**
-     * Checks for the variable in the local scopes linked list by the provided name, goes
-     * through the whole linked list in a backwards fashion for all scopes that contain the
-     * current local scope, and returns it if it exists
+     * Checks for the variable in the local scopes by the provided name, looking at the innermost
+     * scope that declares it out of all the scopes that contain the current local scope, and returns
+     * it if it exists
      * @param variableName the variable's name
-     * @return SJavaVariable by that name, null if it does not exist in the local variable tables linked list
-     * @link https://www.geeksforgeeks.org/iterate-a-linkedlist-in-reverse-order-in-java/
+     * @return SJavaVariable by that name, null if it does not exist in the local variable tables
      */
     public SJavaVariable checkVariableNameByVariableTables(String variableName) {
-        for (Iterator<Vector<SJavaVariable>> it = this.variableTables.descendingIterator(); it.hasNext(); ) {
-            Vector<SJavaVariable> svVector = it.next();
-            for(SJavaVariable sv : svVector) {
-                if(sv.getName().equals(variableName)) {
-                    return sv;
-                }
-            }
-        }
-        return null;
+        return recordLookup(LOCAL_VARIABLES_TABLE, this.variableTables.getVariable(variableName));
     }
 
     /**
@@ -108,12 +227,20 @@ public class MemoryCollector {
      * @return SJavaVariable by that name, null if it does not exist in the current local variable table
      */
     public SJavaVariable checkVariableNameByCurLocalTable(String variableName) {
-        for(SJavaVariable sv : this.variableTables.getLast()) {
-            if(sv.getName().equals(variableName)) {
-                return sv;
-            }
-        }
+        return recordLookup(CURRENT_LOCAL_SCOPE_TABLE,
+                this.variableTables.getVariableInCurrentScope(variableName));
+    }
 
-        return null;
+    /**
+     * Records a lookup of a symbol table in the verification statistics
+     * @param symbolTable name of the symbol table
+     * @param symbol symbol found by the lookup, null if it was not found
+     * @return the symbol found by the lookup
+     */
+    private static <T> T recordLookup(String symbolTable, T symbol) {
+        if (VerifierStatistics.isRecordingOn()) {
+            VerifierStatistics.recordLookup(symbolTable, symbol != null);
+        }
+        return symbol;
     }
 }
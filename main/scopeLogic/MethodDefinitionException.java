@@ -1,9 +1,11 @@
 package main.scopeLogic;
 
+import main.validation.CompilationException;
+
 /**
  * Exception thrown for invalid Method calls and declarations
  */
-public class MethodDefinitionException extends Exception {
+public class MethodDefinitionException extends CompilationException {
     MethodDefinitionException(String errorMessage) {
         super(errorMessage);
     }
@@ -0,0 +1,204 @@
+package main.scopeLogic;
+
+import main.sJavaDataTypes.SJavaMethod;
+import main.validation.ParsedLines;
+import main.validation.SyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Class responsible for validating the compilability of the Local Scopes of the provided SJava file
+ * method by method, with the methods validated in parallel or in order. Each method is validated on the
+ * lines found for it by the Global Scope validation, as that validation parsed them, with its own local
+ * scopes, so the lines outside of the methods are only read by the Global Scope validation.
+ */
+public class MethodScopesValidator {
+    /**
+     * MemoryCollector holding the complete global tables of the file
+     */
+    private final MemoryCollector memoryCollector;
+    /**
+     * Parsed lines of the provided SJava file
+     */
+    private final ParsedLines parsedLines;
+
+    /**
+     * Constructor for the MethodScopesValidator class
+     * @param memoryCollector MemoryCollector holding the complete global tables of the file
+     * @param parsedLines Parsed lines of the provided SJava file, as parsed by the Global Scope validation
+     */
+    public MethodScopesValidator(MemoryCollector memoryCollector, ParsedLines parsedLines) {
+        this.memoryCollector = memoryCollector;
+        this.parsedLines = parsedLines;
+    }
+
+    /**
+     * Validates the local scopes of all the methods in parallel. If several methods are not compilable,
+     * the error of the first of them in the file is thrown, as in a sequential validation.
+     */
+    public void validateInParallel()
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        List<ForkJoinTask<Exception>> tasks = new ArrayList<>();
+        for (SJavaMethod sJavaMethod : this.memoryCollector.getMethods()) {
+            Callable<Exception> task = () -> validateMethod(sJavaMethod);
+            tasks.add(ForkJoinTask.adapt(task));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        for (ForkJoinTask<Exception> task : tasks) {
+            Exception methodException = task.join();
+            if (methodException != null) {
+                rethrow(methodException);
+            }
+        }
+    }
+
+    /**
+     * Validates the local scopes of all the methods one by one, in the order of the file, stopping at the
+     * first method which is not compilable
+     */
+    public void validateInOrder()
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        for (SJavaMethod sJavaMethod : this.memoryCollector.getMethods()) {
+            Exception methodException = validateMethod(sJavaMethod);
+            if (methodException != null) {
+                rethrow(methodException);
+            }
+        }
+    }
+
+    /**
+     * Validates the local scopes of all the methods, collecting the errors of their lines rather than
+     * stopping at the first of them. The errors are collected in the order of the file, until the maximal
+     * number of errors is reached.
+     * @param errorCollector collector of the errors
+     * @param inParallel true to validate the methods in parallel, false to validate them one by one
+     */
+    public void collectErrors(ErrorCollector errorCollector, boolean inParallel) {
+        List<ForkJoinTask<ErrorCollector>> tasks = new ArrayList<>();
+        for (SJavaMethod sJavaMethod : this.memoryCollector.getMethods()) {
+            /* Each method has its own collector, so that the errors are added in the order of the file */
+            Callable<ErrorCollector> task = () -> {
+                ErrorCollector methodErrorCollector = new ErrorCollector(errorCollector.getRemainingErrors());
+                collectMethodErrors(sJavaMethod, this.parsedLines,
+                        this.memoryCollector.createLocalScopeCollector(), methodErrorCollector);
+                return methodErrorCollector;
+            };
+            tasks.add(ForkJoinTask.adapt(task));
+        }
+        if (inParallel) {
+            ForkJoinTask.invokeAll(tasks);
+        }
+
+        for (ForkJoinTask<ErrorCollector> task : tasks) {
+            if (errorCollector.isFull()) {
+                break;
+            }
+            errorCollector.addAll(inParallel ? task.join() : task.invoke());
+        }
+    }
+
+    /**
+     * Validates the local scope of a single method, on the given lines, collecting the errors of its lines.
+     * An error the validation of the method stopped for is collected at the last line that was read.
+     * @param sJavaMethod method to validate, as found by the Global Scope validation
+     * @param parsedLines parsed lines holding the lines of the method, from its definition to its closing
+     *                    bracket
+     * @param localScopeCollector collector of the method's local scopes, made by createLocalScopeCollector
+     *                            of the collector holding the global tables
+     * @param errorCollector collector of the errors of the lines
+     */
+    static void collectMethodErrors(SJavaMethod sJavaMethod, ParsedLines parsedLines,
+                                    MemoryCollector localScopeCollector, ErrorCollector errorCollector) {
+        LocalScopeValidator localScopeValidator =
+                new LocalScopeValidator(localScopeCollector, parsedLines, errorCollector);
+        Exception methodException = validateMethod(sJavaMethod, localScopeValidator);
+        if (methodException != null) {
+            errorCollector.report(localScopeValidator.getLineNumber(), methodException);
+        }
+    }
+
+    /**
+     * Validates the local scope of a single method, on its own slice of lines and local scopes
+     * @param sJavaMethod method to validate
+     * @return the exception the method is not compilable for, null if it is compilable
+     */
+    private Exception validateMethod(SJavaMethod sJavaMethod) {
+        return validateMethod(sJavaMethod, this.memoryCollector.createLocalScopeCollector());
+    }
+
+    /**
+     * Validates the local scope of a single method, on its own local scopes
+     * @param sJavaMethod method to validate
+     * @param localScopeCollector collector of the method's local scopes, made by createLocalScopeCollector
+     *                            of the collector holding the global tables
+     * @return the exception the method is not compilable for, null if it is compilable
+     */
+    public Exception validateMethod(SJavaMethod sJavaMethod, MemoryCollector localScopeCollector) {
+        return validateMethod(sJavaMethod, this.parsedLines, localScopeCollector);
+    }
+
+    /**
+     * Validates the local scope of a single method, on the given lines
+     * @param sJavaMethod method to validate, as found by the Global Scope validation
+     * @param parsedLines parsed lines holding the lines of the method, from its definition to its closing
+     *                    bracket
+     * @param localScopeCollector collector of the method's local scopes, made by createLocalScopeCollector
+     *                            of the collector holding the global tables
+     * @return the exception the method is not compilable for, null if it is compilable
+     */
+    static Exception validateMethod(SJavaMethod sJavaMethod, ParsedLines parsedLines,
+                                    MemoryCollector localScopeCollector) {
+        return validateMethod(sJavaMethod, new LocalScopeValidator(localScopeCollector, parsedLines));
+    }
+
+    /**
+     * Validates the local scope of a single method with the given validator
+     * @param sJavaMethod method to validate, as found by the Global Scope validation
+     * @param localScopeValidator validator of the method's local scopes
+     * @return the exception the validation of the method stopped for, null if it went over all the lines
+     */
+    private static Exception validateMethod(SJavaMethod sJavaMethod,
+                                            LocalScopeValidator localScopeValidator) {
+        try {
+            localScopeValidator.fillLocalTablesAndValidate(sJavaMethod);
+        }
+        catch (Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    /**
+     * Throws the exception a method was found to not be compilable for
+     * @param methodException exception to throw
+     */
+    static void rethrow(Exception methodException)
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        if (methodException instanceof VariableAssignmentException) {
+            throw (VariableAssignmentException) methodException;
+        }
+        if (methodException instanceof VariableDeclarationException) {
+            throw (VariableDeclarationException) methodException;
+        }
+        if (methodException instanceof ReturnException) {
+            throw (ReturnException) methodException;
+        }
+        if (methodException instanceof MethodDefinitionException) {
+            throw (MethodDefinitionException) methodException;
+        }
+        if (methodException instanceof ConditionalException) {
+            throw (ConditionalException) methodException;
+        }
+        if (methodException instanceof SyntaxException) {
+            throw (SyntaxException) methodException;
+        }
+        throw (RuntimeException) methodException;
+    }
+}
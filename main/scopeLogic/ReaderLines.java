@@ -0,0 +1,102 @@
+package main.scopeLogic;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the lines of an SJava source from a Reader one at a time, through a fixed buffer. The lines are
+ * split as Scanner.nextLine splits them, on "\r\n" and on each of "\n", "\r", "\u2028", "\u2029" and
+ * "\u0085".
+ */
+class ReaderLines {
+    private static final int BUFFER_SIZE = 8192;
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    /**
+     * Reader of the source
+     */
+    private final Reader reader;
+    /**
+     * Characters read from the reader and not yet returned, from the position to the limit
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    /**
+     * Did the last line end with "\r", so that a following "\n" belongs to the same line separator?
+     */
+    private boolean skipLineFeed;
+    /**
+     * Was the end of the reader reached?
+     */
+    private boolean ended;
+
+    /**
+     * Constructor for the ReaderLines class
+     * @param reader Reader of the source
+     */
+    ReaderLines(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next line of the source
+     * @return the next line, without its line separator, null if there are no more lines
+     * @throws IOException if the reader could not be read
+     */
+    String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            if (this.position == this.limit && !fillBuffer()) {
+                /* The last line only exists if it is not empty, as with Scanner */
+                return line.length() > 0 ? line.toString() : null;
+            }
+            if (this.skipLineFeed) {
+                this.skipLineFeed = false;
+                if (this.buffer[this.position] == LINE_FEED) {
+                    this.position++;
+                    continue;
+                }
+            }
+            int start = this.position;
+            while (this.position < this.limit && !isLineSeparator(this.buffer[this.position])) {
+                this.position++;
+            }
+            line.append(this.buffer, start, this.position - start);
+            if (this.position < this.limit) {
+                this.skipLineFeed = this.buffer[this.position] == CARRIAGE_RETURN;
+                this.position++;
+                return line.toString();
+            }
+        }
+    }
+
+    /**
+     * Reads more characters into the buffer
+     * @return true if characters were read, false if the end of the reader was reached
+     * @throws IOException if the reader could not be read
+     */
+    private boolean fillBuffer() throws IOException {
+        while (!this.ended) {
+            int count = this.reader.read(this.buffer);
+            if (count < 0) {
+                this.ended = true;
+            } else if (count > 0) {
+                this.position = 0;
+                this.limit = count;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character ends a line
+     */
+    static boolean isLineSeparator(char character) {
+        return character == LINE_FEED || character == CARRIAGE_RETURN || character == '\u2028' ||
+                character == '\u2029' || character == '\u0085';
+    }
+}
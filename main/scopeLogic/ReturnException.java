@@ -1,9 +1,11 @@
 package main.scopeLogic;
 
+import main.validation.CompilationException;
+
 /**
  * Exception thrown for invalid returns
  */
-public class ReturnException extends Exception{
+public class ReturnException extends CompilationException {
     ReturnException(String errorMessage) {
         super(errorMessage);
     }
@@ -0,0 +1,79 @@
+package main.scopeLogic;
+
+import main.sJavaDataTypes.SJavaVariable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Symbol table of the Local Scopes-within-scopes. Variables are indexed by their name, so that finding
+ * the innermost variable of a given name does not depend on the number of variables or of open scopes.
+ */
+class ScopedVariableTable {
+    /**
+     * Visible variables by their name, the variable of the innermost scope being first
+     */
+    private final HashMap<String, ArrayDeque<SJavaVariable>> variablesByName;
+    /**
+     * Variables declared in each of the open scopes, the innermost scope being first
+     */
+    private final ArrayDeque<HashMap<String, SJavaVariable>> scopes;
+
+    /**
+     * Constructor for the ScopedVariableTable class
+     */
+    ScopedVariableTable() {
+        this.variablesByName = new HashMap<>();
+        this.scopes = new ArrayDeque<>();
+    }
+
+    /**
+     * Opens a new innermost scope
+     */
+    void openScope() {
+        this.scopes.push(new HashMap<>());
+    }
+
+    /**
+     * Closes the innermost scope, so that the variables declared in it are no longer visible
+     */
+    void closeScope() {
+        for (String variableName : this.scopes.pop().keySet()) {
+            ArrayDeque<SJavaVariable> sameNameVariables = this.variablesByName.get(variableName);
+            sameNameVariables.pop();
+            if (sameNameVariables.isEmpty()) {
+                this.variablesByName.remove(variableName);
+            }
+        }
+    }
+
+    /**
+     * Adds a variable to the innermost scope. If the scope already has a variable by that name, the
+     * first one is kept.
+     * @param sJavaVariable to add
+     */
+    void addVariable(SJavaVariable sJavaVariable) {
+        String variableName = sJavaVariable.getName();
+        if (this.scopes.getFirst().putIfAbsent(variableName, sJavaVariable) == null) {
+            this.variablesByName.computeIfAbsent(variableName, name -> new ArrayDeque<>())
+                    .push(sJavaVariable);
+        }
+    }
+
+    /**
+     * @param variableName the variable's name
+     * @return the variable by that name in the innermost scope containing one, null if there is none
+     */
+    SJavaVariable getVariable(String variableName) {
+        ArrayDeque<SJavaVariable> sameNameVariables = this.variablesByName.get(variableName);
+        return sameNameVariables == null ? null : sameNameVariables.peek();
+    }
+
+    /**
+     * @param variableName the variable's name
+     * @return the variable by that name in the innermost scope, null if it was not declared there
+     */
+    SJavaVariable getVariableInCurrentScope(String variableName) {
+        return this.scopes.getFirst().get(variableName);
+    }
+}
@@ -0,0 +1,162 @@
+package main.scopeLogic;
+
+import main.sJavaDataTypes.SJavaMethod;
+import main.sJavaDataTypes.SJavaVariable;
+import main.validation.ParsedLines;
+import main.validation.SyntaxException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class responsible for validating an SJava source whose lines are streamed, in a single pass over them.
+ * Each method is validated as soon as the Global Scope validation read and parsed its lines, so that its
+ * lines need not be held until the end of the source. A method that looked up a global variable or a
+ * method which may still be declared or assigned later in the source keeps its parsed lines, and is
+ * validated again once the global tables are complete. The errors of the lines may be collected instead
+ * of stopping at the first of them, in which case every method is validated.
+ */
+public class StreamingScopesValidator implements GlobalScopeValidator.MethodReadListener {
+    /**
+     * MemoryCollector holding the global tables of the source, as they are filled
+     */
+    private final MemoryCollector memoryCollector;
+
+    /**
+     * Collects the errors of the lines so that the validation goes on past them, null if the validation
+     * stops at the first error
+     */
+    private final ErrorCollector errorCollector;
+    /**
+     * Parsed lines of the methods whose verdict depends on the rest of the source, by method in the order
+     * of the source. Only the parsed lines are kept, not the text of the lines
+     */
+    private final LinkedHashMap<SJavaMethod, ParsedLines> pendingMethods = new LinkedHashMap<>();
+    /**
+     * The exception of the first method found to not be compilable regardless of the rest of the source,
+     * null if there is no such method
+     */
+    private Exception finalMethodException;
+
+    /**
+     * Constructor for the StreamingScopesValidator class
+     * @param memoryCollector MemoryCollector to fill with the global tables of the source
+     */
+    public StreamingScopesValidator(MemoryCollector memoryCollector) {
+        this(memoryCollector, null);
+    }
+
+    /**
+     * Constructor for a StreamingScopesValidator collecting the errors of the lines instead of stopping at
+     * the first of them
+     * @param memoryCollector MemoryCollector to fill with the global tables of the source
+     * @param errorCollector Collects the errors of the lines, null to stop at the first error
+     */
+    public StreamingScopesValidator(MemoryCollector memoryCollector, ErrorCollector errorCollector) {
+        this.memoryCollector = memoryCollector;
+        this.errorCollector = errorCollector;
+    }
+
+    /**
+     * Validates the Global Scope and the Local Scopes of the streamed source. If several methods are not
+     * compilable, the error of the first of them in the source is thrown, as in a sequential validation.
+     * If the errors are collected, nothing is thrown for them.
+     * @param lineBuffer buffered lines of the source, streamed from it
+     */
+    public void validate(LineBuffer lineBuffer)
+            throws VariableAssignmentException, VariableDeclarationException, ReturnException,
+            MethodDefinitionException, ConditionalException, SyntaxException {
+        GlobalScopeValidator globalScopeValidator = new GlobalScopeValidator(this.memoryCollector);
+        globalScopeValidator.setMethodReadListener(this);
+        globalScopeValidator.setErrorCollector(this.errorCollector);
+        globalScopeValidator.fillGlobalTablesAndValidate(lineBuffer);
+
+        /* The global tables are complete, the pending methods all come before the final failure */
+        for (Map.Entry<SJavaMethod, ParsedLines> pendingMethod : this.pendingMethods.entrySet()) {
+            if (this.errorCollector != null && this.errorCollector.isFull()) {
+                return;
+            }
+            Exception methodException = validateMethod(pendingMethod.getKey(), pendingMethod.getValue(),
+                    this.memoryCollector.createLocalScopeCollector(), this.errorCollector);
+            if (methodException != null) {
+                MethodScopesValidator.rethrow(methodException);
+            }
+        }
+        if (this.finalMethodException != null) {
+            MethodScopesValidator.rethrow(this.finalMethodException);
+        }
+    }
+
+    /**
+     * Validates a method once its lines were read, keeping its lines if its verdict may still change
+     * @param sJavaMethod the method that was read
+     * @param parsedLines parsed lines of the source, still holding the lines of the method
+     */
+    @Override
+    public void methodRead(SJavaMethod sJavaMethod, ParsedLines parsedLines) {
+        if (this.finalMethodException != null ||
+                (this.errorCollector != null && this.errorCollector.isFull())) {
+            /* An earlier method already fails, or enough errors were found, so this one is not needed */
+            return;
+        }
+        MemoryCollector localScopeCollector = this.memoryCollector.createLocalScopeCollector();
+        localScopeCollector.recordLookups();
+        /* The errors of the method are only kept once its verdict is known to be final */
+        ErrorCollector methodErrorCollector = this.errorCollector == null ? null :
+                new ErrorCollector(this.errorCollector.getRemainingErrors());
+        Exception methodException = validateMethod(sJavaMethod, parsedLines, localScopeCollector,
+                methodErrorCollector);
+
+        if (!isFinal(localScopeCollector)) {
+            /* The parsed lines of the method are copied out of those of the source, which are released */
+            this.pendingMethods.put(sJavaMethod,
+                    parsedLines.copyLines(sJavaMethod.getFirstLine(), sJavaMethod.getLastLine()));
+        } else if (methodErrorCollector != null) {
+            this.errorCollector.addAll(methodErrorCollector);
+        } else if (methodException != null) {
+            this.finalMethodException = methodException;
+        }
+    }
+
+    /**
+     * Validates the local scope of a single method
+     * @param sJavaMethod method to validate, as found by the Global Scope validation
+     * @param parsedLines parsed lines holding the lines of the method
+     * @param localScopeCollector collector of the method's local scopes
+     * @param methodErrorCollector collector of the errors of the method's lines, null to stop at the first
+     * @return the exception the method is not compilable for, null if it is compilable or if the errors
+     * are collected
+     */
+    private static Exception validateMethod(SJavaMethod sJavaMethod, ParsedLines parsedLines,
+                                            MemoryCollector localScopeCollector,
+                                            ErrorCollector methodErrorCollector) {
+        if (methodErrorCollector == null) {
+            return MethodScopesValidator.validateMethod(sJavaMethod, parsedLines, localScopeCollector);
+        }
+        MethodScopesValidator.collectMethodErrors(sJavaMethod, parsedLines, localScopeCollector,
+                methodErrorCollector);
+        return null;
+    }
+
+    /**
+     * Checks if the verdict of a method can no longer change, which is the case if everything it looked
+     * up in the global tables exists, and each global variable it looked up already has a value. Variables
+     * and methods are never removed from the global tables nor lose their values.
+     * @param localScopeCollector collector the method was validated with, recording its lookups
+     * @return true if the rest of the source cannot change the verdict of the method
+     */
+    private boolean isFinal(MemoryCollector localScopeCollector) {
+        for (String methodName : localScopeCollector.getLookedUpMethods()) {
+            if (this.memoryCollector.getMethodFromName(methodName) == null) {
+                return false;
+            }
+        }
+        for (String variableName : localScopeCollector.getLookedUpGlobalVariables()) {
+            SJavaVariable sv = this.memoryCollector.checkVariableNameByGlobalVariableTable(variableName);
+            if (sv == null || !sv.hasValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,9 +1,11 @@
 package main.scopeLogic;
 
+import main.validation.CompilationException;
+
 /**
  * Exception thrown for invalid Variable assignments
  */
-public class VariableAssignmentException extends Exception {
+public class VariableAssignmentException extends CompilationException {
     VariableAssignmentException(String errorMessage) {
         super(errorMessage);
     }
@@ -1,9 +1,11 @@
 package main.scopeLogic;
 
+import main.validation.CompilationException;
+
 /**
  * Exception thrown for invalid Variable declarations
  */
-public class VariableDeclarationException extends Exception {
+public class VariableDeclarationException extends CompilationException {
     VariableDeclarationException(String errorMessage) {
         super(errorMessage);
     }
@@ -1,9 +1,8 @@
 package main.validation;
 
-import main.sJavaDataTypes.SJavaVariable;
+import main.sJavaDataTypes.SJavaType;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * This abstract class represents all the validators relevant to assignment of values,
@@ -81,12 +80,6 @@ public abstract class AssignmentValidator implements Validator {
     // empty pattern.
     protected static final String EMPTY_PATTERN = "[\\s\\t]*";
 
-    // current line on parsing.
-    protected String curLine;
-
-    // is inspected variable final?
-    protected boolean isFinal;
-
     /**
      * Checks if inspected variable is final.
      *
@@ -94,31 +87,35 @@ public abstract class AssignmentValidator implements Validator {
      * @return true if variable is final, false otherwise.
      */
     protected boolean isFinal(String line) {
-        Pattern pattern = Pattern.compile(FINAL_PATTERN);
-        Matcher match = pattern.matcher(line);
-        if (match.find()) {
-            curLine = match.replaceFirst("");
-            return true;
-        }
-        curLine = line;
-        return false;
+        return getMatcher(line, FINAL_PATTERN).find();
+    }
+
+    /**
+     * Removes the final modifier of inspected variable.
+     *
+     * @param line line to remove the modifier from.
+     * @return the line without its final modifier, the line itself if it has none.
+     */
+    protected String removeFinal(String line) {
+        return getMatcher(line, FINAL_PATTERN).replaceFirst("");
     }
 
     /**
      * Checks for the variable type.
      *
+     * @param curString line to check.
+     * @param isFinal is inspected variable final?
      * @return type of variable.
-     * @throws Exception in case variable is final and has no type.
      */
-    protected String checkForType(String curString) {
-        String type = null;
+    protected SJavaType checkForType(String curString, boolean isFinal) {
+        SJavaType type = null;
         if (isFinal) {
-            curString = curString.replaceFirst(FINAL_PATTERN, "");
+            curString = removeFinal(curString);
         }
-        for (int i = 0; i < SJavaVariable.TYPES.length; i++) {
-            Matcher match = getMatcher(curString, EMPTY_PATTERN + SJavaVariable.TYPES[i]);
+        for (SJavaType dataType : SJavaType.DATA_TYPES) {
+            Matcher match = getMatcher(curString, EMPTY_PATTERN + dataType.getKeyword());
             if (match.find() && match.start() == 0) {
-                type = SJavaVariable.TYPES[i];
+                type = dataType;
                 break;
             }
         }
@@ -16,7 +16,7 @@ public class CommentValidator implements Validator{
      * @return true if the current line is a syntactically correct Comment
      */
     @Override
-    public boolean validate(String lineToValidate) {
+    public boolean validate(CharSequence lineToValidate) {
         Matcher matcher = getMatcher(lineToValidate, COMMENT_PATTERN);
         return matcher.find() && matcher.start() == 0;
     }
@@ -0,0 +1,17 @@
+package main.validation;
+
+/**
+ * Represents an exception thrown when an S-java file is not compilable. Such exceptions are thrown for
+ * every invalid file rather than for failures of the verifier, and are reported by their message alone,
+ * so they are made without the stack trace which would otherwise be filled in for each of them.
+ */
+public abstract class CompilationException extends Exception {
+    /**
+     * Version of the serialized form of the exception
+     */
+    private static final long serialVersionUID = 1L;
+
+    protected CompilationException(String errorMessage) {
+        super(errorMessage, null, false, false);
+    }
+}
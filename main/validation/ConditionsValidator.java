@@ -1,19 +1,38 @@
 package main.validation;
 
-import java.util.Vector;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents condition validator, validates whether there's any condition (if\else\while) in given line.
+ * The line is scanned once, character by character, with the same results as matching it against the
+ * patterns of a conditional: a head, "if (" or "while (", which every head found in the line is removed
+ * as, then the conditions separated by binary operators, and a tail, ") {", at the end of the line.
  */
 public class ConditionsValidator extends AssignmentValidator implements Validator {
-    // Regex patterns
-    private static final String VALID_HEAD = "[\\s\\t]*if[\\s\\t]*[(]|[\\s\\t]*while[\\s\\t]*[(]";
-    private static final String VALID_TAIL = "[)][\\s\\t]*[{][\\s\\t]*$";
-    private static final String VALID_COND = "true|false|[-]?\\d+.\\d*|[-]?\\d+";
-    /* And or Or */
-    private static final String BINARY_OP = "[|]{2}|[&]{2}";
+    // Keywords
+    private static final String IF_KEYWORD = "if";
+    private static final String WHILE_KEYWORD = "while";
+    private static final String TRUE_KEYWORD = "true";
+    private static final String FALSE_KEYWORD = "false";
+    /* And or Or, each written as the same character twice */
+    private static final char AND_CHAR = '&';
+    private static final char OR_CHAR = '|';
+
+    // States of the scan for the tail of the line, after the characters scanned so far
+    private static final int NO_TAIL = 0;
+    /* A closing parenthesis, followed by whitespace */
+    private static final int TAIL_PARENTHESIS = 1;
+    /* A closing parenthesis and an opening bracket, followed by whitespace */
+    private static final int TAIL_BRACKET = 2;
+    /* A tail followed by a line terminator, which can only be the last character of the line */
+    private static final int TAIL_TERMINATOR = 3;
+
+    // Results of the scan of a line
+    private static final int NOT_A_CONDITION = 0;
+    private static final int VALID_CONDITIONS = 1;
+    private static final int BINARY_OPERATOR_AT_EDGE = 2;
+    private static final int INVALID_CONDITION = 3;
 
     // Errors
     private static final String COND_SYNTAX_ERR_MSG = "Illegal condition syntax: ";
@@ -26,60 +45,332 @@ public class ConditionsValidator extends AssignmentValidator implements Validato
      * @return true if the current line is a syntactically correct Conditional
      */
     @Override
-    public boolean validate(String lineToValidate) {
-        Matcher headMatcher = getMatcher(lineToValidate, VALID_HEAD);
-        if (!headMatcher.find() || headMatcher.start() != 0) {
+    public boolean validate(CharSequence lineToValidate) {
+        return scanConditions(lineToValidate, null) != NOT_A_CONDITION;
+    }
+
+    /**
+     * Parses the line as a Conditional, if it is one, adding the variable names found within its conditions
+     * to the parsed lines as a condition operation.
+     * @param lineToValidate line to parse.
+     * @param parsedLines parsed lines to add the operation to.
+     * @return true if the line is a syntactically correct Conditional, false otherwise.
+     * @throws SyntaxException in case of invalid conditions syntax.
+     */
+    public boolean parseConditions(CharSequence lineToValidate, ParsedLines parsedLines) throws SyntaxException {
+        List<String> condVarNames = new ArrayList<>();
+        switch (scanConditions(lineToValidate, condVarNames)) {
+            case NOT_A_CONDITION:
+                return false;
+            case BINARY_OPERATOR_AT_EDGE:
+                // binary operators in beginning or end of condition.
+                throw new SyntaxException(COND_SYNTAX_ERR_MSG + BIN_OP_ERR);
+            case INVALID_CONDITION:
+                // condition is of invalid syntax.
+                throw new SyntaxException(COND_SYNTAX_ERR_MSG + ONE_OR_MORE_INVALID_COND);
+            default:
+                parsedLines.startOperation(LineLexer.CONDITION_LINE);
+                for (String condVarName : condVarNames) {
+                    parsedLines.addName(condVarName);
+                }
+                parsedLines.endOperation();
+                return true;
+        }
+    }
+
+    /**
+     * Scans the line as a Conditional. The line is one if it starts with a head and, once all the heads and
+     * spaces are removed from it, ends with a tail. Its conditions are what is left once all the heads and
+     * the tail are removed, split by the binary operators, each being either a literal or a variable name.
+     * @param line line to scan.
+     * @param condVarNames list to add the variable names found within the conditions to, in their order,
+     *                     null to only find whether the line is a Conditional.
+     * @return NOT_A_CONDITION if the line is not a Conditional, and otherwise VALID_CONDITIONS or the syntax
+     * error of its conditions, if they are only looked at when the variable names are.
+     */
+    private static int scanConditions(CharSequence line, List<String> condVarNames) {
+        int index = headEnd(line, 0);
+        if (index < 0) {
+            return NOT_A_CONDITION;
+        }
+        int length = line.length();
+        /* The line once all the heads and the tail are removed from it, only kept when the conditions are
+         * looked at. The tail is the one the line itself ends with, a final line terminator following it */
+        StringBuilder conditions = condVarNames == null ? null : new StringBuilder(length);
+        int tailStart = condVarNames == null ? length : tailStart(line);
+        int tailEnd = tailStart == length ? length : lineEnd(line);
+        int tailState = NO_TAIL;
+        boolean afterFailedHead = false;
+        while (index < length) {
+            char curChar = line.charAt(index);
+            /* A head is found where whitespace followed by a keyword starts, so it is not looked for again
+             * within whitespace that was already found to not start one */
+            if (!(afterFailedHead && Validator.isPatternWhitespace(curChar))) {
+                int headEnd = headEnd(line, index);
+                if (headEnd >= 0) {
+                    index = headEnd;
+                    afterFailedHead = false;
+                    continue;
+                }
+                afterFailedHead = Validator.isPatternWhitespace(curChar);
+            }
+            index++;
+            /* The tail is found once the spaces are removed */
+            if (curChar != ' ') {
+                tailState = nextTailState(tailState, curChar);
+            }
+            if (conditions != null && (index <= tailStart || index > tailEnd)) {
+                conditions.append(curChar);
+            }
+        }
+        if (tailState != TAIL_BRACKET && tailState != TAIL_TERMINATOR) {
+            return NOT_A_CONDITION;
+        }
+        if (conditions == null) {
+            return VALID_CONDITIONS;
+        }
+
+        int conditionsLength = conditions.length();
+        if (conditionsLength >= 2 && (isBinaryOperator(conditions.charAt(0), conditions.charAt(1)) ||
+                isBinaryOperator(conditions.charAt(conditionsLength - 2),
+                        conditions.charAt(conditionsLength - 1)))) {
+            return BINARY_OPERATOR_AT_EDGE;
+        }
+
+        /* Splitting the conditions by the binary operators, each operator being found at its leftmost */
+        StringBuilder condition = new StringBuilder();
+        boolean invalidCondition = false;
+        for (int i = 0; i < conditionsLength; i++) {
+            char curChar = conditions.charAt(i);
+            if (isBinaryOperator(curChar, i + 1 < conditionsLength ? conditions.charAt(i + 1) : 0)) {
+                invalidCondition |= !endCondition(condition, condVarNames);
+                i++;
+            } else {
+                condition.append(curChar);
+            }
+        }
+        invalidCondition |= !endCondition(condition, condVarNames);
+        return invalidCondition ? INVALID_CONDITION : VALID_CONDITIONS;
+    }
+
+    /**
+     * Ends a condition, adding it to the variable names if it is a variable name
+     * @param condition characters of the condition, which are cleared
+     * @param condVarNames list of the variable names found within the conditions
+     * @return true if the condition is a literal or a variable name, false if it is of invalid syntax
+     */
+    private static boolean endCondition(StringBuilder condition, List<String> condVarNames) {
+        String trimmedCondition = condition.toString().trim();
+        condition.setLength(0);
+        if (isLiteralCondition(trimmedCondition)) {
+            // if condition matches syntax demands
+            return true;
+        }
+        if (isLegalVarName(trimmedCondition)) {
+            condVarNames.add(trimmedCondition);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param condition trimmed condition
+     * @return true if the condition is true, false, or a number - digits, optionally preceded by a minus and
+     * optionally followed by any single character other than a line terminator and more digits
+     */
+    private static boolean isLiteralCondition(String condition) {
+        if (condition.equals(TRUE_KEYWORD) || condition.equals(FALSE_KEYWORD)) {
+            return true;
+        }
+        int length = condition.length();
+        int digitsStart = length > 0 && condition.charAt(0) == '-' ? 1 : 0;
+        int index = skipDigits(condition, digitsStart);
+        if (index == digitsStart) {
             return false;
         }
-        lineToValidate = headMatcher.replaceAll("").replaceAll(" ", "");
-        Matcher tailMatcher = getMatcher(lineToValidate, VALID_TAIL);
-        if (!tailMatcher.find()) {
+        if (index == length) {
+            return true;
+        }
+        if (Validator.isLineTerminator(condition.charAt(index))) {
             return false;
         }
-        return true;
+        /* Any single character, which may be a surrogate pair */
+        if (Character.isHighSurrogate(condition.charAt(index)) && index + 1 < length &&
+                Character.isLowSurrogate(condition.charAt(index + 1))) {
+            index++;
+        }
+        return skipDigits(condition, index + 1) == length;
     }
 
     /**
-     * Inspects conditions, makes sure all conditions are valid and returns a vector of variable names
-     * found within conditions.
-     *
-     * @param lineToValidate line to parse.
-     * @return vector of variable names (MIGHT BE empty)
-     * @throws Exception in case of invalid conditions syntax.
-     */
-    public Vector<String> inspectConditions(String lineToValidate) throws SyntaxException {
-        // leaves line with only conditions inside;
-        lineToValidate = lineToValidate.replaceAll(VALID_HEAD + "|" + VALID_TAIL, "");
-
-        if (lineToValidate.startsWith("||") || lineToValidate.endsWith("||") ||
-                lineToValidate.startsWith("&&") || lineToValidate.endsWith("&&")) {
-            // binary operators in beginning or end of condition.
-            throw new SyntaxException(COND_SYNTAX_ERR_MSG + BIN_OP_ERR);
-        }
-        Vector<String> condVarNames = new Vector<>();
-        Pattern binaryOperatorPattern = Pattern.compile(BINARY_OP);
-        Pattern validPattern = Pattern.compile(EMPTY_PATTERN + VALID_COND + EMPTY_PATTERN);
-        Pattern validVarName = Pattern.compile(EMPTY_PATTERN + LEGAL_VAR_NAME + EMPTY_PATTERN);
-        String[] lineParts = lineToValidate.split(String.valueOf(binaryOperatorPattern));
-        for (String condition : lineParts) {
-            condition = condition.trim();
-            Matcher condMatcher = validPattern.matcher(condition);
-            if (condMatcher.matches()) {
-                // if condition matches syntax demands
-                continue;
+     * @param condition trimmed condition
+     * @return true if the condition is a legal variable name
+     */
+    private static boolean isLegalVarName(String condition) {
+        int length = condition.length();
+        if (length == 0) {
+            return false;
+        }
+        char firstChar = condition.charAt(0);
+        if (firstChar == '_') {
+            if (length == 1) {
+                return false;
             }
-            Matcher varNameMatcher = validVarName.matcher(condition);
-            if (varNameMatcher.matches()) {
-                condVarNames.add(condition);
-                /**
-                 * if it's not a specific matching type,
-                 * then check if it's a legal var name, if so add it to vector.
-                 */
-            } else {
-                // condition is of invalid syntax.
-                throw new SyntaxException(COND_SYNTAX_ERR_MSG + ONE_OR_MORE_INVALID_COND);
+            for (int i = 1; i < length; i++) {
+                if (!isAsciiLetterOrDigit(condition.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!isAsciiLetter(firstChar)) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            if (!isAsciiLetterOrDigit(condition.charAt(i)) && condition.charAt(i) != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the end of a head starting at the given index: whitespace, a keyword, whitespace and an opening
+     * parenthesis
+     * @param line line to scan
+     * @param index index of the start of the head
+     * @return index following the head, -1 if no head starts at the index
+     */
+    private static int headEnd(CharSequence line, int index) {
+        index = skipRegexWhitespace(line, index);
+        if (startsWith(line, index, IF_KEYWORD)) {
+            index += IF_KEYWORD.length();
+        } else if (startsWith(line, index, WHILE_KEYWORD)) {
+            index += WHILE_KEYWORD.length();
+        } else {
+            return -1;
+        }
+        index = skipRegexWhitespace(line, index);
+        return index < line.length() && line.charAt(index) == '(' ? index + 1 : -1;
+    }
+
+    /**
+     * Finds the tail at the end of the line: a closing parenthesis, whitespace, an opening bracket and
+     * whitespace, which may be followed by a final line terminator that is not whitespace
+     * @param line line to scan
+     * @return index of the start of the tail, the length of the line if it does not end with a tail
+     */
+    private static int tailStart(CharSequence line) {
+        int index = lineEnd(line) - 1;
+        while (index >= 0 && Validator.isPatternWhitespace(line.charAt(index))) {
+            index--;
+        }
+        if (index < 0 || line.charAt(index) != '{') {
+            return line.length();
+        }
+        index--;
+        while (index >= 0 && Validator.isPatternWhitespace(line.charAt(index))) {
+            index--;
+        }
+        return index >= 0 && line.charAt(index) == ')' ? index : line.length();
+    }
+
+    /**
+     * @param line line to scan
+     * @return index of the end of the line, before its last character if it is a line terminator that is
+     * not whitespace
+     */
+    private static int lineEnd(CharSequence line) {
+        int length = line.length();
+        return length > 0 && Validator.isLineTerminator(line.charAt(length - 1)) &&
+                !Validator.isPatternWhitespace(line.charAt(length - 1)) ? length - 1 : length;
+    }
+
+    /**
+     * @param tailState state of the scan for the tail, after the characters scanned so far
+     * @param curChar next character, which is not a space
+     * @return state of the scan for the tail, after the character
+     */
+    private static int nextTailState(int tailState, char curChar) {
+        if (curChar == ')') {
+            return TAIL_PARENTHESIS;
+        }
+        if (curChar == '{') {
+            return tailState == TAIL_PARENTHESIS ? TAIL_BRACKET : NO_TAIL;
+        }
+        if (Validator.isPatternWhitespace(curChar)) {
+            return tailState == TAIL_TERMINATOR ? NO_TAIL : tailState;
+        }
+        if (Validator.isLineTerminator(curChar)) {
+            return tailState == TAIL_BRACKET ? TAIL_TERMINATOR : NO_TAIL;
+        }
+        return NO_TAIL;
+    }
+
+    /**
+     * @param firstChar first character
+     * @param secondChar second character
+     * @return true if the two characters are a binary operator
+     */
+    private static boolean isBinaryOperator(char firstChar, char secondChar) {
+        return firstChar == secondChar && (firstChar == AND_CHAR || firstChar == OR_CHAR);
+    }
+
+    /**
+     * @param line line to scan
+     * @param index index to start at
+     * @param word word to look for
+     * @return true if the word is found at the index
+     */
+    private static boolean startsWith(CharSequence line, int index, String word) {
+        if (index + word.length() > line.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (line.charAt(index + i) != word.charAt(i)) {
+                return false;
             }
         }
-        return condVarNames;
+        return true;
+    }
+
+    /**
+     * @param text text to scan
+     * @param index index to start at
+     * @return index of the first character from the given index which is not a digit
+     */
+    private static int skipDigits(String text, int index) {
+        while (index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param line line to scan
+     * @param index index to start at
+     * @return index of the first character from the given index which is not whitespace
+     */
+    private static int skipRegexWhitespace(CharSequence line, int index) {
+        while (index < line.length() && Validator.isPatternWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character is an ASCII letter
+     */
+    private static boolean isAsciiLetter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character is an ASCII letter or digit
+     */
+    private static boolean isAsciiLetterOrDigit(char character) {
+        return isAsciiLetter(character) || (character >= '0' && character <= '9');
     }
 }
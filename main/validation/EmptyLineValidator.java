@@ -15,7 +15,7 @@ public class EmptyLineValidator implements Validator{
      * @return true if the current line is a syntactically correct Empty line
      */
     @Override
-    public boolean validate(String lineToValidate) {
+    public boolean validate(CharSequence lineToValidate) {
         Matcher matcher = getMatcher(lineToValidate, EMPTY_LINE_PATTERN);
         return matcher.find() && matcher.start() == 0;
     }
@@ -15,7 +15,7 @@ public class EndOfBlockValidator implements Validator{
      * @return true if the current line is a syntactically correct End of block
      */
     @Override
-    public boolean validate(String lineToValidate) {
+    public boolean validate(CharSequence lineToValidate) {
         Matcher matcher = getMatcher(lineToValidate, END_OF_BLOCK_PATTERN);
         return matcher.find() && matcher.start() == 0;
     }
@@ -15,7 +15,7 @@ public class EndOfLineValidator implements Validator{
      * @return true if the current line ends with a proper ;
      */
     @Override
-    public boolean validate(String lineToValidate) {
+    public boolean validate(CharSequence lineToValidate) {
         Matcher matcher = getMatcher(lineToValidate, END_OF_LINE_PATTERN);
         return matcher.find() && matcher.start() == 0;
     }
@@ -0,0 +1,339 @@
+package main.validation;
+
+import java.util.Arrays;
+
+/**
+ * Hand-written lexer of a single SJava line. The line is split once into word, number and symbol tokens,
+ * and the tokens are then used to classify the line by the kinds of commands it could be, so that only
+ * the validators of those kinds need to run on it. The classification only rules out kinds the line
+ * cannot be - the validators still decide whether the line really is one of the remaining kinds.
+ * The token arrays are reused between lines, so a lexer should be used by a single thread. Lines are read
+ * as CharSequences, so that views over the source file are classified without being copied.
+ */
+public class LineLexer {
+    // Token kinds
+    public static final int WORD_TOKEN = 0;
+    public static final int NUMBER_TOKEN = 1;
+    public static final int SYMBOL_TOKEN = 2;
+
+    // Line kinds, as flags of the kinds a line could be
+    public static final int EMPTY_LINE = 1;
+    public static final int COMMENT_LINE = 1 << 1;
+    public static final int END_OF_BLOCK_LINE = 1 << 2;
+    public static final int VARIABLE_DECLARATION_LINE = 1 << 3;
+    public static final int VARIABLE_ASSIGNMENT_LINE = 1 << 4;
+    public static final int CONDITION_LINE = 1 << 5;
+    public static final int METHOD_CALL_LINE = 1 << 6;
+    public static final int RETURN_LINE = 1 << 7;
+    public static final int METHOD_DEFINITION_LINE = 1 << 8;
+    /**
+     * Names of the line kinds, by the index of their flag
+     */
+    private static final String[] LINE_KIND_NAMES = {"empty", "comment", "endOfBlock", "variableDeclaration",
+            "variableAssignment", "condition", "methodCall", "return", "methodDefinition"};
+
+    // Keywords
+    private static final String[] DECLARATION_KEYWORDS = {"final", "int", "double", "boolean", "char", "String"};
+    private static final String IF_KEYWORD = "if";
+    private static final String WHILE_KEYWORD = "while";
+    private static final String RETURN_KEYWORD = "return";
+    private static final String VOID_KEYWORD = "void";
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * Line currently tokenized
+     */
+    private CharSequence line = "";
+    /**
+     * Number of tokens in the current line
+     */
+    private int tokenCount;
+    /**
+     * Kind, start index and end index (exclusive) of each token in the current line
+     */
+    private int[] tokenKinds = new int[INITIAL_CAPACITY];
+    private int[] tokenStarts = new int[INITIAL_CAPACITY];
+    private int[] tokenEnds = new int[INITIAL_CAPACITY];
+
+    /**
+     * Splits the given line into tokens. Whitespace separates tokens, words and numbers are maximal runs
+     * of letters, digits and underscores, and every other character is a symbol token of its own.
+     * @param lineToTokenize line to split.
+     */
+    public void tokenize(CharSequence lineToTokenize) {
+        this.line = lineToTokenize;
+        this.tokenCount = 0;
+        int length = lineToTokenize.length();
+        int index = 0;
+        while (index < length) {
+            char curChar = lineToTokenize.charAt(index);
+            if (isWhitespace(curChar)) {
+                index++;
+                continue;
+            }
+            int start = index;
+            int kind = SYMBOL_TOKEN;
+            if (isWordChar(curChar)) {
+                kind = isDigit(curChar) ? NUMBER_TOKEN : WORD_TOKEN;
+                while (index < length && isWordChar(lineToTokenize.charAt(index))) {
+                    index++;
+                }
+            } else {
+                index++;
+            }
+            addToken(kind, start, index);
+        }
+    }
+
+    /**
+     * Classifies the current line by the kinds of commands it could be, according to its tokens.
+     * @return flags of all the line kinds the current line could be.
+     */
+    public int classify() {
+        if (this.tokenCount == 0) {
+            return EMPTY_LINE;
+        }
+        int kinds = 0;
+        if (isSymbol(0, '/') && this.tokenStarts[0] == 0 && this.tokenCount > 1 && isSymbol(1, '/')
+                && this.tokenStarts[1] == 1) {
+            kinds |= COMMENT_LINE;
+        }
+        if (this.tokenCount == 1 && isSymbol(0, '}')) {
+            kinds |= END_OF_BLOCK_LINE;
+        }
+        if (this.tokenKinds[0] == WORD_TOKEN) {
+            for (String keyword : DECLARATION_KEYWORDS) {
+                if (tokenEquals(0, keyword)) {
+                    kinds |= VARIABLE_DECLARATION_LINE;
+                    break;
+                }
+            }
+            if (tokenEquals(0, IF_KEYWORD) || tokenEquals(0, WHILE_KEYWORD)) {
+                kinds |= CONDITION_LINE;
+            }
+            if (tokenEquals(0, RETURN_KEYWORD)) {
+                kinds |= RETURN_LINE;
+            }
+        }
+        if (couldBeAssignment()) {
+            kinds |= VARIABLE_ASSIGNMENT_LINE;
+        }
+        if (couldBeMethodCall()) {
+            kinds |= METHOD_CALL_LINE;
+        }
+        if (isSymbol(this.tokenCount - 1, '{') && hasWordContaining(VOID_KEYWORD)) {
+            kinds |= METHOD_DEFINITION_LINE;
+        }
+        return kinds;
+    }
+
+    /**
+     * Tokenizes and classifies the given line.
+     * @param lineToClassify line to classify.
+     * @return flags of all the line kinds the line could be.
+     */
+    public int classify(CharSequence lineToClassify) {
+        tokenize(lineToClassify);
+        return classify();
+    }
+
+    /**
+     * Checks if the given line kinds include a specific kind.
+     * @param kinds flags of line kinds.
+     * @param kind line kind to look for.
+     * @return true if the kind is one of the flags, false otherwise.
+     */
+    public static boolean couldBe(int kinds, int kind) {
+        return (kinds & kind) != 0;
+    }
+
+    /**
+     * Returns the name of a line kind, as reported by the verification statistics.
+     * @param lineKind flag of a single line kind.
+     * @return name of the line kind.
+     */
+    public static String getKindName(int lineKind) {
+        return LINE_KIND_NAMES[Integer.numberOfTrailingZeros(lineKind)];
+    }
+
+    /**
+     * @return Number of tokens in the current line
+     */
+    public int getTokenCount() {
+        return this.tokenCount;
+    }
+
+    /**
+     * @param index index of the token.
+     * @return Kind of the token.
+     */
+    public int getTokenKind(int index) {
+        return this.tokenKinds[index];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return Text of the token.
+     */
+    public String getTokenText(int index) {
+        return this.line.subSequence(this.tokenStarts[index], this.tokenEnds[index]).toString();
+    }
+
+    /**
+     * Checks if the text of a token equals the given text, without copying the token.
+     * @param index index of the token.
+     * @param text text to compare to.
+     * @return true if the token's text equals the given text.
+     */
+    public boolean tokenEquals(int index, String text) {
+        int length = this.tokenEnds[index] - this.tokenStarts[index];
+        return length == text.length() && startsWith(text, this.tokenStarts[index]);
+    }
+
+    /**
+     * An assignment starts at the very beginning of the line (after an optional ";", which the assignment
+     * validator removes) either with a variable name followed later by a "=" symbol, or with one of the
+     * values the assignment pattern also accepts on their own - a number, a char or a String.
+     * @return true if the current line could be a variable assignment.
+     */
+    private boolean couldBeAssignment() {
+        int firstIndex = isSymbol(0, ';') && this.tokenStarts[0] == 0 ? 1 : 0;
+        if (firstIndex >= this.tokenCount || this.tokenStarts[firstIndex] != firstIndex) {
+            return false;
+        }
+        switch (this.tokenKinds[firstIndex]) {
+            case WORD_TOKEN:
+                return hasSymbol('=');
+            case NUMBER_TOKEN:
+                return true;
+            default:
+                return isSymbol(firstIndex, '-') || isSymbol(firstIndex, '\'') || isSymbol(firstIndex, '"');
+        }
+    }
+
+    /**
+     * A method call starts with a method name and ends with ")", ignoring the ";" symbols which the method
+     * call validator removes, and has a "(" symbol.
+     * @return true if the current line could be a method call.
+     */
+    private boolean couldBeMethodCall() {
+        int first = 0;
+        while (first < this.tokenCount && isSymbol(first, ';')) {
+            first++;
+        }
+        int last = this.tokenCount - 1;
+        while (last >= 0 && isSymbol(last, ';')) {
+            last--;
+        }
+        if (first > last || this.tokenKinds[first] != WORD_TOKEN ||
+                this.line.charAt(this.tokenStarts[first]) == '_') {
+            return false;
+        }
+        return isSymbol(last, ')') && hasSymbol('(');
+    }
+
+    /**
+     * @param symbol symbol to look for.
+     * @return true if one of the tokens of the current line is the given symbol.
+     */
+    private boolean hasSymbol(char symbol) {
+        for (int i = 0; i < this.tokenCount; i++) {
+            if (isSymbol(i, symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param text text to look for.
+     * @return true if one of the word tokens of the current line contains the given text.
+     */
+    private boolean hasWordContaining(String text) {
+        for (int i = 0; i < this.tokenCount; i++) {
+            if (this.tokenKinds[i] == WORD_TOKEN && this.tokenEnds[i] - this.tokenStarts[i] >= text.length()) {
+                int lastStart = this.tokenEnds[i] - text.length();
+                for (int start = this.tokenStarts[i]; start <= lastStart; start++) {
+                    if (startsWith(text, start)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param text text to look for.
+     * @param offset index in the current line to look at.
+     * @return true if the current line has the given text at the given index.
+     */
+    private boolean startsWith(String text, int offset) {
+        if (offset + text.length() > this.line.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (this.line.charAt(offset + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param index index of the token.
+     * @param symbol symbol to compare to.
+     * @return true if the token is the given symbol.
+     */
+    private boolean isSymbol(int index, char symbol) {
+        return this.tokenKinds[index] == SYMBOL_TOKEN && this.line.charAt(this.tokenStarts[index]) == symbol;
+    }
+
+    /**
+     * Adds a token to the token arrays, growing them if needed.
+     * @param kind kind of the token.
+     * @param start start index of the token.
+     * @param end end index (exclusive) of the token.
+     */
+    private void addToken(int kind, int start, int end) {
+        if (this.tokenCount == this.tokenKinds.length) {
+            int newCapacity = this.tokenCount * 2;
+            this.tokenKinds = Arrays.copyOf(this.tokenKinds, newCapacity);
+            this.tokenStarts = Arrays.copyOf(this.tokenStarts, newCapacity);
+            this.tokenEnds = Arrays.copyOf(this.tokenEnds, newCapacity);
+        }
+        this.tokenKinds[this.tokenCount] = kind;
+        this.tokenStarts[this.tokenCount] = start;
+        this.tokenEnds[this.tokenCount] = end;
+        this.tokenCount++;
+    }
+
+    /**
+     * Whitespace as matched by the \s regex class.
+     * @param curChar character to check.
+     * @return true if the character is whitespace.
+     */
+    private static boolean isWhitespace(char curChar) {
+        return curChar == ' ' || curChar == '\t' || curChar == '\n' || curChar == '\u000B' ||
+                curChar == '\f' || curChar == '\r';
+    }
+
+    /**
+     * Word characters as matched by the \w regex class.
+     * @param curChar character to check.
+     * @return true if the character is a letter, a digit or an underscore.
+     */
+    private static boolean isWordChar(char curChar) {
+        return (curChar >= 'a' && curChar <= 'z') || (curChar >= 'A' && curChar <= 'Z') ||
+                isDigit(curChar) || curChar == '_';
+    }
+
+    /**
+     * @param curChar character to check.
+     * @return true if the character is a decimal digit.
+     */
+    private static boolean isDigit(char curChar) {
+        return curChar >= '0' && curChar <= '9';
+    }
+}
@@ -0,0 +1,210 @@
+package main.validation;
+
+import main.sJavaDataTypes.SJavaMethod;
+
+/**
+ * Parses the lines of an SJava source, one by one in the order of the source, into ParsedLines. Each line
+ * is classified by the lexer, and only the validators of the kinds it could be are run on it, each of them
+ * parsing the line into the operation of its kind. A line which is of a kind but whose command is not
+ * syntactically correct is parsed into an operation failed for the syntax error, which is thrown when the
+ * validation pass looks for the operation, so that the errors of a line are found in the same order as if
+ * the line was parsed by the pass itself. The parser keeps the state of its lexer, so it should be used by
+ * a single thread.
+ */
+public class LineParser {
+    /**
+     * Validators of the lines, which keep no state and are thus shared by all the parsers
+     */
+    private static final EmptyLineValidator EMPTY_LINE_VALIDATOR = new EmptyLineValidator();
+    private static final CommentValidator COMMENT_VALIDATOR = new CommentValidator();
+    private static final EndOfBlockValidator END_OF_BLOCK_VALIDATOR = new EndOfBlockValidator();
+    private static final VariableDeclarationValidator VARIABLE_DECLARATION_VALIDATOR =
+            new VariableDeclarationValidator();
+    private static final VariableAssignmentValidator VARIABLE_ASSIGNMENT_VALIDATOR =
+            new VariableAssignmentValidator();
+    private static final ConditionsValidator CONDITIONS_VALIDATOR = new ConditionsValidator();
+    private static final MethodCallValidator METHOD_CALL_VALIDATOR = new MethodCallValidator();
+    private static final ReturnValidator RETURN_VALIDATOR = new ReturnValidator();
+    private static final MethodDefinitionValidator METHOD_DEFINITION_VALIDATOR = new MethodDefinitionValidator();
+
+    /**
+     * Lexer classifying each line, so that only the validators of the kinds it could be are run on it
+     */
+    private final LineLexer lineLexer = new LineLexer();
+    /**
+     * Parsed lines the lines are added to
+     */
+    private final ParsedLines parsedLines;
+
+    /**
+     * Constructor for the LineParser class
+     * @param parsedLines Parsed lines to add the lines to, as the lines following their last line
+     */
+    public LineParser(ParsedLines parsedLines) {
+        this.parsedLines = parsedLines;
+    }
+
+    /**
+     * @return Parsed lines the lines are added to
+     */
+    public ParsedLines getParsedLines() {
+        return this.parsedLines;
+    }
+
+    /**
+     * Parses the next line of the source, adding it to the parsed lines
+     * @param line text of the line
+     * @return line number of the parsed line
+     */
+    public int parseLine(CharSequence line) {
+        int lineKinds = this.lineLexer.classify(line);
+        this.parsedLines.startLine(lineKinds, opensBlock(line), containsChar(line, '{'),
+                containsChar(line, '}'));
+
+        if (LineLexer.couldBe(lineKinds, LineLexer.EMPTY_LINE) && EMPTY_LINE_VALIDATOR.validate(line)) {
+            this.parsedLines.addLineKind(LineLexer.EMPTY_LINE);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.COMMENT_LINE) && COMMENT_VALIDATOR.validate(line)) {
+            this.parsedLines.addLineKind(LineLexer.COMMENT_LINE);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.END_OF_BLOCK_LINE) && END_OF_BLOCK_VALIDATOR.validate(line)) {
+            this.parsedLines.addLineKind(LineLexer.END_OF_BLOCK_LINE);
+        }
+
+        /* The operations are parsed in the order of the flags of their kinds */
+        if (LineLexer.couldBe(lineKinds, LineLexer.VARIABLE_DECLARATION_LINE)) {
+            parseVariableDeclaration(line);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.VARIABLE_ASSIGNMENT_LINE)) {
+            parseVariableAssignment(line);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.CONDITION_LINE)) {
+            parseCondition(line);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.METHOD_CALL_LINE)) {
+            parseMethodCall(line);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.RETURN_LINE)) {
+            parseReturn(line);
+        }
+        if (LineLexer.couldBe(lineKinds, LineLexer.METHOD_DEFINITION_LINE)) {
+            parseMethodDefinition(line);
+        }
+        return this.parsedLines.getLastLineNumber();
+    }
+
+    /**
+     * Parses the line as a variable declaration, if it is one
+     * @param line text of the line
+     */
+    private void parseVariableDeclaration(CharSequence line) {
+        try {
+            if (VARIABLE_DECLARATION_VALIDATOR.validate(line)) {
+                VARIABLE_DECLARATION_VALIDATOR.parseVariables(line, this.parsedLines);
+            }
+        }
+        catch (SyntaxException | RuntimeException e) {
+            this.parsedLines.failOperation(LineLexer.VARIABLE_DECLARATION_LINE, e);
+        }
+    }
+
+    /**
+     * Parses the line as a variable assignment, if it is one
+     * @param line text of the line
+     */
+    private void parseVariableAssignment(CharSequence line) {
+        try {
+            if (VARIABLE_ASSIGNMENT_VALIDATOR.validate(line)) {
+                VARIABLE_ASSIGNMENT_VALIDATOR.parseAssignments(line, this.parsedLines);
+            }
+        }
+        catch (SyntaxException | RuntimeException e) {
+            this.parsedLines.failOperation(LineLexer.VARIABLE_ASSIGNMENT_LINE, e);
+        }
+    }
+
+    /**
+     * Parses the line as a conditional, if it is one
+     * @param line text of the line
+     */
+    private void parseCondition(CharSequence line) {
+        try {
+            CONDITIONS_VALIDATOR.parseConditions(line, this.parsedLines);
+        }
+        catch (SyntaxException | RuntimeException e) {
+            this.parsedLines.failOperation(LineLexer.CONDITION_LINE, e);
+        }
+    }
+
+    /**
+     * Parses the line as a method call, if it is one
+     * @param line text of the line
+     */
+    private void parseMethodCall(CharSequence line) {
+        try {
+            METHOD_CALL_VALIDATOR.parseMethodCall(line, this.parsedLines);
+        }
+        catch (RuntimeException e) {
+            this.parsedLines.failOperation(LineLexer.METHOD_CALL_LINE, e);
+        }
+    }
+
+    /**
+     * Parses the line as a return statement, if it is one
+     * @param line text of the line
+     */
+    private void parseReturn(CharSequence line) {
+        try {
+            if (RETURN_VALIDATOR.validate(line)) {
+                this.parsedLines.startOperation(LineLexer.RETURN_LINE);
+                this.parsedLines.endOperation();
+            }
+        }
+        catch (RuntimeException e) {
+            this.parsedLines.failOperation(LineLexer.RETURN_LINE, e);
+        }
+    }
+
+    /**
+     * Parses the line as a method definition, if it is one
+     * @param line text of the line
+     */
+    private void parseMethodDefinition(CharSequence line) {
+        try {
+            SJavaMethod sJavaMethod = METHOD_DEFINITION_VALIDATOR.getMethodData(line);
+            if (sJavaMethod != null) {
+                this.parsedLines.addMethodDefinition(sJavaMethod);
+            }
+        }
+        catch (SyntaxException | RuntimeException e) {
+            this.parsedLines.failOperation(LineLexer.METHOD_DEFINITION_LINE, e);
+        }
+    }
+
+    /**
+     * @param line line to check
+     * @return true if the last character of the line, other than whitespace, is an opening bracket
+     */
+    private static boolean opensBlock(CharSequence line) {
+        for (int i = line.length() - 1; i >= 0; i--) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return line.charAt(i) == '{';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param line line to look in
+     * @param character character to look for
+     * @return true if the line contains the character
+     */
+    private static boolean containsChar(CharSequence line, char character) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == character) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,748 @@
+package main.validation;
+
+import main.instrumentation.VerifierStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Linear-time recognizer of a regex, for the patterns of whole lines whose matching by java.util.regex
+ * backtracks superlinearly on long lines, or even overflows the stack. The regex is compiled into a
+ * nondeterministic automaton which is run over all of its states at once, so every character of the line
+ * is read once, at a cost bounded by the size of the regex.
+ * Only the syntax the validators' patterns use is supported: "^", "$", ".", "\s", "\w", "\d", "\b",
+ * escaped characters, character classes with ranges, groups, alternations and the "*", "+" and "?"
+ * quantifiers, all with the same meaning as in java.util.regex.
+ */
+public final class LinearPattern {
+    // Errors
+    private static final String UNSUPPORTED_SYNTAX_ERR = "unsupported regex syntax at index ";
+    private static final String UNBALANCED_GROUP_ERR = "unbalanced group at index ";
+
+    /* Kinds of the states of the automaton */
+    private static final int CHARACTER = 0;
+    private static final int SPLIT = 1;
+    private static final int LINE_START = 2;
+    private static final int LINE_END = 3;
+    private static final int WORD_BOUNDARY = 4;
+    private static final int MATCH = 5;
+
+    /* Kinds of the nodes of a parsed regex, beyond the states that are also nodes */
+    private static final int EMPTY = 6;
+    private static final int CONCATENATION = 7;
+    private static final int ALTERNATION = 8;
+    private static final int STAR = 9;
+    private static final int PLUS = 10;
+    private static final int OPTIONAL = 11;
+
+    /* Character classes of the escapes, matching only ASCII characters as in java.util.regex */
+    private static final int[] SPACE_RANGES = {'\t', '\r', ' ', ' '};
+    private static final int[] WORD_RANGES = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    private static final int[] DIGIT_RANGES = {'0', '9'};
+    /* Characters which end a line, and are not matched by "." */
+    private static final int[] LINE_TERMINATOR_RANGES = {'\n', '\n', '\r', '\r', '\u0085', '\u0085',
+            '\u2028', '\u2029'};
+
+    /**
+     * The regex the pattern was compiled from
+     */
+    private final String regex;
+    /**
+     * Kind of every state of the automaton
+     */
+    private final int[] kinds;
+    /**
+     * State following every state, the first of the two states following a split
+     */
+    private final int[] nexts;
+    /**
+     * Second state following every split
+     */
+    private final int[] alternatives;
+    /**
+     * Character class read by every character state, null for the other states
+     */
+    private final CharClass[] charClasses;
+    /**
+     * State the automaton starts at
+     */
+    private final int startState;
+    /**
+     * Sets of states and stack of the run of the automaton, of each thread
+     */
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * Compiles the given regex
+     * @param regex regex to compile
+     * @throws IllegalArgumentException if the regex uses syntax which is not supported
+     */
+    public LinearPattern(String regex) {
+        this.regex = regex;
+        Parser parser = new Parser(regex);
+        Node root = parser.parseAlternation();
+        if (parser.index < regex.length()) {
+            throw new IllegalArgumentException(UNBALANCED_GROUP_ERR + parser.index);
+        }
+        Compiler compiler = new Compiler();
+        int matchState = compiler.addState(MATCH, -1, -1, null);
+        this.startState = compiler.compile(root, matchState);
+        int stateCount = compiler.kinds.size();
+        this.kinds = new int[stateCount];
+        this.nexts = new int[stateCount];
+        this.alternatives = new int[stateCount];
+        this.charClasses = compiler.charClasses.toArray(new CharClass[0]);
+        for (int state = 0; state < stateCount; state++) {
+            this.kinds[state] = compiler.kinds.get(state);
+            this.nexts[state] = compiler.nexts.get(state);
+            this.alternatives[state] = compiler.alternatives.get(state);
+        }
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(stateCount));
+    }
+
+    /**
+     * @return the regex the pattern was compiled from
+     */
+    public String getRegex() {
+        return this.regex;
+    }
+
+    /**
+     * Checks if a prefix of the given input matches the pattern, as lookingAt of a java.util.regex matcher
+     * of the same regex does, in a time linear in the length of the input.
+     * @param input input to match
+     * @return true if a prefix of the input, possibly empty, matches the pattern
+     */
+    public boolean lookingAt(CharSequence input) {
+        VerifierStatistics.recordRegexEvaluation();
+        Workspace workspace = this.workspaces.get();
+        StateSet current = workspace.current;
+        StateSet following = workspace.following;
+        current.clear();
+        if (addClosure(workspace, current, this.startState, input, 0)) {
+            return true;
+        }
+        int index = 0;
+        int length = input.length();
+        while (current.size > 0 && index < length) {
+            int codePoint = Character.codePointAt(input, index);
+            int nextIndex = index + Character.charCount(codePoint);
+            following.clear();
+            for (int i = 0; i < current.size; i++) {
+                int state = current.states[i];
+                if (this.kinds[state] == CHARACTER && this.charClasses[state].matches(codePoint) &&
+                        addClosure(workspace, following, this.nexts[state], input, nextIndex)) {
+                    return true;
+                }
+            }
+            StateSet swapped = current;
+            current = following;
+            following = swapped;
+            index = nextIndex;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the given state to the given set, along with all the states reachable from it without reading a
+     * character, at the given index of the input
+     * @param workspace workspace of the current thread
+     * @param stateSet set to add the states to
+     * @param state state to add
+     * @param input matched input
+     * @param index index of the input the states are at
+     * @return true if the match state was reached
+     */
+    private boolean addClosure(Workspace workspace, StateSet stateSet, int state, CharSequence input,
+                               int index) {
+        int[] stack = workspace.stack;
+        int stackSize = 0;
+        stack[stackSize++] = state;
+        while (stackSize > 0) {
+            int curState = stack[--stackSize];
+            if (!stateSet.add(curState)) {
+                continue;
+            }
+            switch (this.kinds[curState]) {
+                case MATCH:
+                    return true;
+                case SPLIT:
+                    stack[stackSize++] = this.alternatives[curState];
+                    stack[stackSize++] = this.nexts[curState];
+                    break;
+                case LINE_START:
+                    if (index == 0) {
+                        stack[stackSize++] = this.nexts[curState];
+                    }
+                    break;
+                case LINE_END:
+                    if (isLineEnd(input, index)) {
+                        stack[stackSize++] = this.nexts[curState];
+                    }
+                    break;
+                case WORD_BOUNDARY:
+                    if (isWordBoundary(input, index)) {
+                        stack[stackSize++] = this.nexts[curState];
+                    }
+                    break;
+                default:
+                    /* A character state, which waits in the set for the next character */
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if "$" matches at the given index: at the end of the input, or before a line terminator (or
+     * "\r\n") which ends the input
+     * @param input matched input
+     * @param index index to check
+     * @return true if "$" matches at the index
+     */
+    private static boolean isLineEnd(CharSequence input, int index) {
+        int length = input.length();
+        if (index < length - 2) {
+            return false;
+        }
+        if (index == length - 2 && (input.charAt(index) != '\r' || input.charAt(index + 1) != '\n')) {
+            return false;
+        }
+        if (index < length) {
+            char curChar = input.charAt(index);
+            if (curChar == '\n') {
+                /* No match between "\r" and "\n" */
+                return index == 0 || input.charAt(index - 1) != '\r';
+            }
+            return curChar == '\r' || curChar == '\u0085' || (curChar | 1) == '\u2029';
+        }
+        return true;
+    }
+
+    /**
+     * Checks if "\b" matches at the given index, where a word character is on only one of its sides
+     * @param input matched input
+     * @param index index to check
+     * @return true if "\b" matches at the index
+     */
+    private static boolean isWordBoundary(CharSequence input, int index) {
+        boolean left = false;
+        if (index > 0) {
+            int codePoint = Character.codePointBefore(input, index);
+            left = isWord(codePoint) || (Character.getType(codePoint) == Character.NON_SPACING_MARK &&
+                    hasBaseCharacter(input, index - 1));
+        }
+        boolean right = false;
+        if (index < input.length()) {
+            int codePoint = Character.codePointAt(input, index);
+            right = isWord(codePoint) || (Character.getType(codePoint) == Character.NON_SPACING_MARK &&
+                    hasBaseCharacter(input, index));
+        }
+        return left != right;
+    }
+
+    /**
+     * @param codePoint character to check
+     * @return true if the character is a word character for "\b", which unlike "\w" includes every letter
+     * and digit
+     */
+    private static boolean isWord(int codePoint) {
+        return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+    }
+
+    /**
+     * Checks if the non-spacing marks ending at the given index follow a letter or a digit, which they
+     * are then part of a word with
+     * @param input matched input
+     * @param index index of the last mark
+     * @return true if the marks follow a letter or a digit
+     */
+    private static boolean hasBaseCharacter(CharSequence input, int index) {
+        for (int i = index; i >= 0; i--) {
+            int codePoint = Character.codePointAt(input, i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                return true;
+            }
+            if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set of states of the automaton, which is cleared without going over its states
+     */
+    private static final class StateSet {
+        /**
+         * States of the set, in the order they were added
+         */
+        private final int[] states;
+        /**
+         * Index in states of every state, which is only valid for the states of the set
+         */
+        private final int[] indexes;
+        /**
+         * Number of states in the set
+         */
+        private int size;
+
+        /**
+         * Constructor for the StateSet class
+         * @param stateCount number of states of the automaton
+         */
+        private StateSet(int stateCount) {
+            this.states = new int[stateCount];
+            this.indexes = new int[stateCount];
+        }
+
+        /**
+         * Removes all the states of the set
+         */
+        private void clear() {
+            this.size = 0;
+        }
+
+        /**
+         * Adds a state to the set
+         * @param state state to add
+         * @return true if the state was added, false if it was already in the set
+         */
+        private boolean add(int state) {
+            int index = this.indexes[state];
+            if (index < this.size && this.states[index] == state) {
+                return false;
+            }
+            this.indexes[state] = this.size;
+            this.states[this.size++] = state;
+            return true;
+        }
+    }
+
+    /**
+     * Sets of states and stack of a run of the automaton, which are reused by all the runs of a thread
+     */
+    private static final class Workspace {
+        /**
+         * States at the current index of the input
+         */
+        private final StateSet current;
+        /**
+         * States at the index following the current character
+         */
+        private final StateSet following;
+        /**
+         * Stack of the states to add to a set, every state pushing at most two others
+         */
+        private final int[] stack;
+
+        /**
+         * Constructor for the Workspace class
+         * @param stateCount number of states of the automaton
+         */
+        private Workspace(int stateCount) {
+            this.current = new StateSet(stateCount);
+            this.following = new StateSet(stateCount);
+            this.stack = new int[2 * stateCount + 1];
+        }
+    }
+
+    /**
+     * Set of characters, given as ranges, read by a character state
+     */
+    private static final class CharClass {
+        /**
+         * Bounds (inclusive) of the ranges of characters, in pairs
+         */
+        private final int[] ranges;
+        /**
+         * Is the class the complement of its ranges?
+         */
+        private final boolean negated;
+        /**
+         * Matching of the ASCII characters, the bit of every character below 64 and of every other one
+         */
+        private final long lowAscii;
+        private final long highAscii;
+
+        /**
+         * Constructor for the CharClass class
+         * @param ranges bounds (inclusive) of the ranges of characters, in pairs
+         * @param negated is the class the complement of its ranges?
+         */
+        private CharClass(int[] ranges, boolean negated) {
+            this.ranges = ranges;
+            this.negated = negated;
+            long low = 0;
+            long high = 0;
+            for (int character = 0; character < 128; character++) {
+                if (inRanges(character) != negated) {
+                    if (character < 64) {
+                        low |= 1L << character;
+                    } else {
+                        high |= 1L << (character - 64);
+                    }
+                }
+            }
+            this.lowAscii = low;
+            this.highAscii = high;
+        }
+
+        /**
+         * @param codePoint character to check
+         * @return true if the class contains the character
+         */
+        private boolean matches(int codePoint) {
+            if (codePoint < 64) {
+                return (this.lowAscii & (1L << codePoint)) != 0;
+            }
+            if (codePoint < 128) {
+                return (this.highAscii & (1L << (codePoint - 64))) != 0;
+            }
+            return inRanges(codePoint) != this.negated;
+        }
+
+        /**
+         * @param codePoint character to check
+         * @return true if one of the ranges contains the character
+         */
+        private boolean inRanges(int codePoint) {
+            for (int i = 0; i < this.ranges.length; i += 2) {
+                if (codePoint >= this.ranges[i] && codePoint <= this.ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Node of a parsed regex
+     */
+    private static final class Node {
+        /**
+         * Kind of the node
+         */
+        private final int kind;
+        /**
+         * Nodes the node is made of, in order
+         */
+        private final List<Node> children;
+        /**
+         * Class of characters the node reads, null if it is not a character node
+         */
+        private final CharClass charClass;
+
+        /**
+         * Constructor for the Node class
+         * @param kind kind of the node
+         * @param children nodes the node is made of, in order
+         * @param charClass class of characters the node reads, null if it is not a character node
+         */
+        private Node(int kind, List<Node> children, CharClass charClass) {
+            this.kind = kind;
+            this.children = children;
+            this.charClass = charClass;
+        }
+
+        /**
+         * @param kind kind of the node
+         * @param child node the node is made of
+         * @return a node made of a single node
+         */
+        private static Node of(int kind, Node child) {
+            List<Node> children = new ArrayList<>();
+            children.add(child);
+            return new Node(kind, children, null);
+        }
+    }
+
+    /**
+     * Recursive descent parser of the supported regex syntax
+     */
+    private static final class Parser {
+        /**
+         * Parsed regex
+         */
+        private final String regex;
+        /**
+         * Index of the next character to parse
+         */
+        private int index;
+
+        /**
+         * Constructor for the Parser class
+         * @param regex regex to parse
+         */
+        private Parser(String regex) {
+            this.regex = regex;
+        }
+
+        /**
+         * Parses alternatives separated by "|", up to the end of the regex or of the current group
+         * @return node of the alternation
+         */
+        private Node parseAlternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (this.index < this.regex.length() && this.regex.charAt(this.index) == '|') {
+                this.index++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Node(ALTERNATION, alternatives, null);
+        }
+
+        /**
+         * Parses quantified atoms, up to an alternative's end
+         * @return node of the concatenation
+         */
+        private Node parseConcatenation() {
+            List<Node> sequence = new ArrayList<>();
+            while (this.index < this.regex.length() && this.regex.charAt(this.index) != '|' &&
+                    this.regex.charAt(this.index) != ')') {
+                Node atom = parseAtom();
+                while (this.index < this.regex.length() && isQuantifier(this.regex.charAt(this.index))) {
+                    char quantifier = this.regex.charAt(this.index++);
+                    /* Lazy and possessive quantifiers */
+                    if (this.index < this.regex.length() && (this.regex.charAt(this.index) == '?' ||
+                            this.regex.charAt(this.index) == '+')) {
+                        throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + this.index);
+                    }
+                    atom = Node.of(quantifier == '*' ? STAR : quantifier == '+' ? PLUS : OPTIONAL, atom);
+                }
+                sequence.add(atom);
+            }
+            if (sequence.isEmpty()) {
+                return new Node(EMPTY, null, null);
+            }
+            return sequence.size() == 1 ? sequence.get(0) : new Node(CONCATENATION, sequence, null);
+        }
+
+        /**
+         * Parses a single atom: a group, a character class, an assertion or a character
+         * @return node of the atom
+         */
+        private Node parseAtom() {
+            int atomStart = this.index;
+            int codePoint = this.regex.codePointAt(this.index);
+            this.index += Character.charCount(codePoint);
+            switch (codePoint) {
+                case '(':
+                    /* Capturing groups match as non-capturing ones */
+                    if (this.regex.startsWith("?:", this.index)) {
+                        this.index += 2;
+                    } else if (this.index < this.regex.length() && this.regex.charAt(this.index) == '?') {
+                        throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + this.index);
+                    }
+                    Node group = parseAlternation();
+                    if (this.index >= this.regex.length() || this.regex.charAt(this.index) != ')') {
+                        throw new IllegalArgumentException(UNBALANCED_GROUP_ERR + atomStart);
+                    }
+                    this.index++;
+                    return group;
+                case '[':
+                    return characterNode(parseClass());
+                case '.':
+                    return characterNode(new CharClass(LINE_TERMINATOR_RANGES, true));
+                case '^':
+                    return new Node(LINE_START, null, null);
+                case '$':
+                    return new Node(LINE_END, null, null);
+                case '\\':
+                    if (this.index < this.regex.length() && this.regex.charAt(this.index) == 'b') {
+                        this.index++;
+                        return new Node(WORD_BOUNDARY, null, null);
+                    }
+                    int[] escapeRanges = parseEscape();
+                    return characterNode(new CharClass(escapeRanges, false));
+                case '{':
+                case '*':
+                case '+':
+                case '?':
+                    throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + atomStart);
+                default:
+                    return characterNode(new CharClass(new int[]{codePoint, codePoint}, false));
+            }
+        }
+
+        /**
+         * Parses a character class, following its opening bracket
+         * @return the parsed class
+         */
+        private CharClass parseClass() {
+            boolean negated = false;
+            if (this.index < this.regex.length() && this.regex.charAt(this.index) == '^') {
+                negated = true;
+                this.index++;
+            }
+            List<int[]> parts = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (this.index >= this.regex.length()) {
+                    throw new IllegalArgumentException(UNBALANCED_GROUP_ERR + this.index);
+                }
+                char curChar = this.regex.charAt(this.index);
+                if (curChar == ']' && !first) {
+                    this.index++;
+                    break;
+                }
+                if (curChar == '[' || this.regex.startsWith("&&", this.index)) {
+                    throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + this.index);
+                }
+                first = false;
+                int[] part;
+                if (curChar == '\\') {
+                    this.index++;
+                    part = parseEscape();
+                } else {
+                    int codePoint = this.regex.codePointAt(this.index);
+                    this.index += Character.charCount(codePoint);
+                    part = new int[]{codePoint, codePoint};
+                }
+                /* A range, where "-" before the closing bracket is the character itself */
+                if (part.length == 2 && part[0] == part[1] && this.index + 1 < this.regex.length() &&
+                        this.regex.charAt(this.index) == '-' && this.regex.charAt(this.index + 1) != ']') {
+                    this.index++;
+                    int[] upper;
+                    if (this.regex.charAt(this.index) == '\\') {
+                        this.index++;
+                        upper = parseEscape();
+                    } else {
+                        int codePoint = this.regex.codePointAt(this.index);
+                        this.index += Character.charCount(codePoint);
+                        upper = new int[]{codePoint, codePoint};
+                    }
+                    if (upper.length != 2 || upper[0] != upper[1] || upper[0] < part[0]) {
+                        throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + this.index);
+                    }
+                    part = new int[]{part[0], upper[0]};
+                }
+                parts.add(part);
+            }
+            int rangesLength = 0;
+            for (int[] part : parts) {
+                rangesLength += part.length;
+            }
+            int[] ranges = new int[rangesLength];
+            int rangesIndex = 0;
+            for (int[] part : parts) {
+                System.arraycopy(part, 0, ranges, rangesIndex, part.length);
+                rangesIndex += part.length;
+            }
+            return new CharClass(ranges, negated);
+        }
+
+        /**
+         * Parses an escape, following its backslash
+         * @return ranges of the characters the escape matches
+         */
+        private int[] parseEscape() {
+            if (this.index >= this.regex.length()) {
+                throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + this.index);
+            }
+            int codePoint = this.regex.codePointAt(this.index);
+            this.index += Character.charCount(codePoint);
+            switch (codePoint) {
+                case 's':
+                    return SPACE_RANGES;
+                case 'w':
+                    return WORD_RANGES;
+                case 'd':
+                    return DIGIT_RANGES;
+                case 't':
+                    return new int[]{'\t', '\t'};
+                case 'n':
+                    return new int[]{'\n', '\n'};
+                case 'r':
+                    return new int[]{'\r', '\r'};
+                default:
+                    /* Escaped letters and digits have special meanings which are not supported */
+                    if (Character.isLetterOrDigit(codePoint)) {
+                        throw new IllegalArgumentException(UNSUPPORTED_SYNTAX_ERR + (this.index - 1));
+                    }
+                    return new int[]{codePoint, codePoint};
+            }
+        }
+
+        /**
+         * @param character character to check
+         * @return true if the character is a supported quantifier
+         */
+        private static boolean isQuantifier(char character) {
+            return character == '*' || character == '+' || character == '?';
+        }
+
+        /**
+         * @param charClass class of characters the node reads
+         * @return a node reading a single character of the class
+         */
+        private static Node characterNode(CharClass charClass) {
+            return new Node(CHARACTER, null, charClass);
+        }
+    }
+
+    /**
+     * Compiler of a parsed regex into the states of the automaton
+     */
+    private static final class Compiler {
+        /**
+         * Kind, following states and character class of every compiled state
+         */
+        private final List<Integer> kinds = new ArrayList<>();
+        private final List<Integer> nexts = new ArrayList<>();
+        private final List<Integer> alternatives = new ArrayList<>();
+        private final List<CharClass> charClasses = new ArrayList<>();
+
+        /**
+         * Adds a state to the automaton
+         * @param kind kind of the state
+         * @param next state following the state
+         * @param alternative second state following a split, -1 for the other states
+         * @param charClass character class read by a character state, null for the other states
+         * @return the added state
+         */
+        private int addState(int kind, int next, int alternative, CharClass charClass) {
+            this.kinds.add(kind);
+            this.nexts.add(next);
+            this.alternatives.add(alternative);
+            this.charClasses.add(charClass);
+            return this.kinds.size() - 1;
+        }
+
+        /**
+         * Compiles a node into states leading to the given state once the node is matched
+         * @param node node to compile
+         * @param next state following the node
+         * @return the first state of the node
+         */
+        private int compile(Node node, int next) {
+            switch (node.kind) {
+                case EMPTY:
+                    return next;
+                case CONCATENATION:
+                    int first = next;
+                    for (int i = node.children.size() - 1; i >= 0; i--) {
+                        first = compile(node.children.get(i), first);
+                    }
+                    return first;
+                case ALTERNATION:
+                    int alternation = compile(node.children.get(node.children.size() - 1), next);
+                    for (int i = node.children.size() - 2; i >= 0; i--) {
+                        alternation = addState(SPLIT, compile(node.children.get(i), next), alternation, null);
+                    }
+                    return alternation;
+                case STAR:
+                case PLUS:
+                    /* The split repeating the node is added first, since the node leads back to it */
+                    int split = addState(SPLIT, -1, next, null);
+                    int body = compile(node.children.get(0), split);
+                    this.nexts.set(split, body);
+                    return node.kind == STAR ? split : body;
+                case OPTIONAL:
+                    return addState(SPLIT, compile(node.children.get(0), next), next, null);
+                default:
+                    return addState(node.kind, next, -1, node.charClass);
+            }
+        }
+    }
+}
@@ -8,50 +8,121 @@ import java.util.List;
  */
 public class MethodCallValidator implements Validator{
 
-    // Regex patterns
-    private static final String NAME_PATTERN  = "\\s*[a-zA-Z][a-zA-Z_\\d]*";
-
-    private static final String PARENTHESES_PATTERN = "\\s*[(].*[)]$";
-
-    private static final String VALID_HEAD = "\\s*[(]";
-
-    private static final String VALID_TAIL = "[)]$";
-
-    // List containing method data (name and params)
-    private final List<String> methodParams = new ArrayList<>();
-
     /**
      * Validates that the current line is a syntactically correct Method call
      * @param lineToValidate line to validate.
      * @return true if the current line is a syntactically correct Method call
      */
     @Override
-    public boolean validate(String lineToValidate) {
-        lineToValidate = lineToValidate.replaceAll(";", "");
-        if (!lineToValidate.matches(NAME_PATTERN + PARENTHESES_PATTERN)) {
+    public boolean validate(CharSequence lineToValidate) {
+        return parseMethodCall(lineToValidate, null);
+    }
+
+    /**
+     * Parses given line as a Method call, in a single scan of the line with all its ';' skipped: whitespace,
+     * the method name, whitespace and an opening parenthesis, then the params split by commas up to the
+     * closing parenthesis the line ends with, none of them containing a line terminator.
+     * @param lineToValidate line to parse.
+     * @param parsedLines parsed lines to add the method name and params to as a method call operation, null
+     *                    to only validate the line.
+     * @return true if the current line is a syntactically correct Method call, false otherwise.
+     */
+    public boolean parseMethodCall(CharSequence lineToValidate, ParsedLines parsedLines) {
+        int length = lineToValidate.length();
+        int index = skipWhitespace(lineToValidate, 0);
+        if (index == length || !isAsciiLetter(lineToValidate.charAt(index))) {
             return false;
         }
-        //extract method name
-        String methodName = lineToValidate.split("\\(")[0].trim();
-        //first element is method name
-        methodParams.add(methodName);
-        lineToValidate = lineToValidate.replaceFirst(NAME_PATTERN + VALID_HEAD, "");
-        lineToValidate = lineToValidate.replaceFirst(VALID_TAIL,"");
-        String[] parameters = lineToValidate.split(",");
-        //adds method params.
-        for (String param : parameters){
-            if (!param.trim().equals("")) {
-                methodParams.add(param.trim());
+        StringBuilder methodName = parsedLines == null ? null : new StringBuilder();
+        while (index < length && (isAsciiLetter(lineToValidate.charAt(index)) ||
+                isDigitOrUnderscore(lineToValidate.charAt(index)))) {
+            if (methodName != null) {
+                methodName.append(lineToValidate.charAt(index));
             }
+            index = nextChar(lineToValidate, index + 1);
+        }
+        index = skipWhitespace(lineToValidate, index);
+        if (index == length || lineToValidate.charAt(index) != '(') {
+            return false;
+        }
+        /* The line must end with the closing parenthesis */
+        int closing = length - 1;
+        while (closing > index && lineToValidate.charAt(closing) == ';') {
+            closing--;
+        }
+        if (closing == index || lineToValidate.charAt(closing) != ')') {
+            return false;
+        }
+
+        List<String> methodParams = parsedLines == null ? null : new ArrayList<>();
+        StringBuilder param = new StringBuilder();
+        for (int i = index + 1; i <= closing; i++) {
+            char curChar = lineToValidate.charAt(i);
+            if (Validator.isLineTerminator(curChar) && i < closing) {
+                return false;
+            }
+            if (methodParams == null || curChar == ';') {
+                continue;
+            }
+            if (curChar == ',' || i == closing) {
+                String trimmedParam = param.toString().trim();
+                if (!trimmedParam.equals("")) {
+                    methodParams.add(trimmedParam);
+                }
+                param.setLength(0);
+            } else {
+                param.append(curChar);
+            }
+        }
+        if (parsedLines != null) {
+            parsedLines.startMethodCall(methodName.toString());
+            //adds method params.
+            for (String methodParam : methodParams) {
+                parsedLines.addValue(methodParam);
+            }
+            parsedLines.endOperation();
         }
         return true;
     }
 
     /**
-     * MethodParams getter
-     * @return Method params.
+     * @param line line to scan
+     * @param index index to start at
+     * @return index of the first character from the given index which is not a ';'
+     */
+    private static int nextChar(CharSequence line, int index) {
+        while (index < line.length() && line.charAt(index) == ';') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param line line to scan
+     * @param index index to start at
+     * @return index of the first character from the given index which is neither whitespace nor a ';'
+     */
+    private static int skipWhitespace(CharSequence line, int index) {
+        index = nextChar(line, index);
+        while (index < line.length() && Validator.isPatternWhitespace(line.charAt(index))) {
+            index = nextChar(line, index + 1);
+        }
+        return index;
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character is an ASCII letter
+     */
+    private static boolean isAsciiLetter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * @param character character to check
+     * @return true if the character is an ASCII digit or an underscore
      */
-    public List<String> getMethodParams(){
-        return methodParams;
+    private static boolean isDigitOrUnderscore(char character) {
+        return (character >= '0' && character <= '9') || character == '_';
     }
 }
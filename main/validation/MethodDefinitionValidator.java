@@ -1,6 +1,7 @@
 package main.validation;
 
 import main.sJavaDataTypes.SJavaMethod;
+import main.sJavaDataTypes.SJavaType;
 import main.sJavaDataTypes.SJavaVariable;
 
 import java.util.*;
@@ -25,6 +26,10 @@ public class MethodDefinitionValidator extends AssignmentValidator {
     private static final String PARAMS = "[^)]*";
     // valid tail pattern.
     private static final String VALID_TAIL = "[)][\\s\\t]*[{][\\s\\t]*$";
+    // separators between the "void" keyword and the method name.
+    private static final String NAME_SEPARATORS = "\\(|\\s";
+    // parameters list with no parameters.
+    private static final String NO_PARAMS = "\\s*";
     private static final String LEGAL_VAR_DECLARATION = INT_DECLARATION + "|" + DOUBLE_DECLARATION + "|" + BOOLEAN_DECLARATION + "|" + CHAR_DECLARATION + "|" + STRING_DECLARATION;
 
     private static final String METHOD_DEF_ERR = "Illegal method definition syntax: ";
@@ -35,49 +40,59 @@ public class MethodDefinitionValidator extends AssignmentValidator {
     private static final String INVALID_VAR_TYPE = "invalid variable type";
 
 
-    // params names.
-    private static List<String> params = new ArrayList<>();
-    // method name
-    private static String methodName;
-
     /**
      * Validates that the current line is a syntactically correct Method definition
      * @param lineToValidate line to validate.
      * @return true if the current line is a syntactically correct Method definition
      */
     @Override
-    public boolean validate(String lineToValidate) {
+    public boolean validate(CharSequence lineToValidate) {
+        return getParams(lineToValidate) != null;
+    }
+
+    /**
+     * Extracts the params of a Method definition
+     * @param lineToValidate line to parse.
+     * @return params of the method, null if the line is not a syntactically correct Method definition.
+     */
+    private List<String> getParams(CharSequence lineToValidate) {
         if (!getMatcher(lineToValidate, VAlID_HEAD + PARAMS + VALID_TAIL).find()) {
-            return false;
+            return null;
         }
-        //get method name
-        methodName = lineToValidate.split("\\(|\\s")[1].trim();
         //get method params
-        String rawParams =
-                lineToValidate.replaceFirst(VAlID_HEAD, "").replaceFirst(VALID_TAIL, "");
-        params = Arrays.asList(rawParams.split(","));
+        String rawParams = getMatcher(lineToValidate, VAlID_HEAD).replaceFirst("");
+        rawParams = getMatcher(rawParams, VALID_TAIL).replaceFirst("");
+        List<String> params = Arrays.asList(rawParams.split(","));
 
         if (params.size() == 1) {
-            if (params.get(0).matches("\\s*")) {
-                return true;
+            if (getMatcher(params.get(0), NO_PARAMS).matches()) {
+                return params;
             }
         }
         for (String param : params) {
-            if (!param.trim().matches(LEGAL_VAR_DECLARATION)) {
-                return false;
+            if (!getMatcher(param.trim(), LEGAL_VAR_DECLARATION).matches()) {
+                return null;
             }
         }
-        return true;
+        return params;
     }
 
     /**
-     * Check and handle parameters in method.
-     *
-     * @throws Exception in case of 2 parameters with same name.
+     * Parses given line as a Method definition, checking and handling the parameters in method. The
+     * validator keeps no state, so the method is returned rather than kept for a getter.
+     * @param lineToValidate line to parse.
+     * @return the defined method, null if the line is not a syntactically correct Method definition.
+     * @throws SyntaxException in case of 2 parameters with same name, or of an invalid parameter type.
      */
-    public SJavaMethod getMethodData() throws SyntaxException {
+    public SJavaMethod getMethodData(CharSequence lineToValidate) throws SyntaxException {
+        List<String> params = getParams(lineToValidate);
+        if (params == null) {
+            return null;
+        }
+        //get method name
+        String methodName = PatternRegistry.getPattern(NAME_SEPARATORS).split(lineToValidate)[1].trim();
         Map<String, SJavaVariable> methodParams = new HashMap<>();
-        if (params.get(0).matches("\\s*")) {
+        if (getMatcher(params.get(0), NO_PARAMS).matches()) {
             return new SJavaMethod(methodName, null);
         }
         String curParam;
@@ -85,14 +100,14 @@ public class MethodDefinitionValidator extends AssignmentValidator {
         for (String param : params) {
             curParam = param.trim();
             boolean isFinal = isFinal(curParam);
-            String type = checkForType(curParam);
+            SJavaType type = checkForType(curParam, isFinal);
             if (type == null) {
                 // invalid variable type exception
                 throw new SyntaxException(METHOD_DEF_ERR + INVALID_VAR_TYPE);
             }
             //get parameter without type
-            curLine = curLine.replaceFirst(type, "");
-            String paramName = curLine.replaceFirst(type, "").trim();
+            String paramLine = getMatcher(removeFinal(curParam), type.getKeyword()).replaceFirst("");
+            String paramName = getMatcher(paramLine, type.getKeyword()).replaceFirst("").trim();
             SJavaVariable newVar = new SJavaVariable(paramName, type, isFinal);
             if (methodParams.containsKey(paramName)) {
                 // 2 params with same name exception
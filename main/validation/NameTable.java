@@ -0,0 +1,49 @@
+package main.validation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Table of the names found in the parsed lines of a source, giving each distinct name a single index, so
+ * that the parsed lines refer to names by their index rather than by their text. Names are only ever
+ * added, so the index of a name never changes.
+ */
+class NameTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Index of each name in the table, by name
+     */
+    private final HashMap<String, Integer> indices = new HashMap<>();
+    /**
+     * Names in the table, by index, the first size of them being in use
+     */
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Finds the index of a name, adding the name to the table if it is not in it yet
+     * @param name name to look up
+     * @return index of the name in the table
+     */
+    int indexOf(String name) {
+        Integer index = this.indices.get(name);
+        if (index != null) {
+            return index;
+        }
+        if (this.size == this.names.length) {
+            this.names = Arrays.copyOf(this.names, this.size * 2);
+        }
+        this.names[this.size] = name;
+        this.indices.put(name, this.size);
+        return this.size++;
+    }
+
+    /**
+     * @param index index of a name in the table
+     * @return the name of the given index
+     */
+    String getName(int index) {
+        return this.names[index];
+    }
+}
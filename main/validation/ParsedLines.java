@@ -0,0 +1,500 @@
+package main.validation;
+
+import main.sJavaDataTypes.SJavaMethod;
+import main.sJavaDataTypes.SJavaType;
+import main.sJavaDataTypes.SJavaVariable;
+
+import java.util.Arrays;
+
+/**
+ * Intermediate representation of the lines of an SJava source, as parsed once by the LineParser. For each
+ * line, it keeps the kinds the lexer classified it as, the kinds it was parsed as, its brackets, and an
+ * operation for each kind of command it was parsed as - a declaration, an assignment, a condition, a method
+ * call, a return statement or a method definition. The operations are kept in a single flat array of ints,
+ * whose operands are the indices of names in the name table and the codes of values, so that the validation
+ * passes check the lines without reading their text again. Lines are found by their line number in the
+ * source, the lines being parsed in the order of the source.
+ */
+public class ParsedLines {
+    // Errors
+    private static final String LINE_NOT_PARSED_ERROR = "Line was not parsed: ";
+
+    // Codes of the values of the operations, which are otherwise the indices of the names of variables
+    /**
+     * No value was given
+     */
+    public static final int NO_VALUE = -1;
+    /**
+     * The value is of none of the valid types
+     */
+    public static final int INVALID_VALUE = -2;
+    /* Code of a literal value of the type of ordinal 0, the codes of the other types going down from it */
+    private static final int FIRST_LITERAL_VALUE = -3;
+    private static final SJavaType[] TYPES = SJavaType.values();
+
+    /* Flags of the brackets of a line, kept with the flags of the kinds the line was parsed as */
+    private static final int OPENS_BLOCK = 1 << 16;
+    private static final int HAS_OPENING_BRACKET = 1 << 17;
+    private static final int HAS_CLOSING_BRACKET = 1 << 18;
+    private static final int LINE_KINDS_MASK = OPENS_BLOCK - 1;
+
+    /* Flag of an operation whose parsing failed, kept with the line kind of the operation */
+    private static final int FAILED_OPERATION = 1 << 16;
+    /* Offsets of the header of an operation, followed by the fixed operands of its kind and its entries */
+    private static final int KIND_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 1;
+    private static final int OPERANDS_OFFSET = 2;
+
+    private static final int INITIAL_LINES = 64;
+    private static final int INITIAL_OPERATIONS = 256;
+    private static final int INITIAL_OBJECTS = 8;
+
+    /**
+     * Line number of the first line held, in the source
+     */
+    private int firstLineNumber;
+    /**
+     * Number of lines held
+     */
+    private int lineCount;
+    /**
+     * Flags of the kinds each line was classified as by the lexer, by line index
+     */
+    private int[] lineKinds = new int[INITIAL_LINES];
+    /**
+     * Flags of the kinds each line was parsed as, along with the flags of its brackets, by line index
+     */
+    private int[] lineFlags = new int[INITIAL_LINES];
+    /**
+     * Index of the first operation of each line, by line index. The operations of a line end where those
+     * of the next line begin
+     */
+    private int[] lineOperations = new int[INITIAL_LINES];
+    /**
+     * Operations of the lines, the first operationsSize of them being in use
+     */
+    private int[] operations = new int[INITIAL_OPERATIONS];
+    private int operationsSize;
+    /**
+     * Start of the operation being parsed, -1 if no operation is being parsed
+     */
+    private int openOperation = -1;
+    /**
+     * Methods defined by the lines and exceptions the lines failed to be parsed for, referred to by the
+     * operations, the first objectCount of them being in use
+     */
+    private Object[] objects = new Object[INITIAL_OBJECTS];
+    private int objectCount;
+    /**
+     * Names referred to by the operations
+     */
+    private final NameTable names;
+
+    /**
+     * Constructor for the ParsedLines class
+     * @param firstLineNumber Line number of the first line to be parsed, in the source
+     */
+    public ParsedLines(int firstLineNumber) {
+        this(firstLineNumber, new NameTable());
+    }
+
+    /**
+     * Constructor for ParsedLines sharing the names of other parsed lines of the same source
+     * @param firstLineNumber Line number of the first line to be parsed, in the source
+     * @param names Names of the source
+     */
+    private ParsedLines(int firstLineNumber, NameTable names) {
+        this.firstLineNumber = firstLineNumber;
+        this.names = names;
+    }
+
+    /**
+     * @return Line number of the last line parsed, the number of the line before the first line if no line
+     * was parsed yet
+     */
+    public int getLastLineNumber() {
+        return this.firstLineNumber + this.lineCount - 1;
+    }
+
+    /**
+     * @param lineNumber Line number of a parsed line
+     * @return flags of the kinds the line was classified as by the lexer
+     */
+    public int getLineKinds(int lineNumber) {
+        return this.lineKinds[lineIndex(lineNumber)];
+    }
+
+    /**
+     * @param lineNumber Line number of a parsed line
+     * @param lineKind flag of a single line kind
+     * @return true if the line was parsed as a line of the kind
+     */
+    public boolean isLineOf(int lineNumber, int lineKind) {
+        return (this.lineFlags[lineIndex(lineNumber)] & lineKind) != 0;
+    }
+
+    /**
+     * @param lineNumber Line number of a parsed line
+     * @return true if the last character of the line, other than whitespace, is an opening bracket
+     */
+    public boolean opensBlock(int lineNumber) {
+        return (this.lineFlags[lineIndex(lineNumber)] & OPENS_BLOCK) != 0;
+    }
+
+    /**
+     * @param lineNumber Line number of a parsed line
+     * @return true if the line contains an opening bracket
+     */
+    public boolean hasOpeningBracket(int lineNumber) {
+        return (this.lineFlags[lineIndex(lineNumber)] & HAS_OPENING_BRACKET) != 0;
+    }
+
+    /**
+     * @param lineNumber Line number of a parsed line
+     * @return true if the line contains a closing bracket
+     */
+    public boolean hasClosingBracket(int lineNumber) {
+        return (this.lineFlags[lineIndex(lineNumber)] & HAS_CLOSING_BRACKET) != 0;
+    }
+
+    /**
+     * Finds the operation of a line kind in a line
+     * @param lineNumber Line number of a parsed line
+     * @param lineKind flag of a line kind which has operations, such as a declaration or a method call
+     * @return index of the operation, -1 if the line was not parsed as a line of the kind
+     * @throws SyntaxException if the line is of the kind, but its command is not syntactically correct
+     */
+    public int findOperation(int lineNumber, int lineKind) throws SyntaxException {
+        int lineIndex = lineIndex(lineNumber);
+        if ((this.lineFlags[lineIndex] & lineKind) == 0) {
+            return -1;
+        }
+        int operation = this.lineOperations[lineIndex];
+        while ((this.operations[operation + KIND_OFFSET] & lineKind) == 0) {
+            operation += this.operations[operation + LENGTH_OFFSET];
+        }
+        if ((this.operations[operation + KIND_OFFSET] & FAILED_OPERATION) != 0) {
+            Exception parseException = (Exception) this.objects[this.operations[operation + OPERANDS_OFFSET]];
+            if (parseException instanceof SyntaxException) {
+                throw (SyntaxException) parseException;
+            }
+            throw (RuntimeException) parseException;
+        }
+        return operation;
+    }
+
+    /**
+     * @param operation index of a variable declaration operation
+     * @return type of the declared variables
+     */
+    public SJavaType getDeclaredType(int operation) {
+        int typeOrdinal = this.operations[operation + OPERANDS_OFFSET];
+        return typeOrdinal < 0 ? null : TYPES[typeOrdinal];
+    }
+
+    /**
+     * @param operation index of a variable declaration operation
+     * @return true if the declared variables are final
+     */
+    public boolean isFinalDeclaration(int operation) {
+        return this.operations[operation + OPERANDS_OFFSET + 1] != 0;
+    }
+
+    /**
+     * @param operation index of a method call operation
+     * @return index of the name of the called method
+     */
+    public int getCalledMethod(int operation) {
+        return this.operations[operation + OPERANDS_OFFSET];
+    }
+
+    /**
+     * @param operation index of a method definition operation
+     * @return the defined method
+     */
+    public SJavaMethod getDefinedMethod(int operation) {
+        return (SJavaMethod) this.objects[this.operations[operation + OPERANDS_OFFSET]];
+    }
+
+    /**
+     * @param operation index of a declaration, assignment, condition or method call operation
+     * @return number of the entries of the operation - the declared or assigned variables, the variables
+     * of the condition, or the values of the call's parameters
+     */
+    public int getEntryCount(int operation) {
+        return (this.operations[operation + LENGTH_OFFSET] - entriesOffset(operation)) / entryLength(operation);
+    }
+
+    /**
+     * @param operation index of a declaration, assignment or condition operation
+     * @param entry index of the entry
+     * @return index of the name of the entry's variable
+     */
+    public int getEntryName(int operation, int entry) {
+        return this.operations[operation + entriesOffset(operation) + entry * entryLength(operation)];
+    }
+
+    /**
+     * @param operation index of a declaration, assignment or method call operation
+     * @param entry index of the entry
+     * @return code of the entry's value, NO_VALUE if a declared variable is given no value
+     */
+    public int getEntryValue(int operation, int entry) {
+        int entryLength = entryLength(operation);
+        return this.operations[operation + entriesOffset(operation) + entry * entryLength + entryLength - 1];
+    }
+
+    /**
+     * @param nameIndex index of a name, such as the code of a value which is a variable
+     * @return the name of the given index
+     */
+    public String getName(int nameIndex) {
+        return this.names.getName(nameIndex);
+    }
+
+    /**
+     * Returns the type of a value, as SJavaVariable.getMatchingType returned it for the value's text
+     * @param value code of a value
+     * @return type of the value, VAR for a variable, whose name is the index of the code, and null for a
+     * value of none of the valid types
+     */
+    public static SJavaType getValueType(int value) {
+        if (value >= 0) {
+            return SJavaType.VAR;
+        }
+        return value <= FIRST_LITERAL_VALUE ? TYPES[FIRST_LITERAL_VALUE - value] : null;
+    }
+
+    /**
+     * Copies the given lines, so that they are kept after these lines are released. The copy shares the
+     * names of these lines.
+     * @param firstLineNumber Line number of the first line to copy
+     * @param lastLineNumber Line number of the last line to copy
+     * @return ParsedLines holding the lines between the given line numbers, inclusive
+     */
+    public ParsedLines copyLines(int firstLineNumber, int lastLineNumber) {
+        int firstIndex = lineIndex(firstLineNumber);
+        int endIndex = lineIndex(lastLineNumber) + 1;
+        int firstOperation = this.lineOperations[firstIndex];
+        int endOperation = operationsEnd(endIndex);
+
+        ParsedLines copy = new ParsedLines(firstLineNumber, this.names);
+        copy.lineCount = endIndex - firstIndex;
+        copy.lineKinds = Arrays.copyOfRange(this.lineKinds, firstIndex, endIndex);
+        copy.lineFlags = Arrays.copyOfRange(this.lineFlags, firstIndex, endIndex);
+        copy.lineOperations = Arrays.copyOfRange(this.lineOperations, firstIndex, endIndex);
+        for (int i = 0; i < copy.lineCount; i++) {
+            copy.lineOperations[i] -= firstOperation;
+        }
+        copy.operations = Arrays.copyOfRange(this.operations, firstOperation, endOperation);
+        copy.operationsSize = endOperation - firstOperation;
+        /* The methods and exceptions the copied operations refer to are copied along with them */
+        for (int operation = 0; operation < copy.operationsSize;
+             operation += copy.operations[operation + LENGTH_OFFSET]) {
+            int kind = copy.operations[operation + KIND_OFFSET];
+            if ((kind & (FAILED_OPERATION | LineLexer.METHOD_DEFINITION_LINE)) != 0) {
+                copy.operations[operation + OPERANDS_OFFSET] =
+                        copy.addObject(this.objects[copy.operations[operation + OPERANDS_OFFSET]]);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Drops all the lines parsed so far, so that they are no longer held. The next line parsed follows them.
+     */
+    public void release() {
+        this.firstLineNumber += this.lineCount;
+        this.lineCount = 0;
+        this.operationsSize = 0;
+        Arrays.fill(this.objects, 0, this.objectCount, null);
+        this.objectCount = 0;
+    }
+
+    /**
+     * Starts the next line of the source
+     * @param kinds flags of the kinds the line was classified as by the lexer
+     * @param opensBlock is the last character of the line, other than whitespace, an opening bracket?
+     * @param hasOpeningBracket does the line contain an opening bracket?
+     * @param hasClosingBracket does the line contain a closing bracket?
+     */
+    void startLine(int kinds, boolean opensBlock, boolean hasOpeningBracket, boolean hasClosingBracket) {
+        if (this.lineCount == this.lineKinds.length) {
+            this.lineKinds = Arrays.copyOf(this.lineKinds, this.lineCount * 2);
+            this.lineFlags = Arrays.copyOf(this.lineFlags, this.lineCount * 2);
+            this.lineOperations = Arrays.copyOf(this.lineOperations, this.lineCount * 2);
+        }
+        this.lineKinds[this.lineCount] = kinds;
+        this.lineFlags[this.lineCount] = (opensBlock ? OPENS_BLOCK : 0) |
+                (hasOpeningBracket ? HAS_OPENING_BRACKET : 0) | (hasClosingBracket ? HAS_CLOSING_BRACKET : 0);
+        this.lineOperations[this.lineCount] = this.operationsSize;
+        this.lineCount++;
+    }
+
+    /**
+     * Marks the current line as parsed as a line of a kind which has no operations, such as an empty line
+     * @param lineKind flag of the line kind
+     */
+    void addLineKind(int lineKind) {
+        this.lineFlags[this.lineCount - 1] |= lineKind;
+    }
+
+    /**
+     * Starts an operation of the current line. The operations of a line are started in the order of the
+     * flags of their kinds.
+     * @param lineKind flag of the line kind of the operation
+     */
+    void startOperation(int lineKind) {
+        this.openOperation = this.operationsSize;
+        addOperand(lineKind);
+        addOperand(0);
+    }
+
+    /**
+     * Starts a variable declaration operation of the current line
+     * @param type type of the declared variables
+     * @param isFinal are the declared variables final?
+     */
+    void startDeclaration(SJavaType type, boolean isFinal) {
+        startOperation(LineLexer.VARIABLE_DECLARATION_LINE);
+        addOperand(type == null ? -1 : type.ordinal());
+        addOperand(isFinal ? 1 : 0);
+    }
+
+    /**
+     * Starts a method call operation of the current line
+     * @param methodName name of the called method
+     */
+    void startMethodCall(String methodName) {
+        startOperation(LineLexer.METHOD_CALL_LINE);
+        addName(methodName);
+    }
+
+    /**
+     * Adds the name of a variable to the operation being parsed
+     * @param name name of the variable
+     */
+    void addName(String name) {
+        addOperand(this.names.indexOf(name));
+    }
+
+    /**
+     * Adds a value to the operation being parsed, by its code
+     * @param value text of the value, null if no value was given
+     */
+    void addValue(String value) {
+        if (value == null) {
+            addOperand(NO_VALUE);
+            return;
+        }
+        SJavaType type = SJavaVariable.getMatchingType(value);
+        if (type == null) {
+            addOperand(INVALID_VALUE);
+        } else if (type == SJavaType.VAR) {
+            addName(value);
+        } else {
+            addOperand(FIRST_LITERAL_VALUE - type.ordinal());
+        }
+    }
+
+    /**
+     * Ends the operation being parsed, marking the current line as parsed as a line of its kind
+     */
+    void endOperation() {
+        this.operations[this.openOperation + LENGTH_OFFSET] = this.operationsSize - this.openOperation;
+        addLineKind(this.operations[this.openOperation + KIND_OFFSET] & LINE_KINDS_MASK);
+        this.openOperation = -1;
+    }
+
+    /**
+     * Adds a method definition operation to the current line
+     * @param sJavaMethod the defined method
+     */
+    void addMethodDefinition(SJavaMethod sJavaMethod) {
+        startOperation(LineLexer.METHOD_DEFINITION_LINE);
+        addOperand(addObject(sJavaMethod));
+        endOperation();
+    }
+
+    /**
+     * Replaces the operation being parsed, if any, by an operation of the same kind which failed to be
+     * parsed, so that the exception is thrown when the operation is looked for
+     * @param lineKind flag of the line kind of the operation
+     * @param parseException exception the operation failed to be parsed for
+     */
+    void failOperation(int lineKind, Exception parseException) {
+        if (this.openOperation >= 0) {
+            this.operationsSize = this.openOperation;
+        }
+        startOperation(lineKind | FAILED_OPERATION);
+        addOperand(addObject(parseException));
+        endOperation();
+    }
+
+    /**
+     * @param operand operand to add to the operation being parsed
+     */
+    private void addOperand(int operand) {
+        if (this.operationsSize == this.operations.length) {
+            this.operations = Arrays.copyOf(this.operations, this.operationsSize * 2);
+        }
+        this.operations[this.operationsSize++] = operand;
+    }
+
+    /**
+     * @param object method or exception to be referred to by an operation
+     * @return index of the object
+     */
+    private int addObject(Object object) {
+        if (this.objectCount == this.objects.length) {
+            this.objects = Arrays.copyOf(this.objects, this.objectCount * 2);
+        }
+        this.objects[this.objectCount] = object;
+        return this.objectCount++;
+    }
+
+    /**
+     * @param operation index of an operation
+     * @return offset of the first entry of the operation, following its fixed operands
+     */
+    private int entriesOffset(int operation) {
+        switch (this.operations[operation + KIND_OFFSET]) {
+            case LineLexer.VARIABLE_DECLARATION_LINE:
+                return OPERANDS_OFFSET + 2;
+            case LineLexer.METHOD_CALL_LINE:
+                return OPERANDS_OFFSET + 1;
+            default:
+                return OPERANDS_OFFSET;
+        }
+    }
+
+    /**
+     * @param operation index of an operation
+     * @return number of operands of each entry of the operation
+     */
+    private int entryLength(int operation) {
+        int kind = this.operations[operation + KIND_OFFSET];
+        return kind == LineLexer.VARIABLE_DECLARATION_LINE || kind == LineLexer.VARIABLE_ASSIGNMENT_LINE ? 2 : 1;
+    }
+
+    /**
+     * @param lineIndex index of a line, or the number of lines
+     * @return index of the end of the operations of the lines before the given one
+     */
+    private int operationsEnd(int lineIndex) {
+        return lineIndex < this.lineCount ? this.lineOperations[lineIndex] : this.operationsSize;
+    }
+
+    /**
+     * @param lineNumber Line number of a parsed line
+     * @return index of the line among the lines held
+     * @throws IllegalArgumentException if the line is not held
+     */
+    private int lineIndex(int lineNumber) {
+        int lineIndex = lineNumber - this.firstLineNumber;
+        if (lineIndex < 0 || lineIndex >= this.lineCount) {
+            throw new IllegalArgumentException(LINE_NOT_PARSED_ERROR + lineNumber);
+        }
+        return lineIndex;
+    }
+}
@@ -0,0 +1,62 @@
+package main.validation;
+
+import main.instrumentation.VerifierStatistics;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shared, thread-safe registry of compiled regex patterns. Each distinct pattern string is compiled
+ * once and reused by every validator, instead of being recompiled on every line. Each thread also keeps
+ * a single matcher of each pattern, which is reset for every line rather than made for it.
+ */
+public final class PatternRegistry {
+    /**
+     * Compiled patterns, keyed by their regex string
+     */
+    private static final ConcurrentHashMap<String, Pattern> patterns = new ConcurrentHashMap<>();
+    /**
+     * Matchers of the compiled patterns, keyed by their regex string, of the current thread
+     */
+    private static final ThreadLocal<HashMap<String, Matcher>> matchers = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Private constructor, the registry is only used statically
+     */
+    private PatternRegistry() {
+    }
+
+    /**
+     * Returns the compiled pattern of the given regex, compiling it only on its first request.
+     * @param regex regex to get the compiled pattern of.
+     * @return compiled Pattern of the given regex.
+     */
+    public static Pattern getPattern(String regex) {
+        Pattern pattern = patterns.get(regex);
+        if (pattern == null) {
+            pattern = patterns.computeIfAbsent(regex, Pattern::compile);
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns the current thread's matcher of the given regex, reset to match the given input. The matcher
+     * is only valid until the next request of a matcher of the same regex by the same thread.
+     * @param regex regex to get the matcher of.
+     * @param input input to match.
+     * @return Matcher of the given regex over the given input.
+     */
+    public static Matcher getMatcher(String regex, CharSequence input) {
+        VerifierStatistics.recordRegexEvaluation();
+        HashMap<String, Matcher> threadMatchers = matchers.get();
+        Matcher matcher = threadMatchers.get(regex);
+        if (matcher == null) {
+            matcher = getPattern(regex).matcher(input);
+            threadMatchers.put(regex, matcher);
+            return matcher;
+        }
+        return matcher.reset(input);
+    }
+}
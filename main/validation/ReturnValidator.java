@@ -7,16 +7,20 @@ public class ReturnValidator implements Validator{
     // Regex patterns
     private static final String RETURN_KEYWORD_PATTERN = "^\\s*return\\s*";
 
+    // Validator of the end of the line, which keeps no state
+    private static final EndOfLineValidator END_OF_LINE_VALIDATOR = new EndOfLineValidator();
+
     /**
      * Validates that the current line is a syntactically correct Return statement
      * @param lineToValidate line to validate.
      * @return true if the current line is a syntactically correct Return statement
      */
     @Override
-    public boolean validate(String lineToValidate) {
+    public boolean validate(CharSequence lineToValidate) {
         //check if we got a valid end of line
-        if(new EndOfLineValidator().validate(lineToValidate)){
-            return lineToValidate.replaceFirst(";", "").matches(RETURN_KEYWORD_PATTERN);
+        if(END_OF_LINE_VALIDATOR.validate(lineToValidate)){
+            String lineWithoutEnd = removeFirst(lineToValidate, ';');
+            return getMatcher(lineWithoutEnd, RETURN_KEYWORD_PATTERN).matches();
         }
         return false;
     }
@@ -3,7 +3,7 @@ package main.validation;
 /**
  * Represents an exception thrown when an S-java file has a syntax related error
  */
-public class SyntaxException extends Exception{
+public class SyntaxException extends CompilationException {
     public SyntaxException(String errorMessage){
         super(errorMessage);
     }
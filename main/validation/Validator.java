@@ -1,7 +1,6 @@
 package main.validation;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Represents a validator, an object capable of validating a unique pattern in given line.
@@ -9,22 +8,57 @@ import java.util.regex.Pattern;
 public interface Validator {
 
     /**
-     * Checks if given line contains a specific pattern to be validated.
+     * Checks if given line contains a specific pattern to be validated. The line may be a view over the
+     * source file rather than a String.
      * @param lineToValidate line to validate.
      * @return true if line contains mentioned pattern, false otherwise.
      * @throws Exception in case of a syntax error.
      */
-    boolean validate(String lineToValidate) throws Exception;
+    boolean validate(CharSequence lineToValidate) throws Exception;
 
     /**
-     * Gets a matcher according to given line and pattern to match.
+     * Gets a matcher according to given line and pattern to match. The pattern is compiled once and
+     * then reused through the PatternRegistry, along with a matcher of it for each thread, so the matcher
+     * must be done with before the same pattern is matched again.
      * @param line given line.
      * @param patternToMatch pattern to match.
      * @return a Matcher object.
      */
-    default Matcher getMatcher(String line, String patternToMatch) {
-        Pattern pattern = Pattern.compile(patternToMatch);
-        return pattern.matcher(line);
+    default Matcher getMatcher(CharSequence line, String patternToMatch) {
+        return PatternRegistry.getMatcher(patternToMatch, line);
+    }
+
+    /**
+     * Removes the first occurrence of a character from given line, as replacing the first match of a
+     * single-character pattern does, without running a matcher over the line.
+     * @param line given line.
+     * @param toRemove character to remove.
+     * @return the line without the first occurrence of the character, the whole line if it has none.
+     */
+    default String removeFirst(CharSequence line, char toRemove) {
+        String text = line.toString();
+        int index = text.indexOf(toRemove);
+        return index < 0 ? text : text.substring(0, index) + text.substring(index + 1);
+    }
+
+    /**
+     * Checks if a character is whitespace as the patterns match it, which is only ASCII whitespace.
+     * @param character character to check.
+     * @return true if the character is whitespace, false otherwise.
+     */
+    static boolean isPatternWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B' ||
+                character == '\f' || character == '\r';
+    }
+
+    /**
+     * Checks if a character terminates a line as the patterns find the end of a line.
+     * @param character character to check.
+     * @return true if the character is a line terminator, false otherwise.
+     */
+    static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' ||
+                character == '\u2029';
     }
 
 }
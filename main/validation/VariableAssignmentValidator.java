@@ -1,12 +1,23 @@
 package main.validation;
 
-import java.util.Vector;
-import java.util.regex.Matcher;
-
 /**
  * Responsible for validating and extracting data from Variable Assignment lines
  */
 public class VariableAssignmentValidator extends AssignmentValidator implements Validator{
+    // Errors
+    private static final String MISSING_VALUE_ERR = "attempt to assign a variable without a value";
+
+    // Linear-time recognizer of the assignment pattern, whose backtracking grows with the line's length
+    private static final LinearPattern MULTI_ASSIGNMENT_RECOGNIZER =
+            new LinearPattern(MULTI_ASSIGNMENT_PATTERN);
+
+    /**
+     * @return the linear-time recognizer of the assignment pattern, which benchmark.LinearPatternChecker checks
+     * against java.util.regex
+     */
+    public static LinearPattern getRecognizer() {
+        return MULTI_ASSIGNMENT_RECOGNIZER;
+    }
 
     /**
      * Validates that the current line is a syntactically correct Variable Assignment
@@ -14,28 +25,48 @@ public class VariableAssignmentValidator extends AssignmentValidator implements
      * @return true if the current line is a syntactically correct Variable Assignment
      */
     @Override
-    public boolean validate(String lineToValidate) {
-        lineToValidate = lineToValidate.replaceFirst(";", "");
-        Matcher matcher = getMatcher(lineToValidate, MULTI_ASSIGNMENT_PATTERN);
-        return matcher.find() && matcher.start() == 0;
+    public boolean validate(CharSequence lineToValidate) {
+        String lineWithoutEnd = removeFirst(lineToValidate, ';');
+        return MULTI_ASSIGNMENT_RECOGNIZER.lookingAt(lineWithoutEnd);
     }
 
     /**
-     * Parses given line and extracts the names of 2 variables in line
+     * Parses a variable assignment line, which was validated as one, in a single scan of the line without
+     * its first ';': every "x = y" segment split by commas, adding each variable name and the value it is
+     * assigned to the parsed lines as an assignment operation.
      * @param line line to parse
-     * @return Vector of String[] elements in the form of {left hand var name, right hand var name}
+     * @param parsedLines parsed lines to add the operation to
+     * @throws SyntaxException in case of a segment without a value
      */
-    public Vector<String[]> getVariableAssignment(String line) {
-        line = line.replaceFirst(";", "");
-    // eligible for a case of a = b or a = 5, returns <"a","b" or "5">
-        Vector<String[]> varsAndValues = new Vector<>();
-        String[] segments = line.split(",");
-        for (String segment : segments) {
+    public void parseAssignments(CharSequence line, ParsedLines parsedLines) throws SyntaxException {
+        String text = removeFirst(line, ';');
+        // trailing empty segments are ignored
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) == ',') {
+            end--;
+        }
+        parsedLines.startOperation(LineLexer.VARIABLE_ASSIGNMENT_LINE);
+        int segmentStart = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i < end && text.charAt(i) != ',') {
+                continue;
+            }
             // every x = y
-            String[] sides = segment.split("=");
-            // add to vector "x" and "y" for further checks.
-            varsAndValues.add(new String[] {sides[0].trim(), sides[1].trim()});
+            int firstEquals = text.indexOf('=', segmentStart);
+            int rightHandStart = firstEquals + 1;
+            while (firstEquals >= 0 && rightHandStart < i && text.charAt(rightHandStart) == '=') {
+                rightHandStart++;
+            }
+            if (firstEquals < 0 || firstEquals >= i || rightHandStart == i) {
+                throw new SyntaxException(MISSING_VALUE_ERR);
+            }
+            int secondEquals = text.indexOf('=', firstEquals + 1);
+            // add "x" and "y" for further checks.
+            parsedLines.addName(text.substring(segmentStart, firstEquals).trim());
+            parsedLines.addValue(text.substring(firstEquals + 1, secondEquals < 0 || secondEquals > i ?
+                    i : secondEquals).trim());
+            segmentStart = i + 1;
         }
-        return varsAndValues;
+        parsedLines.endOperation();
     }
 }
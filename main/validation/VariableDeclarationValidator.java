@@ -1,9 +1,6 @@
 package main.validation;
 
-import main.sJavaDataTypes.SJavaVariable;
-
-import java.util.HashMap;
-import java.util.regex.Matcher;
+import main.sJavaDataTypes.SJavaType;
 
 /**
  * Responsible for validating and extracting data from Variable Declaration lines
@@ -12,6 +9,22 @@ public class VariableDeclarationValidator extends AssignmentValidator implements
     // Errors
     private static final String ASSIGN_VARIABLE_TO_IT_SELF_ERR =
             "attempt to assign variable to itself upon declaration";
+    private static final String MISSING_NAME_ERR = "attempt to declare a variable without a name";
+
+    // Modifier which may precede the type of the declared variables
+    private static final String FINAL_KEYWORD = "final";
+
+    // Linear-time recognizer of the declaration pattern, whose backtracking grows with the line's length
+    private static final LinearPattern VARIABLE_DECLARATION_RECOGNIZER =
+            new LinearPattern(VARIABLE_DECLARATION);
+
+    /**
+     * @return the linear-time recognizer of the declaration pattern, which benchmark.LinearPatternChecker checks
+     * against java.util.regex
+     */
+    public static LinearPattern getRecognizer() {
+        return VARIABLE_DECLARATION_RECOGNIZER;
+    }
 
     /**
      * Validates that the current line is a syntactically correct Variable Declaration
@@ -19,48 +32,158 @@ public class VariableDeclarationValidator extends AssignmentValidator implements
      * @return true if the current line is a syntactically correct Variable Declaration
      */
     @Override
-    public boolean validate(String lineToValidate) {
-        isFinal = isFinal(lineToValidate.replaceFirst(";", ""));
-        Matcher matcher = getMatcher(lineToValidate, VARIABLE_DECLARATION);
-        boolean didFind = matcher.find();
-        return ((didFind) && (matcher.start() == 0));
+    public boolean validate(CharSequence lineToValidate) {
+        return VARIABLE_DECLARATION_RECOGNIZER.lookingAt(lineToValidate);
     }
 
     /**
-     * out of a variable declaration line - extracts all data and creates a vector of Variables
+     * Parses a variable declaration line, which was validated as one, in a single scan: the final modifier
+     * and the type, then every "x = y" segment split by commas, adding each variable name and the value it
+     * is assigned, if any, to the parsed lines as a declaration operation.
      * @param line line to parse
-     * @return Vector of SJavaVariables
+     * @param parsedLines parsed lines to add the operation to
      * @throws SyntaxException in case of wrongful variable assign attempt
      */
-    public HashMap<SJavaVariable,String> getVars(String line) throws SyntaxException {
-        String type = checkForType(line);
-        // removes type from line and splits all assignments to array of strings
-        String[] segments =
-                line.replaceFirst(FINAL_MODIFIER + VAR_TYPES, "").split(",");
-        HashMap<SJavaVariable,String> vars = new HashMap<>();
-        for (String segment : segments) {
-            // for every "x = y" string
-            Matcher matcher = getMatcher(segment, VARIABLE_ASSIGNMENT);
-            if (matcher.find()) {
-                // splits into "x" and "y"
-                String[] sides = segment.split("=");
-                String rightHand;
-                String name = sides[0].trim().replaceFirst(";", "");
-                if (sides.length == 1){
-                    rightHand = null;
-                } else {
-                    rightHand = sides[1].replaceFirst(";","").trim();
-                }
-                if (name.equals(rightHand)){
-                    throw new SyntaxException(ASSIGN_VARIABLE_TO_IT_SELF_ERR);
-                }
-                // either way put right hand (y) as value at hashmap for further checks
-                vars.put(new SJavaVariable(name, type, isFinal),rightHand);
-            } else {
-                // if value is only declared.
-                vars.put(new SJavaVariable(segment.trim(), type, isFinal),null);
+    public void parseVariables(CharSequence line, ParsedLines parsedLines) throws SyntaxException {
+        int index = skipWhitespace(line, 0);
+        boolean isFinal = hasFinalModifier(line);
+        if (startsWith(line, index, FINAL_KEYWORD)) {
+            index = skipWhitespace(line, index + FINAL_KEYWORD.length());
+        }
+        SJavaType type = null;
+        for (SJavaType dataType : SJavaType.DATA_TYPES) {
+            if (startsWith(line, index, dataType.getKeyword())) {
+                type = dataType;
+                index = skipWhitespace(line, index + dataType.getKeyword().length());
+                break;
+            }
+        }
+        parsedLines.startDeclaration(type, isFinal);
+        int length = line.length();
+        int segmentStart = index;
+        // for every "x = y" segment
+        for (int i = index; i <= length; i++) {
+            if (i == length || line.charAt(i) == ',') {
+                parseSegment(line, segmentStart, i, parsedLines);
+                segmentStart = i + 1;
             }
         }
-        return vars;
+        parsedLines.endOperation();
+    }
+
+    /**
+     * Parses a "x = y" segment of a variable declaration line into "x" and "y", the text between the first
+     * two '=' characters
+     * @param line line to parse
+     * @param start index of the start of the segment
+     * @param end index of the end of the segment
+     * @param parsedLines parsed lines to add the variable to
+     * @throws SyntaxException in case of wrongful variable assign attempt
+     */
+    private void parseSegment(CharSequence line, int start, int end, ParsedLines parsedLines)
+            throws SyntaxException {
+        int firstEquals = indexOf(line, '=', start, end);
+        if (firstEquals < 0) {
+            // if value is only declared.
+            parsedLines.addName(removeFirst(line.subSequence(start, end).toString().trim(), ';'));
+            parsedLines.addValue(null);
+            return;
+        }
+        int rightHandStart = firstEquals + 1;
+        while (rightHandStart < end && line.charAt(rightHandStart) == '=') {
+            rightHandStart++;
+        }
+        String name = removeFirst(line.subSequence(start, firstEquals).toString().trim(), ';');
+        String rightHand = null;
+        if (rightHandStart < end) {
+            int secondEquals = indexOf(line, '=', firstEquals + 1, end);
+            rightHand = removeFirst(line.subSequence(firstEquals + 1, secondEquals < 0 ? end : secondEquals),
+                    ';').trim();
+        } else if (firstEquals == start) {
+            throw new SyntaxException(MISSING_NAME_ERR);
+        }
+        if (name.equals(rightHand)) {
+            throw new SyntaxException(ASSIGN_VARIABLE_TO_IT_SELF_ERR);
+        }
+        parsedLines.addName(name);
+        parsedLines.addValue(rightHand);
+    }
+
+    /**
+     * Checks for the final modifier anywhere in the line once its first ';' is removed, as the final pattern
+     * is found
+     * @param line line to check
+     * @return true if "final" followed by whitespace is found
+     */
+    private static boolean hasFinalModifier(CharSequence line) {
+        int semicolon = indexOf(line, ';', 0, line.length());
+        int length = semicolon < 0 ? line.length() : line.length() - 1;
+        for (int i = 0; i + FINAL_KEYWORD.length() < length; i++) {
+            boolean found = Validator.isPatternWhitespace(charAtWithout(line, semicolon,
+                    i + FINAL_KEYWORD.length()));
+            for (int j = 0; found && j < FINAL_KEYWORD.length(); j++) {
+                found = charAtWithout(line, semicolon, i + j) == FINAL_KEYWORD.charAt(j);
+            }
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param line line to look in
+     * @param removed index of a character removed from the line, -1 if none is
+     * @param index index in the line once the character is removed
+     * @return the character at the index of the line once the character is removed
+     */
+    private static char charAtWithout(CharSequence line, int removed, int index) {
+        return removed >= 0 && index >= removed ? line.charAt(index + 1) : line.charAt(index);
+    }
+
+    /**
+     * @param line line to look in
+     * @param character character to look for
+     * @param start index to start at
+     * @param end index to end at
+     * @return index of the first occurrence of the character between the indices, -1 if there is none
+     */
+    private static int indexOf(CharSequence line, char character, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line.charAt(i) == character) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param line line to look in
+     * @param index index to start at
+     * @param word word to look for
+     * @return true if the word is found at the index
+     */
+    private static boolean startsWith(CharSequence line, int index, String word) {
+        if (index + word.length() > line.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (line.charAt(index + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param line line to scan
+     * @param index index to start at
+     * @return index of the first character from the given index which is not whitespace
+     */
+    private static int skipWhitespace(CharSequence line, int index) {
+        while (index < line.length() && Validator.isPatternWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
     }
 }